@@ -23,6 +23,7 @@ import org.jmesa.worksheet.Worksheet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -35,12 +36,14 @@ import java.util.Map;
  */
 public class CoreContext {
 
-    private final Items items;
+    private Items items;
+    private Supplier<Items> itemsSupplier;
     private final Limit limit;
     private final Preferences preferences;
     private final Messages messages;
     private final Worksheet worksheet;
     private Map<? super Object, ? super Object> attributes;
+    private Object dataVersion;
 
     public CoreContext(Items items, Limit limit, Worksheet worksheet, Preferences preferences, Messages messages) {
 
@@ -51,29 +54,68 @@ public class CoreContext {
         this.messages = messages;
     }
 
+    /**
+     * The items are only made, and so filtered, sorted and paged, the first time they or the
+     * Limit are asked for. This lets the export cache answer an export without ever touching
+     * the items.
+     *
+     * @param items Makes the items.
+     * @since 4.5
+     */
+    public CoreContext(Supplier<Items> items, Limit limit, Worksheet worksheet, Preferences preferences,
+            Messages messages) {
+
+        this((Items) null, limit, worksheet, preferences, messages);
+        this.itemsSupplier = items;
+    }
+
+    private Items getItems() {
+
+        if (items == null && itemsSupplier != null) {
+            items = itemsSupplier.get();
+            itemsSupplier = null;
+        }
+
+        return items;
+    }
+
+    /**
+     * @param messages The Messages for the copy.
+     * @return A copy that shares the items, limit, worksheet, preferences, data version and
+     *         attributes of this CoreContext, but has its own Messages.
+     * @since 4.5
+     */
+    public CoreContext copy(Messages messages) {
+
+        CoreContext copy = new CoreContext(getItems(), limit, worksheet, preferences, messages);
+        copy.attributes = attributes;
+        copy.dataVersion = dataVersion;
+        return copy;
+    }
+
     public Collection<?> getAllItems() {
 
-        return items.getAllItems();
+        return getItems().getAllItems();
     }
 
     public Collection<?> getFilteredItems() {
 
-        return items.getFilteredItems();
+        return getItems().getFilteredItems();
     }
 
     public Collection<?> getSortedItems() {
 
-        return items.getSortedItems();
+        return getItems().getSortedItems();
     }
 
     public Collection<?> getPageItems() {
 
-        return items.getPageItems();
+        return getItems().getPageItems();
     }
 
     public void setPageItems(Collection<?> pageItems) {
 
-        this.items.setPageItems(pageItems);
+        getItems().setPageItems(pageItems);
     }
 
     public String getMessage(String code) {
@@ -96,11 +138,33 @@ public class CoreContext {
         return worksheet;
     }
 
+    /**
+     * The RowSelect of the Limit is only final once the items are filtered, so the items are made
+     * first.
+     */
     public Limit getLimit() {
 
+        getItems();
         return limit;
     }
 
+    /**
+     * @return The version of the items, or null if the application did not give one.
+     */
+    public Object getDataVersion() {
+
+        return dataVersion;
+    }
+
+    /**
+     * @param dataVersion The version of the items. Anything derived from the items can be
+     *                    cached until the version changes.
+     */
+    public void setDataVersion(Object dataVersion) {
+
+        this.dataVersion = dataVersion;
+    }
+
     public Object getAttribute(Object key) {
 
         if (attributes == null) {
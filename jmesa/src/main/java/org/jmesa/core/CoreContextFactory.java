@@ -30,6 +30,7 @@ import org.jmesa.worksheet.Worksheet;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Used to create a CoreContext object.
@@ -108,6 +109,7 @@ public class CoreContextFactory {
             }
         }
         SupportUtils.setFilterMatcherRegistry(rowFilter, getFilterMatcherRegistry());
+        SupportUtils.setPreferences(rowFilter, getPreferences());
 
         return rowFilter;
     }
@@ -130,6 +132,7 @@ public class CoreContextFactory {
                 columnSort =  new DefaultColumnSort();
             }
         }
+        SupportUtils.setPreferences(columnSort, getPreferences());
 
         return columnSort;
     }
@@ -192,16 +195,33 @@ public class CoreContextFactory {
      */
     public CoreContext createCoreContext(Collection<?> items, Limit limit, Worksheet worksheet) {
 
-        Items itemsImpl;
+        CoreContext coreContext = new CoreContext(createItems(items, limit), limit, worksheet, getPreferences(), getMessages());
+
+        return coreContext;
+    }
+
+    /**
+     * Create a CoreContext that only filters, sorts and pages the items the first time they, or
+     * the Limit, are asked for.
+     *
+     * @param items     The Collection of Beans or Maps.
+     * @param limit     The Limit instance.
+     * @param worksheet excel worksheet
+     * @return The newly created CoreContext object.
+     * @since 4.5
+     */
+    public CoreContext createLazyCoreContext(Collection<?> items, Limit limit, Worksheet worksheet) {
+
+        Supplier<Items> itemsSupplier = () -> createItems(items, limit);
+        return new CoreContext(itemsSupplier, limit, worksheet, getPreferences(), getMessages());
+    }
+
+    private Items createItems(Collection<?> items, Limit limit) {
 
         if (autoFilterAndSort) {
-            itemsImpl = new Items(items, limit, getRowFilter(), getColumnSort());
-        } else {
-            itemsImpl = new Items(items, limit, new DefaultRowFilter(), new DefaultColumnSort());
+            return new Items(items, limit, getRowFilter(), getColumnSort());
         }
 
-        CoreContext coreContext = new CoreContext(itemsImpl, limit, worksheet, getPreferences(), getMessages());
-
-        return coreContext;
+        return new Items(items, limit, new DefaultRowFilter(), new DefaultColumnSort());
     }
 }
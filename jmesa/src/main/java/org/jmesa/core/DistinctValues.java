@@ -0,0 +1,143 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import org.jmesa.util.ItemUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * The distinct values of one column, sorted without regard to case. Null and
+ * empty values are left out. Once there are more distinct values than the
+ * maximum the rest of the items are not looked at and the values are marked
+ * as truncated.
+ * </p>
+ *
+ * <p>
+ * The values are immutable so they can be shared by every request that
+ * renders the same version of the data.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class DistinctValues {
+
+    private final List<String> values;
+    private final boolean truncated;
+
+    private DistinctValues(List<String> values, boolean truncated) {
+
+        this.values = Collections.unmodifiableList(values);
+        this.truncated = truncated;
+    }
+
+    /**
+     * Collect the distinct values in one pass over the items.
+     *
+     * @param items The items to look at.
+     * @param property The column property.
+     * @param maxValues The most values to collect.
+     */
+    public static DistinctValues create(Collection<?> items, String property, int maxValues) {
+
+        Set<String> found = new HashSet<>();
+        boolean truncated = false;
+
+        for (Object item : items) {
+            Object value = ItemUtils.getItemValue(item, property);
+            if (value == null) {
+                continue;
+            }
+
+            String valueStr = String.valueOf(value);
+            if (valueStr.length() == 0 || found.contains(valueStr)) {
+                continue;
+            }
+
+            if (found.size() >= maxValues) {
+                truncated = true;
+                break;
+            }
+
+            found.add(valueStr);
+        }
+
+        List<String> sorted = new ArrayList<>(found);
+        sorted.sort(String.CASE_INSENSITIVE_ORDER);
+
+        return new DistinctValues(sorted, truncated);
+    }
+
+    /**
+     * @return The values, sorted without regard to case.
+     */
+    public List<String> getValues() {
+
+        return values;
+    }
+
+    /**
+     * @return Is true if there were more distinct values than the maximum.
+     */
+    public boolean isTruncated() {
+
+        return truncated;
+    }
+
+    /**
+     * Useful for autocomplete, where only the values that start with what the user typed are shown.
+     *
+     * @param prefix The start of the value, without regard to case.
+     * @param maxValues The most values to return.
+     * @return The values that start with the prefix, in order.
+     */
+    public List<String> startingWith(String prefix, int maxValues) {
+
+        if (prefix == null || prefix.length() == 0) {
+            return values.subList(0, Math.min(maxValues, values.size()));
+        }
+
+        List<String> results = new ArrayList<>();
+
+        // values that start with the prefix sort together, right at or after the prefix itself
+        int index = Collections.binarySearch(values, prefix, String.CASE_INSENSITIVE_ORDER);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        // values that only differ by case compare as equal, so the search may land in the middle of them
+        while (index > 0 && values.get(index - 1).regionMatches(true, 0, prefix, 0, prefix.length())) {
+            index--;
+        }
+
+        for (int i = index; i < values.size() && results.size() < maxValues; i++) {
+            String value = values.get(i);
+            if (!value.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            results.add(value);
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import org.jmesa.web.WebContext;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Application scoped index of the distinct values of a column, keyed by the
+ * table id and the column property. It is used by the DroplistFilterEditor,
+ * and can be used by any other filter editor that offers the user the values
+ * of a column, so the items are not walked on every request.
+ * </p>
+ *
+ * <p>
+ * The values are only cached when the application gives the data a version
+ * with TableFacade.setDataVersion(). The version can be anything with a
+ * meaningful equals(), like a last modified timestamp or a counter that is
+ * bumped when the data changes. When the version changes the values are
+ * collected again. Without a version the values are collected every time,
+ * because there is no way to tell if the items changed.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class DistinctValuesIndex {
+
+    public static final String DISTINCT_VALUES_INDEX = DistinctValuesIndex.class.getName();
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The index for the application, created the first time it is asked for.
+     */
+    public static DistinctValuesIndex getInstance(WebContext webContext) {
+
+        DistinctValuesIndex index = (DistinctValuesIndex) webContext.getApplicationAttribute(DISTINCT_VALUES_INDEX);
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (DistinctValuesIndex.class) {
+            index = (DistinctValuesIndex) webContext.getApplicationAttribute(DISTINCT_VALUES_INDEX);
+            if (index == null) {
+                index = new DistinctValuesIndex();
+                webContext.setApplicationAttribute(DISTINCT_VALUES_INDEX, index);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * @param id The table id.
+     * @param property The column property.
+     * @param dataVersion The version of the items, or null if the items are not versioned.
+     * @param items All the items of the table.
+     * @param maxValues The most values to collect.
+     * @return The distinct values of the column.
+     */
+    public DistinctValues getDistinctValues(String id, String property, Object dataVersion, Collection<?> items, int maxValues) {
+
+        if (dataVersion == null) {
+            return DistinctValues.create(items, property, maxValues);
+        }
+
+        Key key = new Key(id, property);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.dataVersion.equals(dataVersion) && entry.maxValues == maxValues) {
+            return entry.distinctValues;
+        }
+
+        DistinctValues distinctValues = DistinctValues.create(items, property, maxValues);
+        entries.put(key, new Entry(dataVersion, maxValues, distinctValues));
+        return distinctValues;
+    }
+
+    /**
+     * Discard the values of a table, for instance when the data changed without a new version.
+     *
+     * @param id The table id.
+     */
+    public void remove(String id) {
+
+        entries.keySet().removeIf(key -> key.id.equals(id));
+    }
+
+    /**
+     * Discard all the values.
+     */
+    public void clear() {
+
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        private final Object dataVersion;
+        private final int maxValues;
+        private final DistinctValues distinctValues;
+
+        Entry(Object dataVersion, int maxValues, DistinctValues distinctValues) {
+
+            this.dataVersion = dataVersion;
+            this.maxValues = maxValues;
+            this.distinctValues = distinctValues;
+        }
+    }
+
+    private static final class Key {
+
+        private final String id;
+        private final String property;
+
+        Key(String id, String property) {
+
+            this.id = id;
+            this.property = property;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return Objects.equals(id, that.id) && Objects.equals(property, that.property);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(id, property);
+        }
+    }
+}
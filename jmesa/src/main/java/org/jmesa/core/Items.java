@@ -15,18 +15,49 @@
  */
 package org.jmesa.core;
 
+import org.apache.commons.collections.Predicate;
+import org.jmesa.core.filter.ParallelRowFilter;
+import org.jmesa.core.filter.PredicateRowFilter;
 import org.jmesa.core.filter.RowFilter;
 import org.jmesa.core.sort.ColumnSort;
+import org.jmesa.core.sort.ComparatorColumnSort;
+import org.jmesa.core.sort.ParallelColumnSort;
+import org.jmesa.core.sort.SortKeyComparator;
+import org.jmesa.core.sort.SortKeys;
 import org.jmesa.limit.Limit;
 import org.jmesa.limit.RowSelect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 /**
+ * <p>
+ * Filter, sort and page the items.
+ * </p>
+ *
+ * <p>
+ * When the RowFilter is a PredicateRowFilter and the ColumnSort is a
+ * ComparatorColumnSort, and neither one overrides filterItems or sortItems
+ * on its own, the work is done in one pass. The items are filtered
+ * into an index array, and if the page is near the start of the filtered
+ * items only the rows up to the end of the page are selected with a bounded
+ * heap instead of sorting everything. A SortKeyComparator reads the sort
+ * keys once per item up front. The filtered and sorted items are only
+ * built when they are asked for. Any other RowFilter or ColumnSort gets the
+ * items the way it always did.
+ * </p>
+ *
  * @author Jeff Johnston
  * @since 2.0
  */
@@ -34,25 +65,95 @@ public class Items {
 
     private final Logger logger = LoggerFactory.getLogger(Items.class);
 
+    /**
+     * Use the bounded heap while the end of the page is within the first
+     * 1/TOP_K_RATIO of the filtered items. Past that a full sort is cheaper.
+     */
+    private static final int TOP_K_RATIO = 4;
+
+    /**
+     * Lists that nobody can change. An unmodifiable view is not one of them,
+     * because the owner of the backing list can still change it.
+     */
+    private static final Set<Class<?>> IMMUTABLE_LISTS = new HashSet<>(Arrays.<Class<?>>asList(
+        Collections.emptyList().getClass(),
+        Collections.singletonList(null).getClass()));
+
+    private static final Set<Class<?>> ONE_PASS_OVERRIDES = new HashSet<>(Arrays.<Class<?>>asList(
+        ParallelRowFilter.class,
+        ParallelColumnSort.class));
+
+    private static final ClassValue<Boolean> ONE_PASS_FILTERS = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+
+            return isOnePass(type, "filterItems", "createPredicate");
+        }
+    };
+
+    private static final ClassValue<Boolean> ONE_PASS_SORTS = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+
+            return isOnePass(type, "sortItems", "createComparator");
+        }
+    };
+
     private final Collection<?> allItems;
-    private final Collection<?> filteredItems;
+    private Collection<?> filteredItems;
     private Collection<?> pageItems;
-    private final Collection<?> sortedItems;
+    private Collection<?> sortedItems;
+
+    private int[] filteredIndexes;
+    private int filteredCount;
+    private Comparator<Object> comparator;
+    private boolean parallelSort;
+    private SortKeys sortKeys;
 
     public Items(Collection<?> items, Limit limit, RowFilter rowFilter, ColumnSort columnSort) {
 
-        // copy for thread safety
-        this.allItems = new ArrayList<Object>(items);
+        if (items instanceof LazyItems) {
+            // already filtered and sorted, and can only be walked once by the view
+            this.allItems = items;
+            this.filteredItems = items;
+            this.sortedItems = items;
+            this.pageItems = items;
+            return;
+        }
 
-        this.filteredItems = rowFilter.filterItems(allItems, limit);
+        if (isOnePass(rowFilter, columnSort)) {
+            List<?> all = getImmutableOrCopy(items);
+            this.allItems = all;
 
-        if (filteredItems.size() != allItems.size()) {
-            recalculateRowSelect(filteredItems, limit);
-        }
+            PredicateRowFilter predicateRowFilter = (PredicateRowFilter) rowFilter;
+            Predicate predicate = predicateRowFilter.createPredicate(all, limit);
+            filter(all, predicate, predicateRowFilter.isParallel(all.size()));
+
+            if (filteredCount != all.size()) {
+                recalculateRowSelect(filteredCount, limit);
+            }
+
+            ComparatorColumnSort comparatorColumnSort = (ComparatorColumnSort) columnSort;
+            this.comparator = comparatorColumnSort.createComparator(getFilteredItems(), limit);
+            this.parallelSort = comparatorColumnSort.isParallel(filteredCount);
 
-        this.sortedItems = columnSort.sortItems(filteredItems, limit);
+            this.pageItems = selectPageItems(limit);
+        } else {
+            // copy for thread safety
+            this.allItems = new ArrayList<Object>(items);
 
-        this.pageItems = getPageItems(sortedItems, limit);
+            this.filteredItems = rowFilter.filterItems(allItems, limit);
+
+            if (filteredItems.size() != allItems.size()) {
+                recalculateRowSelect(filteredItems.size(), limit);
+            }
+
+            this.sortedItems = columnSort.sortItems(filteredItems, limit);
+
+            this.pageItems = getPageItems(sortedItems, limit);
+        }
 
         if (logger.isDebugEnabled()) {
             logger.debug(limit.toString());
@@ -66,6 +167,14 @@ public class Items {
 
     public Collection<?> getFilteredItems() {
 
+        if (filteredItems == null) {
+            if (filteredIndexes == null) {
+                filteredItems = allItems;
+            } else {
+                filteredItems = new IndexedList((List<?>) allItems, filteredIndexes, filteredCount);
+            }
+        }
+
         return filteredItems;
     }
 
@@ -81,22 +190,240 @@ public class Items {
 
     public Collection<?> getSortedItems() {
 
+        if (sortedItems == null) {
+            if (comparator == null) {
+                sortedItems = getFilteredItems();
+            } else if (getSortKeys() != null) {
+                int[] rows = parallelSort ? sortKeys.parallelSort() : sortKeys.sort();
+                sortedItems = SortKeys.getItems((List<?>) getFilteredItems(), rows);
+            } else if (parallelSort) {
+                Object[] sorted = getFilteredItems().toArray();
+                Arrays.parallelSort(sorted, comparator);
+                sortedItems = Arrays.asList(sorted);
+            } else {
+                List<Object> sorted = new ArrayList<Object>(getFilteredItems());
+                sorted.sort(comparator);
+                sortedItems = sorted;
+            }
+        }
+
         return sortedItems;
     }
 
+    /**
+     * @return The sort keys of the filtered items if the Comparator can make them.
+     */
+    private SortKeys getSortKeys() {
+
+        if (sortKeys == null && comparator instanceof SortKeyComparator) {
+            sortKeys = ((SortKeyComparator) comparator).createSortKeys((List<?>) getFilteredItems());
+        }
+
+        return sortKeys;
+    }
+
+    private static boolean isOnePass(RowFilter rowFilter, ColumnSort columnSort) {
+
+        return rowFilter instanceof PredicateRowFilter && columnSort instanceof ComparatorColumnSort
+                && ONE_PASS_FILTERS.get(rowFilter.getClass()) && ONE_PASS_SORTS.get(columnSort.getClass());
+    }
+
+    /**
+     * A subclass that overrides filterItems (or sortItems) without also
+     * overriding createPredicate (or createComparator) changed how the items
+     * are filtered in a way the one pass would not see, so it gets the old
+     * path. The ParallelRowFilter and ParallelColumnSort only override
+     * filterItems and sortItems to use the Predicate and Comparator on
+     * several threads, which the one pass does too, so they are fine.
+     */
+    private static boolean isOnePass(Class<?> type, String itemsMethod, String factoryMethod) {
+
+        try {
+            Class<?> itemsClass = type.getMethod(itemsMethod, Collection.class, Limit.class).getDeclaringClass();
+            Class<?> factoryClass = type.getMethod(factoryMethod, Collection.class, Limit.class).getDeclaringClass();
+            return itemsClass.isAssignableFrom(factoryClass) || ONE_PASS_OVERRIDES.contains(itemsClass);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The defensive copy is only needed if someone else can change the list
+     * while we are working with it.
+     */
+    private List<?> getImmutableOrCopy(Collection<?> items) {
+
+        if (items instanceof RandomAccess && isImmutable(items.getClass())) {
+            return (List<?>) items;
+        }
+
+        return new ArrayList<Object>(items);
+    }
+
+    private boolean isImmutable(Class<?> type) {
+
+        // the List.of() implementations are not visible when compiling for java 8
+        return IMMUTABLE_LISTS.contains(type) || type.getName().startsWith("java.util.ImmutableCollections$List");
+    }
+
+    /**
+     * Filter into an array of indexes into the items. Leaves the indexes null
+     * if every item passes.
+     */
+    private void filter(List<?> items, Predicate predicate, boolean parallel) {
+
+        int size = items.size();
+
+        if (predicate == null) {
+            this.filteredCount = size;
+            return;
+        }
+
+        int[] indexes;
+        int count;
+        if (parallel) {
+            // an ordered stream, so the indexes stay in the original order
+            indexes = IntStream.range(0, size).parallel().filter(i -> predicate.evaluate(items.get(i))).toArray();
+            count = indexes.length;
+        } else {
+            indexes = new int[size];
+            count = 0;
+            for (int i = 0; i < size; i++) {
+                if (predicate.evaluate(items.get(i))) {
+                    indexes[count++] = i;
+                }
+            }
+        }
+
+        this.filteredCount = count;
+        if (count != size) {
+            this.filteredIndexes = indexes;
+        }
+    }
+
+    private Collection<?> selectPageItems(Limit limit) {
+
+        int rowStart = limit.getRowSelect().getRowStart();
+        int rowEnd = limit.getRowSelect().getRowEnd();
+
+        if (rowStart >= filteredCount) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The Limit row start is >= items.size(). Return the items available.");
+            }
+
+            return getSortedItems();
+        }
+
+        if (rowEnd > filteredCount) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The Limit row end is > items.size(). Return as many items as possible.");
+            }
+
+            rowEnd = filteredCount;
+        }
+
+        List<?> items;
+        if (comparator != null && (long) rowEnd * TOP_K_RATIO <= filteredCount) {
+            items = selectTopRows((List<?>) getFilteredItems(), rowEnd);
+        } else {
+            items = (List<?>) getSortedItems();
+        }
+
+        return new ArrayList<Object>(items.subList(rowStart, rowEnd));
+    }
+
+    /**
+     * Find the first rows of the sorted items without sorting all of them. A
+     * max-heap holds the best rows seen so far and is turned into the sorted
+     * rows at the end. Ties fall back to the filtered order so the result is
+     * the same as the stable sort.
+     */
+    private List<Object> selectTopRows(List<?> items, int rows) {
+
+        getSortKeys();
+
+        int[] heap = new int[rows];
+        int size = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            if (size < rows) {
+                heap[size] = i;
+                siftUp(items, heap, size++);
+            } else if (compare(items, i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(items, heap, 0, size);
+            }
+        }
+
+        for (int end = size - 1; end > 0; end--) {
+            swap(heap, 0, end);
+            siftDown(items, heap, 0, end);
+        }
+
+        List<Object> results = new ArrayList<Object>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(items.get(heap[i]));
+        }
+
+        return results;
+    }
+
+    private void siftUp(List<?> items, int[] heap, int index) {
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(items, heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(List<?> items, int[] heap, int index, int size) {
+
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && compare(items, heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compare(items, heap[index], heap[child]) >= 0) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private int compare(List<?> items, int i, int j) {
+
+        int result = sortKeys != null ? sortKeys.compare(i, j) : comparator.compare(items.get(i), items.get(j));
+        return result != 0 ? result : Integer.compare(i, j);
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
     /**
      * Need to recalculate the RowSelect object if the items needed to be
      * filtered.
      *
-     * @param filteredItems
+     * @param filteredSize
      * @param limit
      */
-    private void recalculateRowSelect(Collection<?> filteredItems, Limit limit) {
+    private void recalculateRowSelect(int filteredSize, Limit limit) {
 
         RowSelect rowSelect = limit.getRowSelect();
         int page = rowSelect.getPage();
         int maxRows = rowSelect.getMaxRows();
-        RowSelect recalcRowSelect = new RowSelect(page, maxRows, filteredItems.size());
+        RowSelect recalcRowSelect = new RowSelect(page, maxRows, filteredSize);
         limit.setRowSelect(recalcRowSelect);
     }
 
@@ -130,4 +457,37 @@ public class Items {
 
         return results;
     }
+
+    /**
+     * A read only view of the filtered items.
+     */
+    private static class IndexedList extends AbstractList<Object> implements RandomAccess {
+
+        private final List<?> items;
+        private final int[] indexes;
+        private final int size;
+
+        IndexedList(List<?> items, int[] indexes, int size) {
+
+            this.items = items;
+            this.indexes = indexes;
+            this.size = size;
+        }
+
+        @Override
+        public Object get(int index) {
+
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            return items.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+
+            return size;
+        }
+    }
 }
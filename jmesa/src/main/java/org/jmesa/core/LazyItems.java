@@ -0,0 +1,120 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A single pass Collection over an Iterator of items, such as the rows of an
+ * open JDBC cursor. The items are never held in memory, so a LazyItems can
+ * only be iterated once. The size is the total rows given when it is created.
+ * </p>
+ *
+ * <p>
+ * The Items will not copy, filter, sort or page a LazyItems. It is handed to
+ * the View as is, which makes it useful for exports that only walk the rows
+ * once. If the Iterator implements AutoCloseable it is closed when the last
+ * item is read, or when {@link #close()} is called.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class LazyItems extends AbstractCollection<Object> implements Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(LazyItems.class);
+
+    private final Iterator<?> iterator;
+    private final int size;
+    private boolean iterated;
+    private boolean closed;
+
+    public LazyItems(Iterator<?> iterator, int size) {
+
+        this.iterator = iterator;
+        this.size = size;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+
+        if (iterated) {
+            throw new IllegalStateException("The LazyItems can only be iterated over once.");
+        }
+
+        iterated = true;
+
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+
+                if (closed) {
+                    return false;
+                }
+
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    close();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object next() {
+
+                if (closed) {
+                    throw new NoSuchElementException();
+                }
+
+                return iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Close the underlying Iterator if it is AutoCloseable. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (Exception e) {
+                logger.error("Could not close the items.", e);
+            }
+        }
+    }
+}
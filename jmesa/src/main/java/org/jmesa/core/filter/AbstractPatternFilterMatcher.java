@@ -19,6 +19,8 @@ import org.jmesa.view.editor.PatternSupport;
 import org.jmesa.web.WebContext;
 import org.jmesa.web.WebContextSupport;
 
+import java.util.Locale;
+
 /**
  * Abstract class to hold the pattern information for filter matcher classes.
  *
@@ -53,4 +55,28 @@ public abstract class AbstractPatternFilterMatcher implements FilterMatcher, Pat
 
         this.webContext = webContext;
     }
+
+    /**
+     * @return The locale of the WebContext, or null if there is no WebContext.
+     */
+    protected Locale getLocale() {
+
+        if (webContext != null) {
+            return webContext.getLocale();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The filter values as Strings.
+     */
+    protected static String[] toStrings(Object[] filterValue) {
+
+        String[] results = new String[filterValue.length];
+        for (int i = 0; i < filterValue.length; i++) {
+            results[i] = String.valueOf(filterValue[i]);
+        }
+        return results;
+    }
 }
@@ -16,9 +16,10 @@
 package org.jmesa.core.filter;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.jmesa.limit.Comparison;
 import org.jmesa.limit.RangeFilter;
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.web.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,23 +71,14 @@ public class DateFilterMatcher extends AbstractPatternFilterMatcher {
             return false;
         }
 
-        Locale locale = null;
-
-        WebContext webContext = getWebContext();
-        if (webContext != null) {
-            locale = webContext.getLocale();
-        }
+        Locale locale = getLocale();
 
         if(comparison == Comparison.BETWEEN){
             return new RangeFilter.Pair((String)filterValue[0], (String)filterValue[1]).inRange(itemValue);
         }
 
 
-        if (locale != null) {
-            itemValue = DateFormatUtils.format((Date) itemValue, pattern, locale);
-        } else {
-            itemValue = DateFormatUtils.format((Date) itemValue, pattern);
-        }
+        itemValue = FormatterRegistry.getDateFormat(pattern, locale).format((Date) itemValue);
 
 
         String item = String.valueOf(itemValue);
@@ -99,4 +91,38 @@ public class DateFilterMatcher extends AbstractPatternFilterMatcher {
         }
         return false;
     }
+
+    /**
+     * Parse the range or look up the date format once for all of the rows.
+     */
+    @Override
+    public PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
+
+        String pattern = getPattern();
+        if (pattern == null) {
+            return super.prepare(comparison, filterValue);
+        }
+
+        if (comparison == Comparison.BETWEEN) {
+            RangeFilter.Pair pair = new RangeFilter.Pair((String) filterValue[0], (String) filterValue[1]);
+            return itemValue -> itemValue != null && pair.inRange(itemValue);
+        }
+
+        FastDateFormat format = FormatterRegistry.getDateFormat(pattern, getLocale());
+        String[] filters = toStrings(filterValue);
+
+        return itemValue -> {
+            if (itemValue == null) {
+                return false;
+            }
+
+            String item = format.format((Date) itemValue);
+            for (String filter : filters) {
+                if (StringUtils.contains(item, filter)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
 }
@@ -18,8 +18,10 @@ package org.jmesa.core.filter;
 import org.apache.commons.lang3.StringUtils;
 import org.jmesa.limit.Comparison;
 import org.jmesa.limit.RangeFilter;
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.web.WebContext;
 import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,29 +67,56 @@ public class DateTimeFilterMatcher extends DateFilterMatcher {
             return false;
         }
 
-        Locale locale = null;
+        Locale locale = getLocale();
 
-        WebContext webContext = getWebContext();
-        if (webContext != null) {
-            locale = webContext.getLocale();
+        DateTime dateTime = (DateTime) itemValue;
+
+        if(comparison == Comparison.BETWEEN){
+            return new RangeFilter.Pair((String)filterValue[0], (String)filterValue[1]).inRange(itemValue);
         }
 
+        itemValue = FormatterRegistry.getDateTimeFormatter(pattern, locale).print(dateTime);
 
+        String item = String.valueOf(itemValue);
+        for (Object v : filterValue) {
+            if (StringUtils.contains(item, String.valueOf(v))) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        DateTime dateTime = (DateTime) itemValue;
+    /**
+     * Parse the range or look up the date time formatter once for all of the rows.
+     */
+    @Override
+    public PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
 
-        if(comparison == Comparison.BETWEEN){
-            return new RangeFilter.Pair((String)filterValue[0], (String)filterValue[1]).inRange(itemValue);
+        String pattern = getPattern();
+        if (pattern == null) {
+            return itemValue -> evaluate(itemValue, comparison, filterValue);
         }
 
-        if (locale != null) {
-            itemValue = dateTime.toString(pattern, locale);
-        } else {
-            itemValue = dateTime.toString(pattern);
+        if (comparison == Comparison.BETWEEN) {
+            RangeFilter.Pair pair = new RangeFilter.Pair((String) filterValue[0], (String) filterValue[1]);
+            return itemValue -> itemValue != null && pair.inRange(itemValue);
         }
 
-        String item = String.valueOf(itemValue);
-        String filter = String.valueOf(filterValue);
-        return StringUtils.contains(item, filter);
+        DateTimeFormatter dateTimeFormatter = FormatterRegistry.getDateTimeFormatter(pattern, getLocale());
+        String[] filters = toStrings(filterValue);
+
+        return itemValue -> {
+            if (itemValue == null) {
+                return false;
+            }
+
+            String item = dateTimeFormatter.print((DateTime) itemValue);
+            for (String filter : filters) {
+                if (StringUtils.contains(item, filter)) {
+                    return true;
+                }
+            }
+            return false;
+        };
     }
 }
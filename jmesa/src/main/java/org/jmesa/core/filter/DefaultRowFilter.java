@@ -15,6 +15,7 @@
  */
 package org.jmesa.core.filter;
 
+import org.apache.commons.collections.Predicate;
 import org.jmesa.limit.Limit;
 
 import java.util.Collection;
@@ -23,11 +24,17 @@ import java.util.Collection;
  * @author Jeff Johnston
  * @since 2.0
  */
-public class DefaultRowFilter implements RowFilter {
+public class DefaultRowFilter implements PredicateRowFilter {
 
     @Override
     public Collection<?> filterItems(Collection<?> items, Limit limit) {
 
         return items;
     }
+
+    @Override
+    public Predicate createPredicate(Collection<?> items, Limit limit) {
+
+        return null;
+    }
 }
@@ -53,4 +53,20 @@ public interface FilterMatcher {
      * @return Is true if the itemValue and the matchValue are the same.
      */
     boolean evaluate(Object itemValue, Comparison comparison, Object... filterValue);
+
+    /**
+     * <p>
+     * Do the work that only depends on the filter value, such as compiling a
+     * pattern or parsing a range, once for all of the rows. By default the
+     * returned matcher just calls evaluate().
+     * </p>
+     *
+     * @param comparison The comparison of the filter.
+     * @param filterValue The value to match with.
+     * @return The matcher to evaluate the item values with.
+     */
+    default PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
+
+        return itemValue -> evaluate(itemValue, comparison, filterValue);
+    }
 }
@@ -17,21 +17,40 @@ package org.jmesa.core.filter;
 
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * <p>
  * Register and then retrive FilterMatcher objects.
+ * </p>
+ *
+ * <p>
+ * The matchers are indexed by property and by type so a lookup is a couple
+ * of hash lookups. The instanceof search for a type is only done the first
+ * time that type is asked for.
+ * </p>
  *
  * @author Jeff Johnston
  * @since 2.0
  */
 public class FilterMatcherRegistry {
 
-    private final Map<MatcherKey, FilterMatcher> matchers = new HashMap<MatcherKey, FilterMatcher>();
+    private final Map<String, FilterMatcher> matchersByProperty = new HashMap<String, FilterMatcher>();
+    private final Map<Class<?>, FilterMatcher> matchersByType = new LinkedHashMap<Class<?>, FilterMatcher>();
+    private final ConcurrentMap<Class<?>, FilterMatcher> matchersByObject = new ConcurrentHashMap<Class<?>, FilterMatcher>();
 
     public void addFilterMatcher(MatcherKey key, FilterMatcher matcher) {
 
-        matchers.put(key, matcher);
+        if (key.getProperty() != null) {
+            matchersByProperty.put(key.getProperty(), matcher);
+        } else {
+            matchersByType.put(key.getType(), matcher);
+        }
+
+        matchersByObject.clear();
     }
 
     public FilterMatcher getFilterMatcher(MatcherKey key) {
@@ -71,14 +90,7 @@ public class FilterMatcherRegistry {
             return null;
         }
 
-        for (MatcherKey key : matchers.keySet()) {
-            String prop = key.getProperty();
-            if (prop != null && prop.equals(property)) {
-                return matchers.get(key);
-            }
-        }
-
-        return null;
+        return matchersByProperty.get(property);
     }
 
     /**
@@ -91,48 +103,50 @@ public class FilterMatcherRegistry {
      */
     private FilterMatcher getFilterMatcherByType(Class<?> type) {
 
-        for (MatcherKey key : matchers.keySet()) {
-            String prop = key.getProperty();
-
-            //do not use matcher that is using property match
-            if (prop != null) {
-                continue;
-            }
-
-            Class<?> typ = key.getType();
-            if (typ.equals(type)) {
-                return matchers.get(key);
-            }
+        if (type == null) {
+            return null;
         }
 
-        return null;
+        return matchersByType.get(type);
     }
 
     /**
      * If there is a FilterMatcher that is registered by the specific class
      * instance then use that, otherwise return null. Is the most general search
      * because will return the first match that is an instanceof the current
-     * column.
+     * column. The result is remembered for the type.
      *
      * @param type The Class type for the current column item.
      * @return The FilterMatcher object that will do the comparison.
      */
     private FilterMatcher getFilterMatcherByObject(Class<?> type) {
 
-        FilterMatcher result = null;
+        if (type == null) {
+            return null;
+        }
+
+        FilterMatcher result = matchersByObject.get(type);
+        if (result != null) {
+            return result;
+        }
 
-        for (MatcherKey key : matchers.keySet()) {
-            String prop = key.getProperty();
+        result = findFilterMatcherByObject(type);
+        if (result != null) {
+            matchersByObject.put(type, result);
+        }
 
-            //do not use matcher that is using property match
-            if (prop != null) {
-                continue;
-            }
+        return result;
+    }
+
+    private FilterMatcher findFilterMatcherByObject(Class<?> type) {
+
+        FilterMatcher result = null;
 
-            Class<?> typ = key.getType();
+        for (Map.Entry<Class<?>, FilterMatcher> entry : matchersByType.entrySet()) {
+            Class<?> typ = entry.getKey();
             if (typ.isAssignableFrom(type)) {
-                FilterMatcher matcher = matchers.get(key);
-                if (key.getType().equals(Object.class)) {
+                FilterMatcher matcher = entry.getValue();
+                if (typ.equals(Object.class)) {
                     // If Object matches then make sure
                     // there is not something more specific
                     result = matcher;
@@ -16,31 +16,45 @@
 package org.jmesa.core.filter;
 
 import org.apache.commons.collections.Predicate;
+import org.jmesa.limit.Comparison;
 import org.jmesa.limit.Filter;
 import org.jmesa.limit.FilterSet;
+import org.jmesa.limit.FilterSet.Operator;
 import org.jmesa.util.ItemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 /**
+ * <p>
  * Use the Jakarta Collections predicate pattern to filter out the table.
+ * </p>
+ *
+ * <p>
+ * The whole FilterSet tree is compiled up front. Each Filter becomes a leaf,
+ * and each FilterSet becomes an AND or OR node of its filters and child
+ * sets. Nested sets with the same operator are merged into their parent and
+ * sets that do not filter anything are left out. Within a node the cheap
+ * checks (null checks, simple comparisons) run before the expensive ones
+ * (pattern matching, nested sets). Both AND and OR short circuit.
+ * </p>
  *
  * @author Jeff Johnston
  * @since 2.0
  */
 public final class FilterPredicate implements Predicate {
 
-    private final Logger logger = LoggerFactory.getLogger(FilterPredicate.class);
+    private static final Logger logger = LoggerFactory.getLogger(FilterPredicate.class);
 
-    private final Map<Filter, FilterMatcher> filterMatchers;
-    private final FilterSet filterSet;
+    private final Node root;
 
     public FilterPredicate(Map<Filter, FilterMatcher> filterMatchers, FilterSet filterSet) {
 
-        this.filterMatchers = filterMatchers;
-        this.filterSet = filterSet;
+        this.root = compile(filterMatchers, filterSet);
     }
 
     /**
@@ -49,30 +63,203 @@ public final class FilterPredicate implements Predicate {
     @Override
     public boolean evaluate(Object item) {
 
-        boolean result = false;
+        if (root == null) {
+            return false;
+        }
+
+        return root.evaluate(item);
+    }
+
+    /**
+     * @return The node for the FilterSet, or null if it does not filter anything.
+     */
+    private static Node compile(Map<Filter, FilterMatcher> filterMatchers, FilterSet filterSet) {
+
+        Operator operator = filterSet.getOperator() == Operator.OR ? Operator.OR : Operator.AND;
+
+        List<Node> nodes = new ArrayList<>();
 
-        try {
+        if (filterSet.getFilters() != null) {
             for (Filter filter : filterSet.getFilters()) {
-                String property = filter.getProperty();
-                Object value = ItemUtils.getItemValue(item, property);
+                nodes.add(new FilterNode(filter, filterMatchers.get(filter)));
+            }
+        }
 
-                if (value != null) {
-                    FilterMatcher filterMatcher = filterMatchers.get(filter);
-                    result = filterMatcher.evaluate(value, filter.getComparison(), filter.getValue());
+        if (filterSet.getFilterSets() != null) {
+            for (FilterSet childSet : filterSet.getFilterSets()) {
+                Node node = compile(filterMatchers, childSet);
+                if (node == null) {
+                    continue;
+                }
+
+                if (node instanceof OperatorNode && ((OperatorNode) node).operator == operator) {
+                    nodes.addAll(((OperatorNode) node).nodes);
                 } else {
-                    result = false;
+                    nodes.add(node);
+                }
+            }
+        }
+
+        if (nodes.isEmpty()) {
+            return null;
+        }
+
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+
+        // a stable sort, so nodes with the same cost keep the order they were given in
+        nodes.sort(Comparator.comparingInt(Node::getCost));
+
+        return new OperatorNode(operator, nodes);
+    }
+
+    private interface Node {
+
+        boolean evaluate(Object item);
+
+        /**
+         * @return A rough idea of how expensive the node is to evaluate.
+         */
+        int getCost();
+    }
+
+    private static final class FilterNode implements Node {
+
+        private final Filter filter;
+        private final String property;
+        private final Comparison comparison;
+        private final Object[] value;
+        private final FilterMatcher filterMatcher;
+        private final PreparedFilterMatcher preparedFilterMatcher;
+        private final int cost;
+
+        FilterNode(Filter filter, FilterMatcher filterMatcher) {
+
+            this.filter = filter;
+            this.property = filter.getProperty();
+            this.comparison = filter.getComparison();
+            this.value = filter.getValue();
+            this.filterMatcher = filterMatcher;
+            this.preparedFilterMatcher = prepare();
+            this.cost = computeCost();
+        }
+
+        /**
+         * @return The prepared matcher, or a matcher that never matches if it could not be prepared.
+         */
+        private PreparedFilterMatcher prepare() {
+
+            if (filterMatcher == null) {
+                logger.error("There is no FilterMatcher for the filter " + filter);
+                return itemValue -> false;
+            }
+
+            try {
+                return filterMatcher.prepare(comparison, value);
+            } catch (Exception e) {
+                logger.error("Had problems preparing the filter " + filter, e);
+            }
+
+            return itemValue -> false;
+        }
+
+        @Override
+        public boolean evaluate(Object item) {
+
+            try {
+                Object itemValue = ItemUtils.getItemValue(item, property);
+
+                if (comparison == Comparison.IS_NULL) {
+                    return itemValue == null;
+                } else if (comparison == Comparison.IS_NOT_NULL) {
+                    return itemValue != null;
                 }
 
-                // short circuit if does not match
-                if (result == false) {
+                if (itemValue == null) {
                     return false;
                 }
 
+                return preparedFilterMatcher.evaluate(itemValue);
+            } catch (Exception e) {
+                logger.error("Had problems evaluating the items with the filter " + filter, e);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int getCost() {
+
+            return cost;
+        }
+
+        private int computeCost() {
+
+            int result;
+            if (comparison == Comparison.IS_NULL || comparison == Comparison.IS_NOT_NULL) {
+                result = 1;
+            } else if (filterMatcher instanceof StringWildCardFilterMatcher || filterMatcher instanceof AbstractPatternFilterMatcher) {
+                // regular expressions and formatting the value
+                result = 4;
+            } else if (value != null && value.length > 1) {
+                result = 3;
+            } else {
+                result = 2;
+            }
+
+            if (property != null && property.indexOf('.') != -1) {
+                result++;
+            }
+
+            return result;
+        }
+    }
+
+    private static final class OperatorNode implements Node {
+
+        private final Operator operator;
+        private final List<Node> nodes;
+        private final Node[] nodeArray;
+        private final int cost;
+
+        OperatorNode(Operator operator, List<Node> nodes) {
+
+            this.operator = operator;
+            this.nodes = nodes;
+            this.nodeArray = nodes.toArray(new Node[nodes.size()]);
+
+            int total = 0;
+            for (Node node : nodes) {
+                total += node.getCost();
+            }
+            this.cost = total;
+        }
+
+        @Override
+        public boolean evaluate(Object item) {
+
+            if (operator == Operator.OR) {
+                for (Node node : nodeArray) {
+                    if (node.evaluate(item)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            for (Node node : nodeArray) {
+                if (!node.evaluate(item)) {
+                    return false;
+                }
             }
-        } catch (Exception e) {
-            logger.error("Had problems evaluating the items.", e);
+            return true;
         }
 
-        return result;
+        @Override
+        public int getCost() {
+
+            return cost;
+        }
     }
 }
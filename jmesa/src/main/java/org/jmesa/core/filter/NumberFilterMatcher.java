@@ -18,10 +18,9 @@ package org.jmesa.core.filter;
 import org.apache.commons.lang3.StringUtils;
 import org.jmesa.limit.Comparison;
 import org.jmesa.limit.RangeFilter;
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.web.WebContext;
 
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.util.Locale;
 
 /**
@@ -58,32 +57,47 @@ public class NumberFilterMatcher extends AbstractPatternFilterMatcher {
             return false;
         }
 
-        Locale locale = null;
-
-        WebContext webContext = getWebContext();
-        if (webContext != null) {
-            locale = webContext.getLocale();
+        if(comparison == Comparison.BETWEEN){
+            return new RangeFilter.Pair((String)filterValue[0], (String)filterValue[1]).inRange(itemValue);
         }
 
-        NumberFormat nf;
-        if (locale != null) {
-            nf = NumberFormat.getInstance(locale);
-        } else {
-            nf = NumberFormat.getInstance();
+        String item = FormatterRegistry.formatNumber(itemValue, getPattern(), getLocale());
+
+        for (Object v : filterValue) {
+            if (StringUtils.contains(item, String.valueOf(v))) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        DecimalFormat df = (DecimalFormat) nf;
-        String pattern = getPattern();
-        df.applyPattern(pattern);
-        itemValue = df.format(itemValue);
+    /**
+     * Parse the range and the filter values once for all of the rows.
+     */
+    @Override
+    public PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
 
-        if(comparison == Comparison.BETWEEN){
-            return new RangeFilter.Pair((String)filterValue[0], (String)filterValue[1]).inRange(itemValue);
+        if (comparison == Comparison.BETWEEN) {
+            RangeFilter.Pair pair = new RangeFilter.Pair((String) filterValue[0], (String) filterValue[1]);
+            return itemValue -> itemValue != null && pair.inRange(itemValue);
         }
 
-        String item = String.valueOf(itemValue);
-
-        String filter = String.valueOf(filterValue);
-        return StringUtils.contains(item, filter);
+        String pattern = getPattern();
+        Locale locale = getLocale();
+        String[] filters = toStrings(filterValue);
+
+        return itemValue -> {
+            if (itemValue == null) {
+                return false;
+            }
+
+            String item = FormatterRegistry.formatNumber(itemValue, pattern, locale);
+            for (String filter : filters) {
+                if (StringUtils.contains(item, filter)) {
+                    return true;
+                }
+            }
+            return false;
+        };
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.filter;
+
+import org.apache.commons.collections.Predicate;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesSupport;
+import org.jmesa.limit.Limit;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * A SimpleRowFilter that evaluates the filters on the common fork-join pool
+ * once there are at least rowFilter.parallelThreshold items. The filtered
+ * items keep the order they had, so the results are the same as the
+ * SimpleRowFilter.
+ * </p>
+ *
+ * <p>
+ * To use it set rowFilter=org.jmesa.core.filter.ParallelRowFilter in the
+ * jmesa.properties file.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ParallelRowFilter extends SimpleRowFilter implements PreferencesSupport {
+
+    public static final String PARALLEL_THRESHOLD = "rowFilter.parallelThreshold";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    private Preferences preferences;
+    private Integer parallelThreshold;
+
+    @Override
+    public Collection<?> filterItems(Collection<?> items, Limit limit) {
+
+        if (!isParallel(items.size())) {
+            return super.filterItems(items, limit);
+        }
+
+        Predicate filterPredicate = createPredicate(items, limit);
+
+        if (filterPredicate != null) {
+            Object[] array = items.toArray();
+            return IntStream.range(0, array.length)
+                .parallel()
+                .filter(i -> filterPredicate.evaluate(array[i]))
+                .mapToObj(i -> array[i])
+                .collect(Collectors.toList());
+        }
+
+        return items;
+    }
+
+    @Override
+    public boolean isParallel(int size) {
+
+        return size >= getParallelThreshold();
+    }
+
+    public int getParallelThreshold() {
+
+        if (parallelThreshold == null) {
+            String threshold = preferences != null ? preferences.getPreference(PARALLEL_THRESHOLD) : null;
+            parallelThreshold = NumberUtils.toInt(threshold, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public Preferences getPreferences() {
+
+        return preferences;
+    }
+
+    @Override
+    public void setPreferences(Preferences preferences) {
+
+        this.preferences = preferences;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.filter;
+
+import org.apache.commons.collections.Predicate;
+import org.jmesa.limit.Limit;
+
+import java.util.Collection;
+
+/**
+ * A RowFilter that can hand out the Predicate it filters with. The Items
+ * use the Predicate to filter straight into an index array instead of
+ * building an intermediate list. The filterItems() method needs to select
+ * the same items as the Predicate does.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface PredicateRowFilter extends RowFilter {
+
+    /**
+     * @param items The items that will be filtered.
+     * @param limit The Limit with the FilterSet.
+     * @return The Predicate to filter the items with, or null if the items do not need to be filtered.
+     */
+    Predicate createPredicate(Collection<?> items, Limit limit);
+
+    /**
+     * @param size The number of items that will be filtered.
+     * @return True if the Predicate is safe and worth evaluating on several threads.
+     */
+    default boolean isParallel(int size) {
+
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.filter;
+
+/**
+ * A FilterMatcher that already has the comparison and the filter value, and
+ * has done any work on them that does not depend on the item value. Created
+ * once per filter with FilterMatcher.prepare() and then evaluated for every
+ * row. Needs to be thread safe.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+@FunctionalInterface
+public interface PreparedFilterMatcher {
+
+    /**
+     * @param itemValue The value that will be performing the match against.
+     * @return Is true if the itemValue matches the filter value.
+     */
+    boolean evaluate(Object itemValue);
+}
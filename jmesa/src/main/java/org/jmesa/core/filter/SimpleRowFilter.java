@@ -34,7 +34,7 @@ import static org.jmesa.util.ItemUtils.getPropertyClassType;
  * @author Jeff Johnston
  * @since 2.0
  */
-public class SimpleRowFilter implements RowFilter, FilterMatcherRegistrySupport {
+public class SimpleRowFilter implements PredicateRowFilter, FilterMatcherRegistrySupport {
 
     private final Logger logger = LoggerFactory.getLogger(SimpleRowFilter.class);
 
@@ -43,13 +43,10 @@ public class SimpleRowFilter implements RowFilter, FilterMatcherRegistrySupport
     @Override
     public Collection<?> filterItems(Collection<?> items, Limit limit) {
 
-        FilterSet filterSet = limit.getFilterSet();
-        boolean filtered = filterSet.isFiltered();
+        Predicate filterPredicate = createPredicate(items, limit);
 
-        if (filtered) {
+        if (filterPredicate != null) {
             Collection<?> collection = new ArrayList<>();
-            Map<Filter, FilterMatcher> filterMatchers = getFilterMatchers(items, filterSet);
-            Predicate filterPredicate = getPredicate(filterMatchers, filterSet);
             CollectionUtils.select(items, filterPredicate, collection);
 
             return collection;
@@ -58,6 +55,18 @@ public class SimpleRowFilter implements RowFilter, FilterMatcherRegistrySupport
         return items;
     }
 
+    @Override
+    public Predicate createPredicate(Collection<?> items, Limit limit) {
+
+        FilterSet filterSet = limit.getFilterSet();
+        if (!filterSet.isFiltered()) {
+            return null;
+        }
+
+        Map<Filter, FilterMatcher> filterMatchers = getFilterMatchers(items, filterSet);
+        return getPredicate(filterMatchers, filterSet);
+    }
+
     protected Map<Filter, FilterMatcher> getFilterMatchers(Collection<?> items, FilterSet filterSet) {
 
         Map<Filter, FilterMatcher> filterMatchers = new HashMap<>();
@@ -67,13 +76,7 @@ public class SimpleRowFilter implements RowFilter, FilterMatcherRegistrySupport
         }
 
         try {
-            for (Filter filter : filterSet.getFilters()) {
-                String property = filter.getProperty();
-                Class<?> type = getPropertyClassType(items, property);
-                MatcherKey key = new MatcherKey(type, property);
-                FilterMatcher filterMatcher = registry.getFilterMatcher(key);
-                filterMatchers.put(filter, filterMatcher);
-            }
+            addFilterMatchers(items, filterSet, filterMatchers);
         } catch (Exception e) {
             logger.error("Had problems getting the Filter / FilterMatcher values.", e);
         }
@@ -81,6 +84,31 @@ public class SimpleRowFilter implements RowFilter, FilterMatcherRegistrySupport
         return filterMatchers;
     }
 
+    /**
+     * Find the FilterMatcher for the filters of the FilterSet and all of its child sets.
+     */
+    private void addFilterMatchers(Collection<?> items, FilterSet filterSet, Map<Filter, FilterMatcher> filterMatchers)
+        throws Exception {
+
+        for (Filter filter : filterSet.getFilters()) {
+            if (filterMatchers.containsKey(filter)) {
+                continue;
+            }
+
+            String property = filter.getProperty();
+            Class<?> type = getPropertyClassType(items, property);
+            MatcherKey key = new MatcherKey(type, property);
+            FilterMatcher filterMatcher = registry.getFilterMatcher(key);
+            filterMatchers.put(filter, filterMatcher);
+        }
+
+        if (filterSet.getFilterSets() != null) {
+            for (FilterSet childSet : filterSet.getFilterSets()) {
+                addFilterMatchers(items, childSet, filterMatchers);
+            }
+        }
+    }
+
     protected Predicate getPredicate(Map<Filter, FilterMatcher> filterMatchers, FilterSet filterSet) {
 
         return new FilterPredicate(filterMatchers, filterSet);
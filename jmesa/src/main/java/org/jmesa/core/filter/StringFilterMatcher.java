@@ -41,4 +41,23 @@ public class StringFilterMatcher implements FilterMatcher {
         }
         return false;
     }
+
+    @Override
+    public PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
+
+        if (filterValue == null) {
+            if (comparison == Comparison.IS_NULL) {
+                return itemValue -> itemValue == null;
+            }
+            return itemValue -> false;
+        }
+
+        if (filterValue.length == 0) {
+            return itemValue -> false;
+        }
+
+        // only the first value is used
+        String filter = StringUtils.lowerCase(String.valueOf(filterValue[0]));
+        return itemValue -> StringUtils.contains(StringUtils.lowerCase(String.valueOf(itemValue)), filter);
+    }
 }
@@ -68,6 +68,26 @@ public class StringWildCardFilterMatcher implements FilterMatcher {
         return false;
     }
 
+    @Override
+    public PreparedFilterMatcher prepare(Comparison comparison, Object... filterValue) {
+
+        if (filterValue == null) {
+            return itemValue -> false;
+        }
+
+        // the first value that makes a valid pattern is used
+        for (Object value : filterValue) {
+            String filter = ignoreCases ? value.toString().toLowerCase() : value.toString();
+            Pattern filterPattern = createFilterPattern(filter);
+
+            if (filterPattern != null) {
+                return itemValue -> filterPattern.matcher(String.valueOf(itemValue)).matches();
+            }
+        }
+
+        return itemValue -> false;
+    }
+
     /**
      * Creates a simple regexp pattern out of filterStr, replacing wildcards ? and * with
      * the matching regular expression components.
@@ -18,7 +18,8 @@ package org.jmesa.core.message;
 import org.jmesa.web.WebContext;
 
 /**
- * A factory to create different Messages.
+ * A factory to create different Messages. The Messages are shared through
+ * the application scoped MessagesRegistry.
  *
  * @author Jeff Johnston
  * @since 2.3
@@ -37,6 +38,6 @@ public class MessagesFactory {
     public static Messages getMessages(WebContext webContext) {
 
         String jmesaMessagesLocation = (String) webContext.getApplicationInitParameter(JMESA_MESSAGES_LOCATION);
-        return new ResourceBundleMessages(jmesaMessagesLocation, webContext);
+        return MessagesRegistry.getInstance(webContext).getMessages(jmesaMessagesLocation, webContext);
     }
 }
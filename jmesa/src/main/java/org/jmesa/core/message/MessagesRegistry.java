@@ -0,0 +1,102 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.message;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.util.ReloadableCache;
+import org.jmesa.web.WebContext;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * <p>
+ * Application scoped registry of the Messages, keyed by the messages location
+ * and the locale. The registry is stored as an application attribute so the
+ * resource bundles are only looked up once per application and locale instead
+ * of once per table.
+ * </p>
+ *
+ * <p>
+ * To pick up changes to the resource bundles without a restart set the
+ * jmesaMessagesReloadInterval context parameter to the number of seconds
+ * between checks for modified files.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class MessagesRegistry {
+
+    public static final String MESSAGES_REGISTRY = MessagesRegistry.class.getName();
+
+    private static final String JMESA_MESSAGES_RELOAD_INTERVAL = "jmesaMessagesReloadInterval";
+
+    private final ReloadableCache<Messages> cache;
+
+    public MessagesRegistry(long reloadInterval) {
+
+        this.cache = new ReloadableCache<Messages>(reloadInterval);
+    }
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The registry for the application, created the first time it is asked for.
+     */
+    public static MessagesRegistry getInstance(WebContext webContext) {
+
+        MessagesRegistry registry = (MessagesRegistry) webContext.getApplicationAttribute(MESSAGES_REGISTRY);
+        if (registry != null) {
+            return registry;
+        }
+
+        synchronized (MessagesRegistry.class) {
+            registry = (MessagesRegistry) webContext.getApplicationAttribute(MESSAGES_REGISTRY);
+            if (registry == null) {
+                Object interval = webContext.getApplicationInitParameter(JMESA_MESSAGES_RELOAD_INTERVAL);
+                long seconds = interval == null ? 0 : NumberUtils.toLong(String.valueOf(interval).trim());
+                registry = new MessagesRegistry(seconds * 1000);
+                webContext.setApplicationAttribute(MESSAGES_REGISTRY, registry);
+            }
+        }
+
+        return registry;
+    }
+
+    public Messages getMessages(String messagesLocation, WebContext webContext) {
+
+        Locale locale = webContext.getLocale();
+        String key = messagesLocation + "|" + locale;
+
+        return cache.get(key,
+            () -> {
+                if (cache.getReloadInterval() > 0) {
+                    // the JDK keeps its own cache of the bundles
+                    ResourceBundle.clearCache(ResourceBundleMessages.class.getClassLoader());
+                }
+                return new ResourceBundleMessages(messagesLocation, webContext);
+            },
+            () -> ResourceBundleMessages.getResourceFiles(messagesLocation, locale));
+    }
+
+    /**
+     * Discard the cached Messages so they are looked up again on the next request.
+     */
+    public void clear() {
+
+        cache.clear();
+    }
+}
@@ -16,11 +16,15 @@
 package org.jmesa.core.message;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jmesa.util.ReloadableCache;
 import org.jmesa.web.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
@@ -59,6 +63,31 @@ public class ResourceBundleMessages implements Messages {
         return ResourceBundle.getBundle(messagesLocation, locale, getClass().getClassLoader());
     }
 
+    /**
+     * @return The property files on the file system that the bundles for the
+     *         locale are loaded from. Used to check if the messages need to be
+     *         reloaded.
+     */
+    static List<File> getResourceFiles(String messagesLocation, Locale locale) {
+
+        List<File> results = new ArrayList<File>();
+        addResourceFiles(results, JMESA_RESOURCE_BUNDLE, locale);
+        if (StringUtils.isNotBlank(messagesLocation)) {
+            addResourceFiles(results, messagesLocation, locale);
+        }
+        return results;
+    }
+
+    private static void addResourceFiles(List<File> results, String baseName, Locale locale) {
+
+        ClassLoader classLoader = ResourceBundleMessages.class.getClassLoader();
+        ResourceBundle.Control control = ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+        for (Locale candidate : control.getCandidateLocales(baseName, locale)) {
+            String resourceName = control.toResourceName(control.toBundleName(baseName, candidate), "properties");
+            results.add(ReloadableCache.toFile(classLoader.getResource(resourceName)));
+        }
+    }
+
     @Override
     public String getMessage(String code) {
 
@@ -21,6 +21,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
 
+import java.util.Locale;
+
 /**
  * The Spring specific messages. Will use the default messages if they are not defined in Spring.
  *
@@ -57,6 +59,35 @@ public class SpringMessages implements Messages {
     @Override
     public String getMessage(String code, Object[] args) {
 
+        return getMessage(code, args, springWebContext.getLocale());
+    }
+
+    /**
+     * @param locale The locale to use from now on.
+     * @return The same messages, but always in the locale instead of the one of the
+     *         current request, for when there is no request like in a background export.
+     * @since 4.5
+     */
+    public Messages detach(Locale locale) {
+
+        return new Messages() {
+
+            @Override
+            public String getMessage(String code) {
+
+                return getMessage(code, null);
+            }
+
+            @Override
+            public String getMessage(String code, Object[] args) {
+
+                return SpringMessages.this.getMessage(code, args, locale);
+            }
+        };
+    }
+
+    private String getMessage(String code, Object[] args, Locale locale) {
+
         if (messageSource == null) {
             logger.warn("There is no Spring MessageSource defined. Will get the default messages instead.");
             return defaultMessages.getMessage(code, args);
@@ -65,7 +96,7 @@ public class SpringMessages implements Messages {
         String message;
 
         try {
-            message = messageSource.getMessage(code, args, springWebContext.getLocale());
+            message = messageSource.getMessage(code, args, locale);
         } catch (NoSuchMessageException ex) {
             message = defaultMessages.getMessage(code, args);
         }
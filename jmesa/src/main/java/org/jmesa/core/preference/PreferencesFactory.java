@@ -18,7 +18,8 @@ package org.jmesa.core.preference;
 import org.jmesa.web.WebContext;
 
 /**
- * A factory to create different Preferences.
+ * A factory to create different Preferences. The Preferences are shared
+ * through the application scoped PreferencesRegistry.
  *
  * @author Jeff Johnston
  * @since 2.3
@@ -34,6 +35,6 @@ public class PreferencesFactory {
         if(jmesaPreferencesLocation==null){
             jmesaPreferencesLocation = DEFAULT_JMESA_PROPERTIES;
         }
-        return new PropertiesPreferences(jmesaPreferencesLocation, webContext);
+        return PreferencesRegistry.getInstance(webContext).getPreferences(jmesaPreferencesLocation, webContext);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.preference;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.util.ReloadableCache;
+import org.jmesa.web.WebContext;
+
+/**
+ * <p>
+ * Application scoped registry of the Preferences, keyed by the preferences
+ * location. The registry is stored as an application attribute so the
+ * jmesa.properties files are only read from disk once per application instead
+ * of once per table.
+ * </p>
+ *
+ * <p>
+ * To pick up changes to the preferences files without a restart set the
+ * jmesaPreferencesReloadInterval context parameter to the number of seconds
+ * between checks for modified files.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PreferencesRegistry {
+
+    public static final String PREFERENCES_REGISTRY = PreferencesRegistry.class.getName();
+
+    private static final String JMESA_PREFERENCES_RELOAD_INTERVAL = "jmesaPreferencesReloadInterval";
+
+    private final ReloadableCache<Preferences> cache;
+
+    public PreferencesRegistry(long reloadInterval) {
+
+        this.cache = new ReloadableCache<Preferences>(reloadInterval);
+    }
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The registry for the application, created the first time it is asked for.
+     */
+    public static PreferencesRegistry getInstance(WebContext webContext) {
+
+        PreferencesRegistry registry = (PreferencesRegistry) webContext.getApplicationAttribute(PREFERENCES_REGISTRY);
+        if (registry != null) {
+            return registry;
+        }
+
+        synchronized (PreferencesRegistry.class) {
+            registry = (PreferencesRegistry) webContext.getApplicationAttribute(PREFERENCES_REGISTRY);
+            if (registry == null) {
+                Object interval = webContext.getApplicationInitParameter(JMESA_PREFERENCES_RELOAD_INTERVAL);
+                long seconds = interval == null ? 0 : NumberUtils.toLong(String.valueOf(interval).trim());
+                registry = new PreferencesRegistry(seconds * 1000);
+                webContext.setApplicationAttribute(PREFERENCES_REGISTRY, registry);
+            }
+        }
+
+        return registry;
+    }
+
+    public Preferences getPreferences(String preferencesLocation, WebContext webContext) {
+
+        return cache.get(String.valueOf(preferencesLocation),
+            () -> new PropertiesPreferences(preferencesLocation, webContext),
+            () -> PropertiesPreferences.getResourceFiles(preferencesLocation, webContext));
+    }
+
+    /**
+     * Discard the cached Preferences so they are read again on the next request.
+     */
+    public void clear() {
+
+        cache.clear();
+    }
+}
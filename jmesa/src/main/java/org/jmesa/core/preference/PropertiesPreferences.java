@@ -17,6 +17,7 @@ package org.jmesa.core.preference;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.jmesa.util.ReloadableCache;
 import org.jmesa.web.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -83,6 +86,28 @@ public final class PropertiesPreferences implements Preferences {
         return this.getClass().getResourceAsStream(preferencesLocation);
     }
 
+    /**
+     * @return The files on the file system that the preferences are loaded
+     *         from. Used to check if the preferences need to be reloaded.
+     */
+    static List<File> getResourceFiles(String preferencesLocation, WebContext webContext) {
+
+        List<File> results = new ArrayList<File>();
+        results.add(ReloadableCache.toFile(PropertiesPreferences.class.getResource(JMESA_PROPERTIES)));
+
+        if (StringUtils.isNotBlank(preferencesLocation)) {
+            if (preferencesLocation.startsWith("WEB-INF")) {
+                String path = webContext.getRealPath("/WEB-INF");
+                String name = StringUtils.substringAfter(preferencesLocation, "WEB-INF/");
+                results.add(new File(path, name));
+            } else {
+                results.add(ReloadableCache.toFile(PropertiesPreferences.class.getResource(preferencesLocation)));
+            }
+        }
+
+        return results;
+    }
+
     @Override
     public String getPreference(String name) {
 
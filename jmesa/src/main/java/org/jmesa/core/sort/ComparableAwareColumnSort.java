@@ -15,9 +15,6 @@
  */
 package org.jmesa.core.sort;
 
-import org.apache.commons.beanutils.BeanComparator;
-import org.apache.commons.collections.comparators.ComparableComparator;
-import org.apache.commons.collections.comparators.ComparatorChain;
 import org.apache.commons.collections.comparators.NullComparator;
 import org.jmesa.limit.Limit;
 import org.jmesa.limit.Order;
@@ -27,7 +24,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 import static org.jmesa.util.ItemUtils.getPropertyClassType;
@@ -36,7 +32,7 @@ import static org.jmesa.util.ItemUtils.getPropertyClassType;
  * @author David Sills
  * @since 2.3.5
  */
-public class ComparableAwareColumnSort implements ColumnSort {
+public class ComparableAwareColumnSort implements ComparatorColumnSort {
 
     private final Logger logger = LoggerFactory.getLogger(ComparableAwareColumnSort.class);
 
@@ -44,11 +40,24 @@ public class ComparableAwareColumnSort implements ColumnSort {
     @Override
     public Collection<?> sortItems(Collection<?> items, Limit limit) {
 
+        SortKeyComparator comparator = createComparator(items, limit);
+
+        if (comparator != null) {
+            comparator.sort((List<Object>) items, false);
+        }
+
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SortKeyComparator createComparator(Collection<?> items, Limit limit) {
+
         if (items.isEmpty()) {
-            return items;
+            return null;
         }
 
-        ComparatorChain chain = new ComparatorChain();
+        SortKeyComparator comparator = new SortKeyComparator();
         SortSet sortSet = limit.getSortSet();
 
         for (Sort sort : sortSet.getSorts()) {
@@ -62,21 +71,21 @@ public class ComparableAwareColumnSort implements ColumnSort {
 
             if (type != null && Comparable.class.isAssignableFrom(type)) {
                 if (sort.getOrder() == Order.ASC) {
-                    chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator(ComparableComparator.getInstance())));
+                    comparator.addSortKey(sort.getProperty(), false);
                 } else if (sort.getOrder() == Order.DESC) {
-                    chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator(ComparableComparator.getInstance())), true);
+                    comparator.addSortKey(sort.getProperty(), true);
                 }
             } else if (sort.getOrder() == Order.ASC) {
-                chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator()));
+                comparator.addSortKey(sort.getProperty(), new NullComparator(), false);
             } else if (sort.getOrder() == Order.DESC) {
-                chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator()), true);
+                comparator.addSortKey(sort.getProperty(), new NullComparator(), true);
             }
         }
 
-        if (chain.size() > 0) {
-            Collections.sort((List<?>) items, chain);
+        if (comparator.size() > 0) {
+            return comparator;
         }
 
-        return items;
+        return null;
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.sort;
+
+import org.jmesa.limit.Limit;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * A ColumnSort that can hand out the Comparator it sorts with. The Items
+ * use the Comparator to only select the rows of the current page instead
+ * of sorting all the items. The sortItems() method needs to give the same
+ * order as a stable sort with the Comparator.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface ComparatorColumnSort extends ColumnSort {
+
+    /**
+     * @param items The items that will be sorted.
+     * @param limit The Limit with the SortSet.
+     * @return The Comparator to sort the items with, or null if the items do not need to be sorted.
+     */
+    Comparator<Object> createComparator(Collection<?> items, Limit limit);
+
+    /**
+     * @param size The number of items that will be sorted.
+     * @return True if the items should be sorted on several threads.
+     */
+    default boolean isParallel(int size) {
+
+        return false;
+    }
+}
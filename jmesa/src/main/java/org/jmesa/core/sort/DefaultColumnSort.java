@@ -18,16 +18,23 @@ package org.jmesa.core.sort;
 import org.jmesa.limit.Limit;
 
 import java.util.Collection;
+import java.util.Comparator;
 
 /**
  * @author Jeff Johnston
  * @since 2.0
  */
-public class DefaultColumnSort implements ColumnSort {
+public class DefaultColumnSort implements ComparatorColumnSort {
 
     @Override
     public Collection<?> sortItems(Collection<?> items, Limit limit) {
 
         return items;
     }
+
+    @Override
+    public Comparator<Object> createComparator(Collection<?> items, Limit limit) {
+
+        return null;
+    }
 }
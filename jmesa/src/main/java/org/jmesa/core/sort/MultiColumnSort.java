@@ -15,43 +15,51 @@
  */
 package org.jmesa.core.sort;
 
-import org.apache.commons.beanutils.BeanComparator;
-import org.apache.commons.collections.comparators.ComparatorChain;
-import org.apache.commons.collections.comparators.NullComparator;
 import org.jmesa.limit.Limit;
 import org.jmesa.limit.Order;
 import org.jmesa.limit.Sort;
 import org.jmesa.limit.SortSet;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 /**
  * @author Jeff Johnston
  * @since 2.0
  */
-public class MultiColumnSort implements ColumnSort {
+public class MultiColumnSort implements ComparatorColumnSort {
 
     @SuppressWarnings("unchecked")
     @Override
     public Collection<?> sortItems(Collection<?> items, Limit limit) {
 
-        ComparatorChain chain = new ComparatorChain();
+        SortKeyComparator comparator = createComparator(items, limit);
+
+        if (comparator != null) {
+            comparator.sort((List<Object>) items, false);
+        }
+
+        return items;
+    }
+
+    @Override
+    public SortKeyComparator createComparator(Collection<?> items, Limit limit) {
+
+        SortKeyComparator comparator = new SortKeyComparator();
 
         SortSet sortSet = limit.getSortSet();
         for (Sort sort : sortSet.getSorts()) {
             if (sort.getOrder() == Order.ASC) {
-                chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator()));
+                comparator.addSortKey(sort.getProperty(), false);
             } else if (sort.getOrder() == Order.DESC) {
-                chain.addComparator(new BeanComparator(sort.getProperty(), new NullComparator()), true);
+                comparator.addSortKey(sort.getProperty(), true);
             }
         }
 
-        if (chain.size() > 0) {
-            Collections.sort((List<?>) items, chain);
+        if (comparator.size() > 0) {
+            return comparator;
         }
 
-        return items;
+        return null;
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.sort;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesSupport;
+import org.jmesa.limit.Limit;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * A MultiColumnSort that sorts with Arrays.parallelSort() once there are at
+ * least columnSort.parallelThreshold items. The parallel sort is stable and
+ * uses the same sort keys, so the order is the same as the MultiColumnSort.
+ * </p>
+ *
+ * <p>
+ * To use it set columnSort=org.jmesa.core.sort.ParallelColumnSort in the
+ * jmesa.properties file.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ParallelColumnSort extends MultiColumnSort implements PreferencesSupport {
+
+    public static final String PARALLEL_THRESHOLD = "columnSort.parallelThreshold";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    private Preferences preferences;
+    private Integer parallelThreshold;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<?> sortItems(Collection<?> items, Limit limit) {
+
+        if (!isParallel(items.size())) {
+            return super.sortItems(items, limit);
+        }
+
+        SortKeyComparator comparator = createComparator(items, limit);
+
+        if (comparator != null) {
+            comparator.sort((List<Object>) items, true);
+        }
+
+        return items;
+    }
+
+    @Override
+    public boolean isParallel(int size) {
+
+        return size >= getParallelThreshold();
+    }
+
+    public int getParallelThreshold() {
+
+        if (parallelThreshold == null) {
+            String threshold = preferences != null ? preferences.getPreference(PARALLEL_THRESHOLD) : null;
+            parallelThreshold = NumberUtils.toInt(threshold, DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public Preferences getPreferences() {
+
+        return preferences;
+    }
+
+    @Override
+    public void setPreferences(Preferences preferences) {
+
+        this.preferences = preferences;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.sort;
+
+import org.jmesa.util.ItemUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * <p>
+ * Compare items on one or more properties. Works like a ComparatorChain of
+ * PropertyComparators, but also knows how to build the SortKeys for a list
+ * of items, which reads every property only once per item instead of once
+ * per comparison.
+ * </p>
+ *
+ * <p>
+ * A natural sort key compares Comparable values and sorts null values after
+ * everything else, which is what the commons NullComparator does.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class SortKeyComparator implements Comparator<Object> {
+
+    private final List<SortKey> sortKeys = new ArrayList<>();
+
+    /**
+     * Sort on the natural order of the property values.
+     *
+     * @param property The Bean attribute or Map key to sort on.
+     * @param reverse True to sort descending.
+     */
+    public void addSortKey(String property, boolean reverse) {
+
+        sortKeys.add(new SortKey(property, null, reverse));
+    }
+
+    /**
+     * @param property The Bean attribute or Map key to sort on.
+     * @param comparator The Comparator for the property values. Needs to handle null values.
+     * @param reverse True to sort descending.
+     */
+    public void addSortKey(String property, Comparator<Object> comparator, boolean reverse) {
+
+        sortKeys.add(new SortKey(property, comparator, reverse));
+    }
+
+    public List<SortKey> getSortKeys() {
+
+        return Collections.unmodifiableList(sortKeys);
+    }
+
+    public int size() {
+
+        return sortKeys.size();
+    }
+
+    /**
+     * @param items The items to extract the sort keys from.
+     * @return The sort keys for the items.
+     */
+    public SortKeys createSortKeys(List<?> items) {
+
+        return new SortKeys(items, sortKeys);
+    }
+
+    /**
+     * Sort the items in place, extracting the sort keys first.
+     *
+     * @param items The items to sort.
+     * @param parallel True to sort on several threads.
+     */
+    public void sort(List<Object> items, boolean parallel) {
+
+        SortKeys keys = createSortKeys(items);
+        int[] rows = parallel ? keys.parallelSort() : keys.sort();
+        List<Object> sorted = SortKeys.getItems(items, rows);
+
+        ListIterator<Object> iterator = items.listIterator();
+        for (Object item : sorted) {
+            iterator.next();
+            iterator.set(item);
+        }
+    }
+
+    @Override
+    public int compare(Object o1, Object o2) {
+
+        for (SortKey sortKey : sortKeys) {
+            Object value1 = ItemUtils.getItemValue(o1, sortKey.getProperty());
+            Object value2 = ItemUtils.getItemValue(o2, sortKey.getProperty());
+            int result = sortKey.compare(value1, value2);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * One property to sort on.
+     */
+    public static class SortKey {
+
+        private final String property;
+        private final Comparator<Object> comparator;
+        private final boolean reverse;
+
+        SortKey(String property, Comparator<Object> comparator, boolean reverse) {
+
+            this.property = property;
+            this.comparator = comparator;
+            this.reverse = reverse;
+        }
+
+        public String getProperty() {
+
+            return property;
+        }
+
+        /**
+         * @return The Comparator for the values, or null for the natural order.
+         */
+        public Comparator<Object> getComparator() {
+
+            return comparator;
+        }
+
+        public boolean isNatural() {
+
+            return comparator == null;
+        }
+
+        public boolean isReverse() {
+
+            return reverse;
+        }
+
+        /**
+         * Compare two property values, including the null handling and the
+         * sort direction.
+         */
+        @SuppressWarnings("unchecked")
+        public int compare(Object value1, Object value2) {
+
+            int result;
+            if (comparator != null) {
+                result = comparator.compare(value1, value2);
+            } else if (value1 == value2) {
+                result = 0;
+            } else if (value1 == null) {
+                result = 1;
+            } else if (value2 == null) {
+                result = -1;
+            } else {
+                result = ((Comparable<Object>) value1).compareTo(value2);
+            }
+
+            return direction(result);
+        }
+
+        int direction(int result) {
+
+            if (!reverse) {
+                return result;
+            }
+
+            return result > 0 ? -1 : (result < 0 ? 1 : 0);
+        }
+    }
+}
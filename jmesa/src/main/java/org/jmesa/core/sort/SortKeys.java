@@ -0,0 +1,336 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.sort;
+
+import org.jmesa.core.sort.SortKeyComparator.SortKey;
+import org.jmesa.util.ItemUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>
+ * The sort keys of a list of items, extracted once per item and stored by
+ * column. Integral numbers and dates are kept in a long array and floating
+ * point numbers in a double array, so comparing two rows does not touch the
+ * items at all. Everything else is kept in an Object array and compared the
+ * way the SortKey says.
+ * </p>
+ *
+ * <p>
+ * Rows are referred to by their position in the list. The sort methods
+ * return a permutation of those positions (decorate-sort-undecorate).
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class SortKeys {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final int size;
+    private final KeyColumn[] columns;
+
+    SortKeys(List<?> items, List<SortKey> sortKeys) {
+
+        this.size = items.size();
+        this.columns = new KeyColumn[sortKeys.size()];
+
+        for (int c = 0; c < columns.length; c++) {
+            SortKey sortKey = sortKeys.get(c);
+            Object[] values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = ItemUtils.getItemValue(items.get(i), sortKey.getProperty());
+            }
+            columns[c] = createKeyColumn(sortKey, values);
+        }
+    }
+
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Compare two rows.
+     *
+     * @param row1 The position of the first item.
+     * @param row2 The position of the second item.
+     */
+    public int compare(int row1, int row2) {
+
+        for (KeyColumn column : columns) {
+            int result = column.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @return The positions of the items in sorted order. Equal items keep the order they had.
+     */
+    public int[] sort() {
+
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+
+        sort(rows, new int[size], 0, size);
+
+        return rows;
+    }
+
+    /**
+     * @return The positions of the items in sorted order, sorted on several threads.
+     */
+    public int[] parallelSort() {
+
+        Integer[] rows = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+
+        // stable, so the same order as sort()
+        Arrays.parallelSort(rows, this::compare);
+
+        int[] results = new int[size];
+        for (int i = 0; i < size; i++) {
+            results[i] = rows[i];
+        }
+
+        return results;
+    }
+
+    /**
+     * @param items The same items the keys were extracted from.
+     * @param rows The positions of the items.
+     * @return The items in the order of the positions.
+     */
+    public static List<Object> getItems(List<?> items, int[] rows) {
+
+        List<Object> results = new ArrayList<Object>(rows.length);
+        for (int row : rows) {
+            results.add(items.get(row));
+        }
+
+        return results;
+    }
+
+    /**
+     * A stable merge sort on the row positions.
+     */
+    private void sort(int[] rows, int[] buffer, int from, int to) {
+
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        sort(rows, buffer, from, middle);
+        sort(rows, buffer, middle, to);
+
+        if (compare(rows[middle - 1], rows[middle]) <= 0) {
+            return; // already in order
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private KeyColumn createKeyColumn(SortKey sortKey, Object[] values) {
+
+        if (!sortKey.isNatural()) {
+            return new ObjectKeyColumn(sortKey, values);
+        }
+
+        Class<?> type = getValueType(values);
+
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    keys[i] = ((Number) values[i]).longValue();
+                }
+            }
+            return new LongKeyColumn(sortKey, values, keys);
+        }
+
+        if (type == Double.class || type == Float.class) {
+            double[] keys = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    keys[i] = ((Number) values[i]).doubleValue();
+                }
+            }
+            return new DoubleKeyColumn(sortKey, values, keys);
+        }
+
+        // not subclasses like java.sql.Timestamp that compare on more than the time
+        if (type == Date.class || type == java.sql.Date.class) {
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    keys[i] = ((Date) values[i]).getTime();
+                }
+            }
+            return new LongKeyColumn(sortKey, values, keys);
+        }
+
+        return new ObjectKeyColumn(sortKey, values);
+    }
+
+    /**
+     * @return The class of the values if they all have the same class, otherwise null.
+     */
+    private Class<?> getValueType(Object[] values) {
+
+        Class<?> type = null;
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+
+            if (type == null) {
+                type = value.getClass();
+            } else if (type != value.getClass()) {
+                return null;
+            }
+        }
+
+        return type;
+    }
+
+    private static abstract class KeyColumn {
+
+        final SortKey sortKey;
+
+        KeyColumn(SortKey sortKey) {
+
+            this.sortKey = sortKey;
+        }
+
+        abstract int compare(int row1, int row2);
+    }
+
+    /**
+     * Primitive keys with the null values tracked on the side.
+     */
+    private static abstract class PrimitiveKeyColumn extends KeyColumn {
+
+        private final boolean[] nulls;
+
+        PrimitiveKeyColumn(SortKey sortKey, Object[] values) {
+
+            super(sortKey);
+            this.nulls = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                nulls[i] = values[i] == null;
+            }
+        }
+
+        @Override
+        int compare(int row1, int row2) {
+
+            int result;
+            if (nulls[row1]) {
+                result = nulls[row2] ? 0 : 1;
+            } else if (nulls[row2]) {
+                result = -1;
+            } else {
+                result = compareKeys(row1, row2);
+            }
+
+            return sortKey.direction(result);
+        }
+
+        abstract int compareKeys(int row1, int row2);
+    }
+
+    private static class LongKeyColumn extends PrimitiveKeyColumn {
+
+        private final long[] keys;
+
+        LongKeyColumn(SortKey sortKey, Object[] values, long[] keys) {
+
+            super(sortKey, values);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int row1, int row2) {
+
+            return Long.compare(keys[row1], keys[row2]);
+        }
+    }
+
+    private static class DoubleKeyColumn extends PrimitiveKeyColumn {
+
+        private final double[] keys;
+
+        DoubleKeyColumn(SortKey sortKey, Object[] values, double[] keys) {
+
+            super(sortKey, values);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int row1, int row2) {
+
+            return Double.compare(keys[row1], keys[row2]);
+        }
+    }
+
+    private static class ObjectKeyColumn extends KeyColumn {
+
+        private final Object[] values;
+
+        ObjectKeyColumn(SortKey sortKey, Object[] values) {
+
+            super(sortKey);
+            this.values = values;
+        }
+
+        @Override
+        int compare(int row1, int row2) {
+
+            return sortKey.compare(values[row1], values[row2]);
+        }
+    }
+}
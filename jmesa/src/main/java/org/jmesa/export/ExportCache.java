@@ -0,0 +1,546 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesFactory;
+import org.jmesa.util.DownloadFileNameEncoder;
+import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.ViewExporter;
+import org.jmesa.web.WebContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static org.jmesa.view.ExportConstants.CACHE_DIR;
+import static org.jmesa.view.ExportConstants.CACHE_MAX_SIZE;
+
+/**
+ * <p>
+ * Application scoped cache of finished exports, so a user that exports the
+ * same view again is sent the file that was already made instead of the table
+ * being rendered again. The key is made by the ExportCacheKey from the Limit,
+ * the columns and the data version the application gives the TableFacade.
+ * </p>
+ *
+ * <p>
+ * Only the rendering of the export is saved. By the time the TableFacade looks
+ * for a cached export it has already built the CoreContext, which filters,
+ * sorts and pages the items, so the items still have to be loaded.
+ * </p>
+ *
+ * <p>
+ * The files are kept on the local disk, in the export.cache.dir directory. When
+ * they take more than export.cache.maxSize megabytes the least recently used
+ * files are deleted.
+ * </p>
+ *
+ * <p>
+ * A cached file is sent with an ETag, a Last-Modified date and its
+ * Content-Length. Conditional requests are answered with a 304, and a single
+ * byte Range is answered with a 206, so an interrupted download can be
+ * resumed. A file that is being sent is only deleted once it is sent, even
+ * if its export is evicted in the meantime.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCache.class);
+
+    public static final String EXPORT_CACHE = ExportCache.class.getName();
+
+    private static final long DEFAULT_MAX_SIZE = 100;
+    private static final String SUFFIX = ".export";
+
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param dir The directory for the files. The files of an earlier cache in it are deleted.
+     * @param maxBytes The most bytes of files to keep.
+     */
+    public ExportCache(Path dir, long maxBytes) throws IOException {
+
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                delete(file);
+            }
+        }
+    }
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The cache for the application, created from the preferences the first time it is asked for.
+     */
+    public static ExportCache getInstance(WebContext webContext) throws IOException {
+
+        ExportCache cache = (ExportCache) webContext.getApplicationAttribute(EXPORT_CACHE);
+        if (cache != null) {
+            return cache;
+        }
+
+        synchronized (ExportCache.class) {
+            cache = (ExportCache) webContext.getApplicationAttribute(EXPORT_CACHE);
+            if (cache == null) {
+                cache = create(PreferencesFactory.getPreferences(webContext));
+                webContext.setApplicationAttribute(EXPORT_CACHE, cache);
+            }
+        }
+
+        return cache;
+    }
+
+    private static ExportCache create(Preferences preferences) throws IOException {
+
+        long maxSize = NumberUtils.toLong(StringUtils.trim(preferences.getPreference(CACHE_MAX_SIZE)), DEFAULT_MAX_SIZE);
+        if (maxSize <= 0) {
+            maxSize = DEFAULT_MAX_SIZE;
+        }
+
+        String dir = StringUtils.trimToNull(preferences.getPreference(CACHE_DIR));
+        Path path = dir != null ? Paths.get(dir) : Paths.get(System.getProperty("java.io.tmpdir"), "jmesa-export-cache");
+
+        return new ExportCache(path, maxSize * 1024 * 1024);
+    }
+
+    /**
+     * @return The cached export, or null if there is none. It can still be
+     *         evicted before it is sent, see send().
+     */
+    public synchronized Entry get(String key) {
+
+        Entry entry = entries.get(key);
+        if (entry != null && !Files.isRegularFile(entry.file)) {
+            remove(key);
+            return null;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Export to a new file and keep it in the cache.
+     *
+     * @param key The key from the ExportCacheKey.
+     * @param viewExporter The exporter, with its view, ready to export.
+     * @return The cached export.
+     */
+    public Entry put(String key, ViewExporter viewExporter) throws Exception {
+
+        String fileName = viewExporter.getFileName();
+        String contentType = "application/octet-stream";
+        if (viewExporter instanceof AbstractViewExporter) {
+            AbstractViewExporter exporter = (AbstractViewExporter) viewExporter;
+            fileName = exporter.getExportFileName();
+            contentType = exporter.getExportContentType();
+        }
+
+        Path part = Files.createTempFile(dir, key, ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                viewExporter.export(out);
+            }
+
+            // a file is written once and never changed, so concurrent readers see a whole file
+            Path file = Files.createTempFile(dir, key, SUFFIX);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+
+            Entry entry = new Entry(key, file, Files.size(file), System.currentTimeMillis(), fileName, contentType);
+            add(entry);
+            return entry;
+        } finally {
+            delete(part);
+        }
+    }
+
+    public synchronized void remove(String key) {
+
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.length;
+            discard(entry);
+        }
+    }
+
+    /**
+     * Delete all the cached exports.
+     */
+    public synchronized void clear() {
+
+        for (Entry entry : entries.values()) {
+            discard(entry);
+        }
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * @return The number of bytes of all the cached files.
+     */
+    public synchronized long getSize() {
+
+        return totalBytes;
+    }
+
+    private synchronized void add(Entry entry) {
+
+        remove(entry.key);
+
+        entries.put(entry.key, entry);
+        totalBytes += entry.length;
+
+        // evict the least recently used files, but always keep the one just made
+        Iterator<Entry> iter = entries.values().iterator();
+        while (totalBytes > maxBytes && iter.hasNext()) {
+            Entry eldest = iter.next();
+            if (eldest == entry) {
+                break;
+            }
+
+            iter.remove();
+            totalBytes -= eldest.length;
+            discard(eldest);
+        }
+    }
+
+    /**
+     * Delete the file of an export that is no longer in the cache, or leave that
+     * to the last send() that is still reading it.
+     */
+    private void discard(Entry entry) {
+
+        entry.discarded = true;
+        if (entry.readers == 0) {
+            delete(entry.file);
+        }
+    }
+
+    /**
+     * @return The file of the export, or null if the export is no longer in the cache.
+     */
+    private synchronized InputStream open(Entry entry) throws IOException {
+
+        if (entries.get(entry.key) != entry) {
+            return null;
+        }
+
+        InputStream in;
+        try {
+            in = Files.newInputStream(entry.file);
+        } catch (NoSuchFileException e) {
+            remove(entry.key);
+            return null;
+        }
+
+        entry.readers++;
+        return in;
+    }
+
+    private synchronized void close(Entry entry, InputStream in) throws IOException {
+
+        try {
+            in.close();
+        } finally {
+            entry.readers--;
+            if (entry.discarded && entry.readers == 0) {
+                delete(entry.file);
+            }
+        }
+    }
+
+    /**
+     * Send the cached export. A conditional request for the same export is
+     * answered with a 304 and a single byte range with a 206.
+     *
+     * @return False, with nothing written to the response, if the export was
+     *         evicted or its file deleted since it was looked up. The export then
+     *         has to be made again.
+     */
+    public boolean send(Entry entry, HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+        if (isNotModified(entry, request)) {
+            setValidators(entry, response);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        long[] range = getRange(entry, request);
+        if (range != null && range.length == 0) {
+            setValidators(entry, response);
+            response.setHeader("Content-Range", "bytes */" + entry.length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return true;
+        }
+
+        InputStream in = open(entry);
+        if (in == null) {
+            return false;
+        }
+
+        try {
+            setValidators(entry, response);
+            send(entry, in, range, request, response);
+        } finally {
+            close(entry, in);
+        }
+
+        return true;
+    }
+
+    private void send(Entry entry, InputStream in, long[] range, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+
+        DownloadFileNameEncoder.responseHeaders(response, request, entry.fileName, entry.contentType);
+
+        long start = 0;
+        long length = entry.length;
+        if (range != null) {
+            start = range[0];
+            length = range[1] - range[0] + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + entry.length);
+        }
+
+        response.setContentLengthLong(length);
+
+        skipFully(in, start);
+        copy(in, response.getOutputStream(), length);
+    }
+
+    private static void setValidators(Entry entry, HttpServletResponse response) {
+
+        response.setHeader("ETag", entry.getETag());
+        response.setDateHeader("Last-Modified", entry.lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+    }
+
+    private boolean isNotModified(Entry entry, HttpServletRequest request) {
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, entry.getETag());
+        }
+
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince != -1 && entry.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * @return The first and last byte of the range, null to send the whole
+     *         file, or an empty array if the range can not be satisfied.
+     */
+    private long[] getRange(Entry entry, HttpServletRequest request) {
+
+        String header = request.getHeader("Range");
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            // only a single range is supported, the whole file is sent for anything else
+            return null;
+        }
+
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !ifRange.trim().equals(entry.getETag())) {
+            long ifRangeDate = getDateHeader(request, "If-Range");
+            if (ifRangeDate == -1 || entry.lastModified / 1000 > ifRangeDate / 1000) {
+                return null;
+            }
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+
+        long length = entry.length;
+        long start;
+        long end;
+
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+
+        if (first.isEmpty()) {
+            // the last bytes of the file
+            long suffix = NumberUtils.toLong(last, -1);
+            if (suffix <= 0) {
+                return suffix == 0 ? new long[0] : null;
+            }
+            start = Math.max(0, length - suffix);
+            end = length - 1;
+        } else {
+            start = NumberUtils.toLong(first, -1);
+            end = last.isEmpty() ? Long.MAX_VALUE : NumberUtils.toLong(last, -1);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return new long[0];
+            }
+            end = Math.min(end, length - 1);
+        }
+
+        return new long[]{start, end};
+    }
+
+    private static boolean matches(String header, String etag) {
+
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                throw new IOException("The export file is shorter than expected.");
+            }
+            bytes -= skipped;
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long bytes) throws IOException {
+
+        byte[] buffer = new byte[8192];
+        while (bytes > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, bytes));
+            if (read == -1) {
+                throw new IOException("The export file is shorter than expected.");
+            }
+            out.write(buffer, 0, read);
+            bytes -= read;
+        }
+        out.flush();
+    }
+
+    private static void delete(Path file) {
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Not able to delete the cached export " + file, e);
+        }
+    }
+
+    /**
+     * A cached export.
+     */
+    public static final class Entry {
+
+        private final String key;
+        private final Path file;
+        private final long length;
+        private final long lastModified;
+        private final String fileName;
+        private final String contentType;
+
+        /*
+         * Guarded by the ExportCache.
+         */
+        private int readers;
+        private boolean discarded;
+
+        private Entry(String key, Path file, long length, long lastModified, String fileName, String contentType) {
+
+            this.key = key;
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+
+        public String getKey() {
+
+            return key;
+        }
+
+        public Path getFile() {
+
+            return file;
+        }
+
+        public long getLength() {
+
+            return length;
+        }
+
+        public long getLastModified() {
+
+            return lastModified;
+        }
+
+        public String getFileName() {
+
+            return fileName;
+        }
+
+        public String getContentType() {
+
+            return contentType;
+        }
+
+        /**
+         * @return The strong ETag. It has the time the file was made, because a
+         *         pdf made again from the same data is not the same bytes.
+         */
+        public String getETag() {
+
+            return "\"" + key + "-" + Long.toHexString(lastModified) + "\"";
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import org.jmesa.limit.Filter;
+import org.jmesa.limit.FilterSet;
+import org.jmesa.limit.Limit;
+import org.jmesa.limit.RowSelect;
+import org.jmesa.limit.Sort;
+import org.jmesa.limit.SortSet;
+import org.jmesa.view.component.Column;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * The key of an export in the ExportCache. It is a SHA-256 hash of the table
+ * id, the export type, the page and max rows, the filters, the sorts, the columns,
+ * the version of the data, the scope, the locale and any other settings that
+ * change the export, like the view and the pdf.renderer.
+ * </p>
+ *
+ * <p>
+ * The filters are put in a canonical order first, so the same filters sent in
+ * a different order give the same key. The sorts keep their position, because
+ * the order of the sorts changes the export.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class ExportCacheKey {
+
+    private ExportCacheKey() {}
+
+    /**
+     * @param id The table id.
+     * @param limit The Limit of the export.
+     * @param columns The exported columns.
+     * @param dataVersion The version of the items, see TableFacade.setDataVersion().
+     * @param scope Who may share the export, see TableFacade.setExportCacheScope().
+     * @param locale The locale the export is made in, which changes the messages and formats.
+     * @param settings Anything else that changes the export, like the view class or the pdf.renderer.
+     * @return The key, as 64 hex characters.
+     */
+    public static String create(String id, Limit limit, List<Column> columns, Object dataVersion, Object scope,
+            Locale locale, Object... settings) {
+
+        StringBuilder sb = new StringBuilder();
+        append(sb, "id", id);
+        append(sb, "export", limit.getExportType());
+
+        if (limit.hasRowSelect()) {
+            RowSelect rowSelect = limit.getRowSelect();
+            // the last row depends on the total rows, which the data version already stands for
+            append(sb, "page", rowSelect.getPage());
+            append(sb, "maxRows", rowSelect.getMaxRows());
+        }
+
+        append(sb, "filters", canonical(limit.getFilterSet()));
+        append(sb, "sorts", canonical(limit.getSortSet()));
+
+        for (Column column : columns) {
+            append(sb, "column", column.getProperty());
+            append(sb, "title", column.getTitle());
+        }
+
+        append(sb, "version", dataVersion);
+        append(sb, "scope", scope);
+        append(sb, "locale", locale);
+
+        for (Object setting : settings) {
+            append(sb, "setting", setting);
+        }
+
+        return sha256(sb.toString());
+    }
+
+    private static String canonical(FilterSet filterSet) {
+
+        if (filterSet == null) {
+            return "";
+        }
+
+        List<String> filters = new ArrayList<String>();
+        for (Filter filter : filterSet.getFilters()) {
+            StringBuilder sb = new StringBuilder();
+            append(sb, "property", filter.getProperty());
+            append(sb, "comparison", filter.getComparison());
+            append(sb, "value", filter.getValue() != null ? Arrays.asList(filter.getValue()) : null);
+            filters.add(sb.toString());
+        }
+        Collections.sort(filters);
+
+        List<String> filterSets = new ArrayList<String>();
+        for (FilterSet nested : filterSet.getFilterSets()) {
+            filterSets.add(canonical(nested));
+        }
+        Collections.sort(filterSets);
+
+        StringBuilder sb = new StringBuilder();
+        append(sb, "operator", filterSet.getOperator());
+        append(sb, "filters", filters);
+        append(sb, "filterSets", filterSets);
+        return sb.toString();
+    }
+
+    private static String canonical(SortSet sortSet) {
+
+        if (sortSet == null) {
+            return "";
+        }
+
+        List<Sort> sorts = new ArrayList<Sort>(sortSet.getSorts());
+        sorts.sort(Comparator.comparingInt(Sort::getPosition));
+
+        StringBuilder sb = new StringBuilder();
+        for (Sort sort : sorts) {
+            append(sb, "property", sort.getProperty());
+            append(sb, "order", sort.getOrder());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append the value with its length, so no value can run into the next one.
+     */
+    private static void append(StringBuilder sb, String name, Object value) {
+
+        String string = String.valueOf(value);
+        sb.append(name).append(':').append(string.length()).append(':').append(string).append(';');
+    }
+
+    private static String sha256(String value) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
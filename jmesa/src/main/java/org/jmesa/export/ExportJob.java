@@ -0,0 +1,244 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * An export that runs in the background. The job is created by the
+ * ExportJobManager, which runs the ViewExporter on its executor and writes the
+ * export to a temporary file. The progress is the number of rows the view has
+ * read out of the total rows, and once the job is done the file can be sent to
+ * the user.
+ * </p>
+ *
+ * <p>
+ * The id is a random UUID, so it can not be guessed by someone that did not
+ * start the export, and the job also remembers its owner, the user that
+ * started it, so the ExportJobServlet only answers to that user.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportJob {
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final String tableId;
+    private final String owner;
+    private final String fileName;
+    private final String contentType;
+    private final int totalRows;
+    private final long createdTime;
+    private final AtomicInteger rowsWritten = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile State state = State.QUEUED;
+    private volatile Path file;
+    private volatile String error;
+    private volatile long finishedTime;
+    private volatile Future<?> future;
+
+    ExportJob(String id, String tableId, String owner, String fileName, String contentType, int totalRows) {
+
+        this.id = id;
+        this.tableId = tableId;
+        this.owner = owner;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalRows = totalRows;
+        this.createdTime = System.currentTimeMillis();
+    }
+
+    public String getId() {
+
+        return id;
+    }
+
+    public String getTableId() {
+
+        return tableId;
+    }
+
+    /**
+     * @return The user that started the export, see ExportJobManager.getOwner(), or null if
+     *         anyone that knows the id may see it.
+     */
+    public String getOwner() {
+
+        return owner;
+    }
+
+    /**
+     * @param owner The user asking for the job.
+     * @return Is true if the job has no owner or the owner is the same.
+     */
+    public boolean isOwnedBy(String owner) {
+
+        return this.owner == null || this.owner.equals(owner);
+    }
+
+    /**
+     * @return The name of the exported file, with the extension.
+     */
+    public String getFileName() {
+
+        return fileName;
+    }
+
+    public String getContentType() {
+
+        return contentType;
+    }
+
+    public State getState() {
+
+        return state;
+    }
+
+    public int getTotalRows() {
+
+        return totalRows;
+    }
+
+    /**
+     * @return The number of rows written so far, never more than the total rows.
+     */
+    public int getRowsWritten() {
+
+        return Math.min(rowsWritten.get(), totalRows);
+    }
+
+    /**
+     * @return The file with the export, or null if the job is not done.
+     */
+    public Path getFile() {
+
+        return state == State.DONE ? file : null;
+    }
+
+    /**
+     * @return The reason the job failed, or null.
+     */
+    public String getError() {
+
+        return error;
+    }
+
+    public long getCreatedTime() {
+
+        return createdTime;
+    }
+
+    /**
+     * @return When the job was done, failed or was cancelled, or 0 if it is still going.
+     */
+    public long getFinishedTime() {
+
+        return finishedTime;
+    }
+
+    public boolean isFinished() {
+
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Wait for the job to finish.
+     *
+     * @return Is true if the job finished before the timeout.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+
+        return finished.await(timeout, unit);
+    }
+
+    void rowWritten() {
+
+        rowsWritten.incrementAndGet();
+    }
+
+    void setFuture(Future<?> future) {
+
+        this.future = future;
+    }
+
+    /**
+     * @return Is true if the job is still to run, false if it was cancelled first.
+     */
+    synchronized boolean start(Path file) {
+
+        if (state != State.QUEUED) {
+            return false;
+        }
+
+        this.file = file;
+        this.state = State.RUNNING;
+        return true;
+    }
+
+    synchronized void done() {
+
+        finish(State.DONE, null);
+    }
+
+    synchronized void failed(String error) {
+
+        finish(State.FAILED, error);
+    }
+
+    /**
+     * @return The file that was written, if there was one, so it can be deleted.
+     */
+    synchronized Path cancel() {
+
+        if (!isFinished()) {
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+            finish(State.CANCELLED, null);
+        }
+
+        return file;
+    }
+
+    Path getWrittenFile() {
+
+        return file;
+    }
+
+    private void finish(State finalState, String error) {
+
+        if (isFinished()) {
+            return;
+        }
+
+        this.state = finalState;
+        this.error = error;
+        this.finishedTime = System.currentTimeMillis();
+        finished.countDown();
+    }
+}
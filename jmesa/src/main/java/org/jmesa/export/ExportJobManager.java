@@ -0,0 +1,388 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.CoreContext;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesFactory;
+import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.ViewExporter;
+import org.jmesa.web.WebContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.PageContext;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jmesa.view.ExportConstants.ASYNC_MAX_CONCURRENT;
+import static org.jmesa.view.ExportConstants.ASYNC_MAX_QUEUED;
+import static org.jmesa.view.ExportConstants.ASYNC_TEMP_DIR;
+import static org.jmesa.view.ExportConstants.ASYNC_TIME_TO_LIVE;
+
+/**
+ * <p>
+ * Application scoped runner of the background exports. An export is handed
+ * over with submit(), which returns an ExportJob straight away. The export is
+ * written to a temporary file by a bounded pool of threads, virtual threads
+ * when the JVM has them, so a long export does not tie up a request thread and
+ * is not lost when the user leaves the page. The ExportJobServlet answers the
+ * progress of a job and sends the file once it is done.
+ * </p>
+ *
+ * <p>
+ * At most export.async.maxConcurrent exports run at the same time and
+ * export.async.maxQueued wait for their turn. Past that submit() throws a
+ * RejectedExecutionException. Finished jobs, and their files, are removed
+ * export.async.timeToLive seconds after they are done, by a sweep that runs in
+ * the background.
+ * </p>
+ *
+ * <p>
+ * The threads and the files have to be let go of when the application stops.
+ * The ExportJobManagerListener does that by calling shutdown(). It is picked
+ * up by the container through its @WebListener annotation, but if the web.xml
+ * is metadata-complete it has to be declared there:
+ * </p>
+ *
+ * <pre>
+ * &lt;listener&gt;
+ *     &lt;listener-class&gt;org.jmesa.export.servlet.ExportJobManagerListener&lt;/listener-class&gt;
+ * &lt;/listener&gt;
+ * </pre>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportJobManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobManager.class);
+
+    public static final String EXPORT_JOB_MANAGER = ExportJobManager.class.getName();
+    public static final String EXPORT_OWNER = ExportJobManager.class.getName() + ".OWNER";
+
+    private static final int DEFAULT_MAX_CONCURRENT = 2;
+    private static final int DEFAULT_MAX_QUEUED = 10;
+    private static final long DEFAULT_TIME_TO_LIVE = 1800;
+    private static final long MAX_SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService sweeper;
+    private final long timeToLiveMillis;
+    private final Path tempDir;
+
+    /**
+     * @param maxConcurrent The number of exports that run at the same time.
+     * @param maxQueued The number of exports that can wait for their turn.
+     * @param timeToLiveMillis How long a finished export is kept.
+     * @param tempDir The directory for the export files, or null for the java.io.tmpdir.
+     */
+    public ExportJobManager(int maxConcurrent, int maxQueued, long timeToLiveMillis, Path tempDir) {
+
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, maxQueued)), createThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.tempDir = tempDir;
+
+        // the expired jobs are also removed when nobody asks for a job anymore
+        long sweepInterval = Math.max(1000, Math.min(timeToLiveMillis, MAX_SWEEP_INTERVAL));
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jmesa-export-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::removeExpired, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The manager for the application, created from the preferences the first time it is asked for.
+     */
+    public static ExportJobManager getInstance(WebContext webContext) {
+
+        ExportJobManager manager = (ExportJobManager) webContext.getApplicationAttribute(EXPORT_JOB_MANAGER);
+        if (manager != null) {
+            return manager;
+        }
+
+        synchronized (ExportJobManager.class) {
+            manager = (ExportJobManager) webContext.getApplicationAttribute(EXPORT_JOB_MANAGER);
+            if (manager == null) {
+                manager = create(PreferencesFactory.getPreferences(webContext));
+                webContext.setApplicationAttribute(EXPORT_JOB_MANAGER, manager);
+            }
+        }
+
+        return manager;
+    }
+
+    private static ExportJobManager create(Preferences preferences) {
+
+        int maxConcurrent = toInt(preferences.getPreference(ASYNC_MAX_CONCURRENT), DEFAULT_MAX_CONCURRENT);
+        int maxQueued = toInt(preferences.getPreference(ASYNC_MAX_QUEUED), DEFAULT_MAX_QUEUED);
+        long timeToLive = toInt(preferences.getPreference(ASYNC_TIME_TO_LIVE), (int) DEFAULT_TIME_TO_LIVE);
+
+        String dir = StringUtils.trimToNull(preferences.getPreference(ASYNC_TEMP_DIR));
+        Path tempDir = dir != null ? Paths.get(dir) : null;
+
+        return new ExportJobManager(maxConcurrent, maxQueued, TimeUnit.SECONDS.toMillis(timeToLive), tempDir);
+    }
+
+    /**
+     * The owner of an export is the principal if the user logged in, else a random token kept
+     * in the session. The token is a session attribute, so it stays the same when the container
+     * changes the id of the session.
+     *
+     * @param webContext The WebContext of the request.
+     * @return The owner, or null if the WebContext is not backed by an HTTP request.
+     */
+    public static String getOwner(WebContext webContext) {
+
+        HttpServletRequest request = getRequest(webContext.getBackingObject());
+        if (request == null) {
+            return null;
+        }
+
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+
+        HttpSession session = request.getSession();
+        synchronized (ExportJobManager.class) {
+            Object token = session.getAttribute(EXPORT_OWNER);
+            if (token == null) {
+                token = UUID.randomUUID().toString();
+                session.setAttribute(EXPORT_OWNER, token);
+            }
+            return "session:" + token;
+        }
+    }
+
+    private static HttpServletRequest getRequest(Object backingObject) {
+
+        if (backingObject instanceof HttpServletRequest) {
+            return (HttpServletRequest) backingObject;
+        }
+
+        if (backingObject instanceof PageContext) {
+            ServletRequest request = ((PageContext) backingObject).getRequest();
+            if (request instanceof HttpServletRequest) {
+                return (HttpServletRequest) request;
+            }
+        }
+
+        return null;
+    }
+
+    private static int toInt(String value, int defaultValue) {
+
+        int result = NumberUtils.toInt(StringUtils.trim(value), defaultValue);
+        return result > 0 ? result : defaultValue;
+    }
+
+    /**
+     * Run the export in the background. The view of the exporter reads the
+     * page items of the CoreContext, which should be the same CoreContext the
+     * exporter was set up with. The export runs after the request is over, so
+     * the exporter and its view should not hold on to the request, but use a
+     * DetachedWebContext like TableFacade.submitExport() sets them up with.
+     *
+     * @param tableId The table id.
+     * @param owner The user that starts the export, see getOwner(), or null if anyone that knows
+     *              the id of the job may see it.
+     * @param viewExporter The exporter, with its view, ready to export.
+     * @param coreContext The CoreContext of the table.
+     * @return The job, to poll for the progress.
+     * @throws RejectedExecutionException If there are already too many exports waiting.
+     */
+    public ExportJob submit(String tableId, String owner, ViewExporter viewExporter, CoreContext coreContext)
+            throws Exception {
+
+        removeExpired();
+
+        String fileName = viewExporter.getFileName();
+        String contentType = "application/octet-stream";
+        if (viewExporter instanceof AbstractViewExporter) {
+            AbstractViewExporter exporter = (AbstractViewExporter) viewExporter;
+            fileName = exporter.getExportFileName();
+            contentType = exporter.getExportContentType();
+        }
+
+        Collection<?> pageItems = coreContext.getPageItems();
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), tableId, owner, fileName, contentType,
+                pageItems.size());
+        coreContext.setPageItems(new ProgressItems(pageItems, job));
+
+        jobs.put(job.getId(), job);
+
+        try {
+            job.setFuture(executor.submit(() -> run(job, viewExporter)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+
+        return job;
+    }
+
+    /**
+     * @return The job, or null if there is no such job or it expired.
+     */
+    public ExportJob getJob(String id) {
+
+        removeExpired();
+
+        if (id == null) {
+            return null;
+        }
+
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancel the job, if it is still going, and delete its file.
+     */
+    public void remove(String id) {
+
+        if (id == null) {
+            return;
+        }
+
+        ExportJob job = jobs.remove(id);
+        if (job != null) {
+            delete(job.cancel());
+        }
+    }
+
+    /**
+     * Remove the finished jobs that are older than the time to live.
+     */
+    public void removeExpired() {
+
+        long expired = System.currentTimeMillis() - timeToLiveMillis;
+
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.getFinishedTime() < expired) {
+                remove(job.getId());
+            }
+        }
+    }
+
+    /**
+     * Stop the running exports and delete all the files, for when the application stops.
+     */
+    public void shutdown() {
+
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+
+        for (String id : jobs.keySet()) {
+            remove(id);
+        }
+    }
+
+    private void run(ExportJob job, ViewExporter viewExporter) {
+
+        Path file = null;
+
+        try {
+            String suffix = "." + StringUtils.defaultIfEmpty(StringUtils.substringAfterLast(job.getFileName(), "."), "tmp");
+            file = tempDir != null ? Files.createTempFile(tempDir, "jmesa-export-", suffix)
+                    : Files.createTempFile("jmesa-export-", suffix);
+
+            if (!job.start(file)) {
+                delete(file);
+                return;
+            }
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                viewExporter.export(out);
+            }
+
+            job.done();
+        } catch (Exception e) {
+            logger.error("Not able to perform the export " + job.getId() + " of the table " + job.getTableId() + ".", e);
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            delete(file);
+        }
+
+        if (job.getState() == ExportJob.State.CANCELLED) {
+            delete(file);
+        }
+    }
+
+    private static void delete(Path file) {
+
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Not able to delete the export file " + file, e);
+        }
+    }
+
+    /**
+     * Use virtual threads when the JVM has them (Java 21 and up), else daemon
+     * threads, so a running export does not keep the JVM from stopping.
+     */
+    private static ThreadFactory createThreadFactory() {
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "jmesa-export-", 1L);
+            Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, "jmesa-export-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
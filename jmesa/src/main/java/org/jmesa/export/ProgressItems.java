@@ -0,0 +1,68 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * The page items of a background export. Every item the view reads counts as
+ * a row written for the progress of the job.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+class ProgressItems extends AbstractCollection<Object> {
+
+    private final Collection<?> items;
+    private final ExportJob job;
+
+    ProgressItems(Collection<?> items, ExportJob job) {
+
+        this.items = items;
+        this.job = job;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+
+        Iterator<?> iterator = items.iterator();
+
+        return new Iterator<Object>() {
+
+            @Override
+            public boolean hasNext() {
+
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object next() {
+
+                Object item = iterator.next();
+                job.rowWritten();
+                return item;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return items.size();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export.servlet;
+
+import org.jmesa.export.ExportJobManager;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * <p>
+ * Shuts the ExportJobManager of the application down when the application
+ * stops, so the running exports are cancelled, the sweeper thread ends and the
+ * export files are deleted.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+@WebListener
+public class ExportJobManagerListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {}
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+
+        ServletContext servletContext = event.getServletContext();
+        Object manager = servletContext.getAttribute(ExportJobManager.EXPORT_JOB_MANAGER);
+
+        if (manager instanceof ExportJobManager) {
+            ((ExportJobManager) manager).shutdown();
+            servletContext.removeAttribute(ExportJobManager.EXPORT_JOB_MANAGER);
+        }
+    }
+}
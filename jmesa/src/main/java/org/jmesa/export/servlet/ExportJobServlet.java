@@ -0,0 +1,139 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export.servlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.jmesa.export.ExportJob;
+import org.jmesa.export.ExportJobManager;
+import org.jmesa.util.DownloadFileNameEncoder;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.WebContext;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * The status and download endpoint of the background exports. The job request
+ * parameter is the id of the ExportJob returned by TableFacade.submitExport().
+ * </p>
+ *
+ * <p>
+ * Without other parameters the answer is the status of the job as JSON: the
+ * id, the state, the rows written, the total rows, the file name and the
+ * error, if any. With download=true the file of a finished job is sent, or a
+ * 409 if the job is not done. A missing job parameter is a 400, and an
+ * unknown or expired job, or a job another user started, is a 404. A DELETE
+ * cancels the job and deletes its file.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportJobServlet extends HttpServlet {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        ExportJob job = getJob(request, response);
+        if (job == null) {
+            return;
+        }
+
+        if ("true".equals(request.getParameter("download"))) {
+            download(job, request, response);
+            return;
+        }
+
+        Map<String, Object> status = new LinkedHashMap<String, Object>();
+        status.put("id", job.getId());
+        status.put("state", job.getState().name());
+        status.put("rowsWritten", job.getRowsWritten());
+        status.put("totalRows", job.getTotalRows());
+        status.put("fileName", job.getFileName());
+        status.put("error", job.getError());
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        OBJECT_MAPPER.writeValue(response.getWriter(), status);
+    }
+
+    @Override
+    public void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        ExportJob job = getJob(request, response);
+        if (job == null) {
+            return;
+        }
+
+        WebContext webContext = new HttpServletRequestWebContext(request);
+        ExportJobManager.getInstance(webContext).remove(job.getId());
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    /**
+     * @return The job of the request, or null if the error was already sent. A job of another
+     *         user is answered the same as a job that does not exist.
+     */
+    private ExportJob getJob(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        String id = request.getParameter("job");
+        if (StringUtils.isBlank(id)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "The job parameter is missing.");
+            return null;
+        }
+
+        WebContext webContext = new HttpServletRequestWebContext(request);
+        ExportJob job = ExportJobManager.getInstance(webContext).getJob(id);
+
+        if (job == null || !job.isOwnedBy(ExportJobManager.getOwner(webContext))) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "There is no such export.");
+            return null;
+        }
+
+        return job;
+    }
+
+    private void download(ExportJob job, HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        Path file = job.getFile();
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "The export is " + job.getState().name().toLowerCase() + ".");
+            return;
+        }
+
+        try {
+            DownloadFileNameEncoder.responseHeaders(response, request, job.getFileName(), job.getContentType());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+
+        response.setContentLengthLong(Files.size(file));
+        Files.copy(file, response.getOutputStream());
+    }
+}
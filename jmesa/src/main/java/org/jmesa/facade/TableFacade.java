@@ -17,6 +17,7 @@ package org.jmesa.facade;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
 import org.jmesa.core.CoreContext;
 import org.jmesa.core.CoreContextFactory;
 import org.jmesa.core.filter.FilterMatcher;
@@ -25,9 +26,14 @@ import org.jmesa.core.filter.MatcherKey;
 import org.jmesa.core.filter.RowFilter;
 import org.jmesa.core.message.Messages;
 import org.jmesa.core.message.MessagesFactory;
+import org.jmesa.core.message.SpringMessages;
 import org.jmesa.core.preference.Preferences;
 import org.jmesa.core.preference.PreferencesFactory;
 import org.jmesa.core.sort.ColumnSort;
+import org.jmesa.export.ExportCache;
+import org.jmesa.export.ExportCacheKey;
+import org.jmesa.export.ExportJob;
+import org.jmesa.export.ExportJobManager;
 import org.jmesa.limit.Limit;
 import org.jmesa.limit.LimitFactory;
 import org.jmesa.limit.RowSelect;
@@ -47,6 +53,9 @@ import org.jmesa.view.excel.Excel2007View;
 import org.jmesa.view.excel.Excel2007ViewExporter;
 import org.jmesa.view.excel.ExcelView;
 import org.jmesa.view.excel.ExcelViewExporter;
+import org.jmesa.view.excel.StreamingExcel2007View;
+import org.jmesa.view.excel.StreamingExcel2007ViewExporter;
+import org.jmesa.view.html.AbstractHtmlView;
 import org.jmesa.view.html.HtmlConstants;
 import org.jmesa.view.html.HtmlView;
 import org.jmesa.view.html.toolbar.Toolbar;
@@ -54,21 +63,26 @@ import org.jmesa.view.jexcel.JExcelView;
 import org.jmesa.view.jexcel.JExcelViewExporter;
 import org.jmesa.view.json.JsonViewAlter;
 import org.jmesa.view.json.JsonViewExporter;
+import org.jmesa.view.pdf.PdfLayoutView;
 import org.jmesa.view.pdf.PdfView;
 import org.jmesa.view.pdf.PdfViewExporter;
 import org.jmesa.view.pdfp.PdfPView;
 import org.jmesa.view.pdfp.PdfPViewExporter;
+import org.jmesa.web.DetachedWebContext;
 import org.jmesa.web.HttpServletRequestWebContext;
 import org.jmesa.web.WebContext;
 import org.jmesa.worksheet.Worksheet;
-import org.jmesa.worksheet.state.SessionWorksheetState;
 import org.jmesa.worksheet.state.WorksheetState;
+import org.jmesa.worksheet.state.WorksheetStateFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.security.Principal;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -77,6 +91,7 @@ import static org.jmesa.facade.TableFacadeExceptions.*;
 import static org.jmesa.facade.TableFacadeUtils.filterWorksheetItems;
 import static org.jmesa.facade.TableFacadeUtils.isClearingWorksheet;
 import static org.jmesa.limit.LimitConstants.LIMIT_ROWSELECT_MAXROWS;
+import static org.jmesa.view.ExportConstants.CACHE_ENABLED;
 
 /**
  * <p>
@@ -122,6 +137,8 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
     private HttpServletResponse response;
     private int maxRows;
     private Collection<?> items;
+    private Object dataVersion;
+    private Object exportCacheScope;
     private String[] exportTypes;
     private String exportFileName;
     private WebContext webContext;
@@ -306,7 +323,7 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
     protected WorksheetState getWorksheetState() {
 
     	if (worksheetState == null) {
-    		return new SessionWorksheetState(id, getWebContext());
+    		return WorksheetStateFactory.createWorksheetState(id, getWebContext());
     	}
 
     	return worksheetState;
@@ -603,6 +620,39 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
         }
     }
 
+    /**
+     * Set the version of the items. Anything that is derived from all the items, like the
+     * values of a droplist filter, is cached until the version changes. The version can be
+     * anything with a meaningful equals(), but it has to stand for the exact items that were
+     * set. A cached export is sent without looking at the items again, so two different sets
+     * of items must never have the same version. A last modified timestamp is only enough if
+     * the items are everything the timestamp covers, not the items one user is allowed to see.
+     *
+     * @param dataVersion The version of the items.
+     */
+    public void setDataVersion(Object dataVersion) {
+
+        this.dataVersion = dataVersion;
+
+        if (coreContext != null) {
+            coreContext.setDataVersion(dataVersion);
+        }
+    }
+
+    /**
+     * Set who may share the cached exports of this table. By default an export is only sent
+     * again to the same user, the principal if the user logged in and otherwise the session.
+     * If the items are the same for a group of users then the group can be the scope, and if
+     * they are the same for everyone then any constant will share the exports between all users.
+     *
+     * @param exportCacheScope Who may share the cached exports.
+     * @since 4.5
+     */
+    public void setExportCacheScope(Object exportCacheScope) {
+
+        this.exportCacheScope = exportCacheScope;
+    }
+
     protected int getMaxRows() {
 
         if (maxRows == 0) {
@@ -651,7 +701,13 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
             }
         }
 
-        this.coreContext = factory.createCoreContext(items, getLimit(), getWorksheet());
+        if (getLimit().hasExport() && isExportCached()) {
+            // a cached export does not need the items filtered and sorted
+            this.coreContext = factory.createLazyCoreContext(items, getLimit(), getWorksheet());
+        } else {
+            this.coreContext = factory.createCoreContext(items, getLimit(), getWorksheet());
+        }
+        coreContext.setDataVersion(dataVersion);
         return coreContext;
     }
 
@@ -768,14 +824,22 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
             exportView = new ExcelView();
         } else if (exportType.equals(ExportTypes.EXCEL_2007)) {
             exportView = new Excel2007View();
+        } else if (exportType.equals(ExportTypes.EXCEL_2007_STREAMING)) {
+            exportView = new StreamingExcel2007View();
         } else if (exportType.equals(ExportTypes.JEXCEL)) {
             exportView = new JExcelView();
         } else if (exportType.equals(ExportTypes.PDF)) {
-            exportView = new PdfView();
+            if ("layout".equals(getPreferences().getPreference("pdf.renderer"))) {
+                exportView = new PdfLayoutView();
+            } else {
+                exportView = new PdfView();
+            }
         } else if (exportType.equals(ExportTypes.PDFP)) {
             exportView= new PdfPView();
         } else if (exportType.equals(ExportTypes.JSON)) {
             exportView= new JsonViewAlter();
+        } else if (exportType.equals(ExportTypes.NDJSON)) {
+            exportView = new JsonViewAlter(true);
         } else {
             throw new IllegalStateException("Not a valid export type.");
         }
@@ -835,67 +899,220 @@ public class TableFacade implements WorksheetSupport, ContextSupport {
         return null;
     }
 
+    /**
+     * Generate the view straight to the output, for example the writer of the response. A html
+     * table is written as it is rendered instead of being built up as a String first.
+     *
+     * @param out Where the table is written to.
+     * @since 4.5
+     */
+    public void render(Appendable out) throws IOException {
+
+        Limit l = getLimit();
+        View v = getView();
+
+        if (!l.hasExport() && v instanceof AbstractHtmlView) {
+            ((AbstractHtmlView) v).render(out);
+            return;
+        }
+
+        String html = render();
+        if (html != null) {
+            out.append(html);
+        }
+    }
+
     protected Object renderExport(String exportType, View view) {
 
         validateResponseIsNotNull(response, responseContext);
 
         try {
-            ViewExporter ve = viewExporter;
-
-            if (ve == null) {
-
-                if (exportType == null) {
-                    throw new IllegalStateException("The export type is null.");
-                }
-
-                if (exportType.equals(ExportTypes.CSV)) {
-                    ve = new CsvViewExporter();
-                } else if (exportType.equals(ExportTypes.EXCEL)) {
-                    ve = new ExcelViewExporter();
-                } else if (exportType.equals(ExportTypes.EXCEL_2007)) {
-                    ve = new Excel2007ViewExporter();
-                } else if (exportType.equals(ExportTypes.JEXCEL)) {
-                    ve = new JExcelViewExporter();
-                } else if (exportType.equals(ExportTypes.PDF)) {
-                    ve = new PdfViewExporter();
-                } else if (exportType.equals(ExportTypes.PDFP)) {
-                    ve = new PdfPViewExporter();
-                }else if (exportType.equals(ExportTypes.JSON)) {
-                    ve = new JsonViewExporter();
-                }  else {
-                    throw new IllegalStateException("Not a valid export type.");
-                }
+            if (response != null && isExportCached()) {
+                renderCachedExport(exportType, view);
+                return null;
+            }
+
+            ViewExporter ve = getViewExporter(exportType, view);
+            SupportUtils.setHttpServletResponse(ve, response);
+
+            if(response==null) {
+                return ve.exportDirect();
+            }else {
+                ve.export();
             }
+        } catch (Exception e) {
+            logger.error("Not able to perform the " + exportType + " export.", e);
+        }
+        return null;
+    }
 
-            if (ve != null) {
-                ve.setView(view);
+    /**
+     * The key is made from the Limit, the columns and the data version only, so a cached export
+     * is sent before the items are filtered, sorted and paged and before the exporter is made.
+     */
+    private void renderCachedExport(String exportType, View view) throws Exception {
 
-                SupportUtils.setWebContext(ve, getWebContext());
-                SupportUtils.setCoreContext(ve, getCoreContext());
-                SupportUtils.setHttpServletRequest(ve, request);
-                SupportUtils.setHttpServletResponse(ve, response);
+        ExportCache exportCache = ExportCache.getInstance(getWebContext());
 
-                if (exportFileName == null) {
-                    exportFileName = ExportUtils.exportFileName(getView());
-                }
+        String fileName = exportFileName != null ? exportFileName : ExportUtils.exportFileName(view);
+        String exporterName = viewExporter != null ? viewExporter.getClass().getName() : null;
+        String key = ExportCacheKey.create(id, getLimit(), getTable().getRow().getColumns(), dataVersion,
+                getExportCacheScope(), getWebContext().getLocale(), view.getClass().getName(), exporterName,
+                fileName, getPreferences().getPreference("pdf.renderer"),
+                getPreferences().getPreference("pdf.cssLocation"));
 
-                ve.setFileName(exportFileName);
+        ExportCache.Entry entry = exportCache.get(key);
+        if (entry != null && exportCache.send(entry, request, response)) {
+            return;
+        }
+
+        ViewExporter ve = getViewExporter(exportType, view);
+        SupportUtils.setHttpServletResponse(ve, response);
+
+        entry = exportCache.put(key, ve);
+        if (!exportCache.send(entry, request, response)) {
+            // evicted since it was made, so make it again
+            ve.export();
+        }
+    }
+
+    /**
+     * The export cache is used when it is enabled with the export.cache.enabled preference and the
+     * application gave the data a version with setDataVersion(). Without a version there is no way
+     * to tell if the items changed since the export was cached. An editable table is never cached
+     * because the worksheet changes the items without changing the version.
+     */
+    private boolean isExportCached() {
+
+        if (dataVersion == null || request == null || editable) {
+            return false;
+        }
+
+        return "true".equals(StringUtils.trim(getPreferences().getPreference(CACHE_ENABLED)));
+    }
 
-              //added by xwx
-                if(request!=null) {
-                    String userAgent = request.getHeader("User-Agent");
-                    ((AbstractViewExporter) ve).setUserAgent(userAgent);
-                }
+    private Object getExportCacheScope() {
 
-                if(response==null) {
-                    return ve.exportDirect();
-                }else {
-                    ve.export();
-                }
+        if (exportCacheScope != null) {
+            return exportCacheScope;
+        }
+
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+
+        return "session:" + request.getSession().getId();
+    }
+
+    /**
+     * Start the export in the background instead of writing it to the response. The export is
+     * written to a temporary file and the returned job tells how far along it is. The
+     * ExportJobServlet answers the progress of the job and sends the file once it is done.
+     *
+     * <p>
+     * The request is recycled by the container once it is over, so the exporter, the view and
+     * the table are handed a DetachedWebContext, made here on the request thread, and a copy of
+     * the CoreContext with Messages that no longer ask the request for the locale.
+     * </p>
+     *
+     * <p>
+     * The job belongs to the user that started it, so the ExportJobServlet does not show it to
+     * anyone else.
+     * </p>
+     *
+     * @return The export job.
+     * @since 4.5
+     */
+    public ExportJob submitExport() throws Exception {
+
+        Limit l = getLimit();
+
+        if (!l.hasExport()) {
+            throw new IllegalStateException("The table is not being exported.");
+        }
+
+        String exportType = l.getExportType();
+        View exportView = getView();
+        ViewExporter ve = getViewExporter(exportType, exportView);
+
+        WebContext detachedWebContext = new DetachedWebContext(getWebContext());
+        CoreContext detachedCoreContext = getCoreContext().copy(detach(getMessages(), detachedWebContext.getLocale()));
+
+        TableFacadeUtils.detachTable(getTable(), detachedWebContext, detachedCoreContext);
+        TableFacadeUtils.detach(exportView, detachedWebContext, detachedCoreContext);
+        TableFacadeUtils.detach(ve, detachedWebContext, detachedCoreContext);
+
+        String owner = ExportJobManager.getOwner(getWebContext());
+        return ExportJobManager.getInstance(getWebContext()).submit(id, owner, ve, detachedCoreContext);
+    }
+
+    /**
+     * The ResourceBundleMessages are already for one locale, only the SpringMessages look up the
+     * locale of the request every time.
+     */
+    private static Messages detach(Messages messages, Locale locale) {
+
+        if (messages instanceof SpringMessages) {
+            return ((SpringMessages) messages).detach(locale);
+        }
+
+        return messages;
+    }
+
+    /**
+     * @return The exporter for the export type, set up with the view and the contexts.
+     * @since 4.5
+     */
+    protected ViewExporter getViewExporter(String exportType, View view) throws Exception {
+
+        ViewExporter ve = viewExporter;
+
+        if (ve == null) {
+
+            if (exportType == null) {
+                throw new IllegalStateException("The export type is null.");
+            }
+
+            if (exportType.equals(ExportTypes.CSV)) {
+                ve = new CsvViewExporter();
+            } else if (exportType.equals(ExportTypes.EXCEL)) {
+                ve = new ExcelViewExporter();
+            } else if (exportType.equals(ExportTypes.EXCEL_2007)) {
+                ve = new Excel2007ViewExporter();
+            } else if (exportType.equals(ExportTypes.EXCEL_2007_STREAMING)) {
+                ve = new StreamingExcel2007ViewExporter();
+            } else if (exportType.equals(ExportTypes.JEXCEL)) {
+                ve = new JExcelViewExporter();
+            } else if (exportType.equals(ExportTypes.PDF)) {
+                ve = new PdfViewExporter();
+            } else if (exportType.equals(ExportTypes.PDFP)) {
+                ve = new PdfPViewExporter();
+            }else if (exportType.equals(ExportTypes.JSON) || exportType.equals(ExportTypes.NDJSON)) {
+                ve = new JsonViewExporter();
+            }  else {
+                throw new IllegalStateException("Not a valid export type.");
             }
-        } catch (Exception e) {
-            logger.error("Not able to perform the " + exportType + " export.", e);
         }
-        return null;
+
+        ve.setView(view);
+
+        SupportUtils.setWebContext(ve, getWebContext());
+        SupportUtils.setCoreContext(ve, getCoreContext());
+        SupportUtils.setHttpServletRequest(ve, request);
+
+        if (exportFileName == null) {
+            exportFileName = ExportUtils.exportFileName(getView());
+        }
+
+        ve.setFileName(exportFileName);
+
+      //added by xwx
+        if(request!=null) {
+            String userAgent = request.getHeader("User-Agent");
+            ((AbstractViewExporter) ve).setUserAgent(userAgent);
+        }
+
+        return ve;
     }
 }
@@ -15,9 +15,10 @@
  */
 package org.jmesa.facade;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jmesa.core.CoreContext;
+import org.jmesa.core.CoreContextSupport;
+import org.jmesa.util.ItemUtils;
 import org.jmesa.util.SupportUtils;
 import org.jmesa.view.component.Column;
 import org.jmesa.view.component.Row;
@@ -28,9 +29,13 @@ import org.jmesa.view.editor.HeaderEditor;
 import org.jmesa.view.html.component.HtmlColumn;
 import org.jmesa.view.html.component.HtmlRow;
 import org.jmesa.view.renderer.*;
+import org.jmesa.web.HttpServletRequestSupport;
 import org.jmesa.web.WebContext;
+import org.jmesa.web.WebContextSupport;
+import org.jmesa.worksheet.UniqueProperty;
 import org.jmesa.worksheet.Worksheet;
 import org.jmesa.worksheet.WorksheetRow;
+import org.jmesa.worksheet.WorksheetUtils;
 import org.jmesa.worksheet.editor.WorksheetEditor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +43,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Utilities for the TableFacade.
@@ -87,21 +93,23 @@ public class TableFacadeUtils {
             return items;
         }
 
+        String uniqueProperty = WorksheetUtils.getUniquePropertyName(worksheet);
+
         List<Object> results = new ArrayList<Object>();
 
+        if (uniqueProperty == null) {
+            return results;
+        }
+
+        // the worksheet rows are stored by unique property value, so this is one lookup per item
         for (Object item : items) {
-            for (WorksheetRow worksheetRow : worksheetRows) {
-                String uniqueProperty = worksheetRow.getUniqueProperty().getName();
-                String uniquePropertyValue = worksheetRow.getUniqueProperty().getValue();
-                try {
-                    Object value = PropertyUtils.getProperty(item, uniqueProperty);
-                    if (value.toString().equals(uniquePropertyValue)) {
-                        results.add(item);
-                    }
-
-                } catch (Exception e) {
-                    logger.error("Had problems evaluating the items.", e);
-                }
+            Object value = ItemUtils.getItemValue(item, uniqueProperty);
+            if (value == null) {
+                continue;
+            }
+
+            if (worksheet.getRow(new UniqueProperty(uniqueProperty, value.toString())) != null) {
+                results.add(item);
             }
         }
 
@@ -117,52 +125,91 @@ public class TableFacadeUtils {
         WebContext webContext = tableFacade.getWebContext();
         CoreContext coreContext = tableFacade.getCoreContext();
 
-        // get the table set up
+        visitTable(table, (obj, column) -> {
+            init(obj, webContext, coreContext);
+            if (column != null) {
+                SupportUtils.setColumn(obj, column);
+            }
+        });
+    }
+
+    /**
+     * Replace the WebContext and CoreContext the components were set up with, even
+     * though they are already set, and take away the request.
+     *
+     * @since 4.5
+     */
+    static void detachTable(Table table, WebContext webContext, CoreContext coreContext) {
+
+        visitTable(table, (obj, column) -> detach(obj, webContext, coreContext));
+    }
+
+    /**
+     * @since 4.5
+     */
+    static void detach(Object obj, WebContext webContext, CoreContext coreContext) {
+
+        if (obj instanceof WebContextSupport) {
+            ((WebContextSupport) obj).setWebContext(webContext);
+        }
+
+        if (obj instanceof CoreContextSupport) {
+            ((CoreContextSupport) obj).setCoreContext(coreContext);
+        }
+
+        if (obj instanceof HttpServletRequestSupport) {
+            ((HttpServletRequestSupport) obj).setHttpServletRequest(null);
+        }
+    }
+
+    /**
+     * Hand every component of the table to the visitor, along with the column
+     * for the components that belong to one.
+     */
+    private static void visitTable(Table table, BiConsumer<Object, Column> visitor) {
+
+        // the table
 
-        init(table, webContext, coreContext);
+        visitor.accept(table, null);
 
         TableRenderer tableRenderer = table.getTableRenderer();
-        init(tableRenderer, webContext, coreContext);
+        visitor.accept(tableRenderer, null);
 
-        // get the row set up
+        // the row
 
         Row row = table.getRow();
-        init(row, webContext, coreContext);
+        visitor.accept(row, null);
 
         if (row instanceof HtmlRow) {
             HtmlRow htmlRow = (HtmlRow)row;
-            init(htmlRow.getOnclick(), webContext, coreContext);
-            init(htmlRow.getOnmouseover(), webContext, coreContext);
-            init(htmlRow.getOnmouseout(), webContext, coreContext);
+            visitor.accept(htmlRow.getOnclick(), null);
+            visitor.accept(htmlRow.getOnmouseover(), null);
+            visitor.accept(htmlRow.getOnmouseout(), null);
         }
 
         RowRenderer rowRenderer = row.getRowRenderer();
-        init(rowRenderer, webContext, coreContext);
+        visitor.accept(rowRenderer, null);
 
-        // get the column set up
+        // the columns
 
         for (Column column : row.getColumns()) {
-            init(column, webContext, coreContext);
+            visitor.accept(column, null);
 
             // cell
 
             CellRenderer cellRenderer = column.getCellRenderer();
-            init(cellRenderer, webContext, coreContext);
-            SupportUtils.setColumn(cellRenderer, column);
+            visitor.accept(cellRenderer, column);
 
             CellEditor cellEditor = column.getCellEditor();
-            init(cellEditor, webContext, coreContext);
-            SupportUtils.setColumn(cellEditor, column);
+            visitor.accept(cellEditor, column);
 
             // header
 
             HeaderRenderer headerRenderer = column.getHeaderRenderer();
-            init(headerRenderer, webContext, coreContext);
-            SupportUtils.setColumn(headerRenderer, column);
+            visitor.accept(headerRenderer, column);
 
             HeaderEditor headerEditor = column.getHeaderEditor();
-            init(headerEditor, webContext, coreContext);
-            SupportUtils.setColumn(headerEditor, column);
+            visitor.accept(headerEditor, column);
 
             // filter
 
@@ -171,21 +218,17 @@ public class TableFacadeUtils {
 
                 WorksheetEditor worksheetEditor = htmlColumn.getWorksheetEditor();
                 if (worksheetEditor != null) {
-                    init(worksheetEditor, webContext, coreContext);
-                    SupportUtils.setColumn(worksheetEditor, column);
+                    visitor.accept(worksheetEditor, column);
 
                     CellEditor worksheetCellEditor = worksheetEditor.getCellEditor();
-                    init(worksheetCellEditor, webContext, coreContext);
-                    SupportUtils.setColumn(worksheetCellEditor, column);
+                    visitor.accept(worksheetCellEditor, column);
                 }
 
                 FilterRenderer filterRenderer = htmlColumn.getFilterRenderer();
-                init(filterRenderer, webContext, coreContext);
-                SupportUtils.setColumn(filterRenderer, column);
+                visitor.accept(filterRenderer, column);
 
                 FilterEditor filterEditor = column.getFilterEditor();
-                init(filterEditor, webContext, coreContext);
-                SupportUtils.setColumn(filterEditor, column);
+                visitor.accept(filterEditor, column);
             }
         }
     }
@@ -70,11 +70,23 @@ public class FilterSet implements Serializable {
     }
 
     /**
-     * @return Is true if there are any columns that need to be filtered.
+     * @return Is true if there are any columns that need to be filtered, in this set or any of the child sets.
      */
     public boolean isFiltered() {
 
-        return filters != null && !filters.isEmpty();
+        if (filters != null && !filters.isEmpty()) {
+            return true;
+        }
+
+        if (filterSets != null) {
+            for (FilterSet filterSet : filterSets) {
+                if (filterSet.isFiltered()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
     }
 
     /**
@@ -136,20 +148,24 @@ public class FilterSet implements Serializable {
         /**
          * while set use AND operation
          */
-        AND,
+        AND("and"),
         /**
          * or use OR between all filters.
          */
-        OR
-
-        // ; String value;
-//        Operator(final String value) {
-//            this.value = value;
-//        }
-//
-//        @Override
-//        public String toString() {
-//            return  value;
-//        }
+        OR("or");
+
+        private final String value;
+
+        Operator(final String value) {
+            this.value = value;
+        }
+
+        /**
+         * The JSON value, which is also what the ObjectMapper reads and writes (see FilterDeserializer).
+         */
+        @Override
+        public String toString() {
+            return value;
+        }
     }
 }
@@ -117,18 +117,28 @@ public final class RangeFilter extends BaseFilter implements Filter{
                 ISO_DATETIME_TIME_ZONE_FORMAT
         };
 
+        /*
+         * The parsed bounds, so a Pair that is used for every row only parses them once.
+         */
+        private volatile double[] numberBounds;
+        private volatile long[] dateBounds;
+        private volatile long[] dateTimeBounds;
+
         public boolean inRange(Object itemValue) {
             if(itemValue instanceof Number){
                 double v= Double.parseDouble(String.valueOf(itemValue));
-                double b= Double.parseDouble(startValueInclusive);
-                double e = Double.parseDouble(endValueExclusive);
-                return v>=b && v<e;
+                double[] bounds = getNumberBounds();
+                return v>=bounds[0] && v<bounds[1];
             }
             if(itemValue instanceof Date){
-                Date d =  (Date)itemValue;
+                long d = ((Date)itemValue).getTime();
                 try {
-                    return !d.before(DateUtils.parseDate(startValueInclusive, DATE_PATTERNS))
-                            && d.before(DateUtils.parseDate(endValueExclusive, DATE_PATTERNS));
+                    long[] bounds = dateBounds;
+                    if (bounds == null) {
+                        bounds = parseDates(DATE_PATTERNS);
+                        dateBounds = bounds;
+                    }
+                    return d >= bounds[0] && d < bounds[1];
                 }catch (ParseException e){
                     logger.warn("Unknown date format: "+startValueInclusive+","+endValueExclusive,e);
                 }
@@ -136,10 +146,14 @@ public final class RangeFilter extends BaseFilter implements Filter{
             }
 
             if(itemValue instanceof DateTime){
-                DateTime d =  (DateTime)itemValue;
+                long d = ((DateTime)itemValue).getMillis();
                     try {
-                        return !d.isBefore(DateUtils.parseDate(startValueInclusive, DATETIME_PATTERNS).getTime())
-                                && d.isBefore(DateUtils.parseDate(endValueExclusive, DATETIME_PATTERNS).getTime());
+                        long[] bounds = dateTimeBounds;
+                        if (bounds == null) {
+                            bounds = parseDates(DATETIME_PATTERNS);
+                            dateTimeBounds = bounds;
+                        }
+                        return d >= bounds[0] && d < bounds[1];
                     }catch (ParseException e){
                         logger.warn("Unknown date format: "+startValueInclusive+","+endValueExclusive,e);
                     }
@@ -148,6 +162,22 @@ public final class RangeFilter extends BaseFilter implements Filter{
 
             return false;
         }
+
+        private double[] getNumberBounds() {
+            double[] bounds = numberBounds;
+            if (bounds == null) {
+                bounds = new double[]{Double.parseDouble(startValueInclusive), Double.parseDouble(endValueExclusive)};
+                numberBounds = bounds;
+            }
+            return bounds;
+        }
+
+        private long[] parseDates(String[] patterns) throws ParseException {
+            return new long[]{
+                    DateUtils.parseDate(startValueInclusive, patterns).getTime(),
+                    DateUtils.parseDate(endValueExclusive, patterns).getTime()
+            };
+        }
     }
 
     public RangeFilter(String property, Comparison comparison, Object[] value) {
@@ -4,8 +4,10 @@ public interface ExportTypes {
     String CSV = "csv";
     String EXCEL = "excel";
     String EXCEL_2007 = "excel2007";
+    String EXCEL_2007_STREAMING = "excel2007streaming";
     String JEXCEL = "jexcel";
     String PDF = "pdf";
     String PDFP = "pdfp";
     String JSON = "json";
+    String NDJSON = "ndjson";
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.model;
+
+import org.jmesa.limit.Limit;
+
+import java.util.Iterator;
+
+/**
+ * <p>
+ * Use to pull the items one at a time instead of handing the table a full
+ * Collection. Meant for exports of large tables where the rows come from an
+ * open JDBC cursor or a Stream, so that only one row is in memory at a time.
+ * </p>
+ *
+ * <p>
+ * Like the PageItems the items need to already be filtered and sorted by the
+ * Limit. When exporting, the Iterator should return all the rows. Otherwise it
+ * should return the rows of the current page (limit.getRowSelect()), which are
+ * then read into memory like any other page. If the Iterator implements
+ * AutoCloseable it will be closed once the rows are read.
+ * </p>
+ *
+ * <p>
+ * For a Stream return stream.iterator() and close the Stream from the
+ * Iterator's close method.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface StreamingItems {
+
+    /**
+     * @param limit The Limit with the filters.
+     * @return The exact number of rows the Iterator will return for an export.
+     */
+    int getTotalRows(Limit limit);
+
+    Iterator<?> getItems(Limit limit);
+}
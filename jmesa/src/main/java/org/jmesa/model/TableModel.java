@@ -15,6 +15,7 @@
  */
 package org.jmesa.model;
 
+import org.jmesa.core.LazyItems;
 import org.jmesa.core.filter.FilterMatcher;
 import org.jmesa.core.filter.FilterMatcherMap;
 import org.jmesa.core.filter.MatcherKey;
@@ -54,6 +55,7 @@ public class TableModel{
     private Collection<?> items;
     private PageItems pageItems;
     private AllItems allItems;
+    private StreamingItems streamingItems;
     private Preferences preferences;
     private Messages messages;
     private String[] exportTypes;
@@ -73,6 +75,7 @@ public class TableModel{
     private View view;
     private Table table;
     private boolean editable;
+    private Object dataVersion;
     private WorksheetSaver worksheetSaver;
     private Object addedRowObject;
 
@@ -156,6 +159,17 @@ public class TableModel{
         this.allItems = allItems;
     }
 
+    /**
+     * Use to pull the items one at a time. When exporting, the rows are
+     * handed to the export view without being held in memory.
+     *
+     * @since 4.5
+     */
+    public void setItems(StreamingItems streamingItems) {
+
+        this.streamingItems = streamingItems;
+    }
+
     public void setPreferences(Preferences preferences) {
 
         this.preferences = preferences;
@@ -254,6 +268,11 @@ public class TableModel{
         this.editable = editable;
     }
 
+    public void setDataVersion(Object dataVersion) {
+
+        this.dataVersion = dataVersion;
+    }
+
     public void addRowObject(Object addedRowObject) {
 
         this.addedRowObject = addedRowObject;
@@ -300,6 +319,10 @@ public class TableModel{
             TableModelUtils.saveWorksheet(tableFacade, worksheetSaver);
         }
 
+        if (dataVersion != null) {
+            tableFacade.setDataVersion(dataVersion);
+        }
+
         if (preferences != null) {
             tableFacade.setPreferences(preferences);
         }
@@ -362,6 +385,8 @@ public class TableModel{
             items = getItems(tableFacade, pageItems);
         } else if (allItems != null) {
             items = allItems.getItems();
+        } else if (streamingItems != null) {
+            items = getItems(tableFacade, streamingItems);
         }
 
         tableFacade.setItems(items);
@@ -388,6 +413,12 @@ public class TableModel{
         	}
         }
 
-        return tableFacade.render();
+        try {
+            return tableFacade.render();
+        } finally {
+            if (items instanceof LazyItems) {
+                ((LazyItems) items).close();
+            }
+        }
     }
 }
@@ -18,6 +18,7 @@ package org.jmesa.model;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import javax.servlet.http.HttpServletRequest;
+import org.jmesa.core.LazyItems;
 import org.jmesa.facade.TableFacade;
 import org.jmesa.facade.WorksheetSupport;
 import org.jmesa.limit.Limit;
@@ -35,7 +36,9 @@ import org.jmesa.worksheet.Worksheet;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -114,6 +117,44 @@ public class TableModelUtils {
         return pageItems.getItems(limit);
     }
 
+    /**
+     * When exporting, the rows are wrapped in a LazyItems so that the export
+     * view reads them one at a time. Otherwise the page of rows is read into
+     * memory.
+     *
+     * @since 4.5
+     */
+    protected static Collection<?> getItems(WorksheetSupport tableFacade, StreamingItems streamingItems) {
+
+        Limit limit = tableFacade.getLimit();
+        int totalRows = streamingItems.getTotalRows(limit);
+
+        if (limit.hasExport()) {
+            limit.setRowSelect(new RowSelect(1, totalRows, totalRows));
+            return new LazyItems(streamingItems.getItems(limit), totalRows);
+        }
+
+        if (limit.hasRowSelect()) {
+            int page = limit.getRowSelect().getPage();
+            int maxRows = limit.getRowSelect().getMaxRows();
+            limit.setRowSelect(new RowSelect(page, maxRows, totalRows));
+        } else {
+            tableFacade.setTotalRows(totalRows);
+        }
+
+        List<Object> results = new ArrayList<Object>();
+        LazyItems items = new LazyItems(streamingItems.getItems(limit), totalRows);
+        try {
+            for (Object item : items) {
+                results.add(item);
+            }
+        } finally {
+            items.close();
+        }
+
+        return results;
+    }
+
     public static boolean saveWorksheet(String id, HttpServletRequest request, WorksheetSaver worksheetSaver) {
 
         TableFacade tableFacade = new TableFacade(id, request);
@@ -137,6 +178,7 @@ public class TableModelUtils {
         tableFacade.setEditable(true);
         Worksheet worksheet = tableFacade.getWorksheet();
         worksheet.removeAllChanges();
+        tableFacade.persistWorksheet(worksheet);
     }
 
     public static Table createTable(String... columnProperties) {
@@ -20,6 +20,7 @@ import org.jmesa.facade.TableFacadeFactory;
 import org.jmesa.limit.Limit;
 import org.jmesa.view.View;
 import org.jmesa.view.ViewUtils;
+import org.jmesa.view.html.AbstractHtmlView;
 import org.jmesa.view.html.HtmlUtils;
 import org.jmesa.view.html.component.HtmlTable;
 import org.jmesa.web.JspPageWebContext;
@@ -542,8 +543,11 @@ public class TableModelTag extends SimpleTagSupport {
         }
 
         View v = tableFacade.getView();
-        String html = v.render().toString();
-        getJspContext().getOut().print(html);
+        if (v instanceof AbstractHtmlView) {
+            ((AbstractHtmlView) v).render(getJspContext().getOut());
+        } else {
+            getJspContext().getOut().print(v.render().toString());
+        }
     }
 
     protected WebContext getWebContext() {
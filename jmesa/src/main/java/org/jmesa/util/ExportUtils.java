@@ -16,8 +16,13 @@
 package org.jmesa.util;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.CoreContext;
 import org.jmesa.view.View;
 
+import static org.jmesa.view.ExportConstants.DEFAULT_EXCEL_MAX_ROWS_PER_SHEET;
+import static org.jmesa.view.ExportConstants.EXCEL_MAX_ROWS_PER_SHEET;
+
 /**
  * <p>
  * Utility class to work with the Exports.
@@ -44,4 +49,19 @@ public class ExportUtils {
 
         return "table-data";
     }
+
+    /**
+     * The rows per sheet of the xls exports, from the export.excel.maxRowsPerSheet preference.
+     * An xls sheet can not hold more than 65536 rows, so a bigger or invalid value gives 65536.
+     *
+     * @param coreContext The CoreContext with the preferences.
+     * @return The number of rows, header included, on one sheet.
+     * @since 4.5
+     */
+    public static int getMaxRowsPerSheet(CoreContext coreContext) {
+
+        String preference = coreContext.getPreference(EXCEL_MAX_ROWS_PER_SHEET);
+        int value = NumberUtils.toInt(StringUtils.trim(preference), DEFAULT_EXCEL_MAX_ROWS_PER_SHEET);
+        return Math.min(value > 1 ? value : DEFAULT_EXCEL_MAX_ROWS_PER_SHEET, DEFAULT_EXCEL_MAX_ROWS_PER_SHEET);
+    }
 }
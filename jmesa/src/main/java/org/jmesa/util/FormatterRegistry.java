@@ -0,0 +1,185 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * The number and date formatters by pattern and locale, so the editors and filter matchers do
+ * not create a formatter for every value.
+ * </p>
+ *
+ * <p>
+ * The date formatters are immutable and shared by all threads. A DecimalFormat is not thread
+ * safe, so every pattern and locale has a small pool of them and a thread has a DecimalFormat to
+ * itself while it formats a value. A null locale is the default locale.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class FormatterRegistry {
+
+    /**
+     * Past this many patterns and locales the formatters are not cached any more.
+     */
+    private static final int MAX_ENTRIES = 512;
+
+    /**
+     * The most DecimalFormats that are kept for one pattern and locale.
+     */
+    private static final int POOL_SIZE = 16;
+
+    private static final Map<Key, FastDateFormat> DATE_FORMATS = new ConcurrentHashMap<>();
+    private static final Map<Key, DateTimeFormatter> DATE_TIME_FORMATTERS = new ConcurrentHashMap<>();
+    private static final Map<Key, DecimalFormatPool> DECIMAL_FORMATS = new ConcurrentHashMap<>();
+
+    private FormatterRegistry() {}
+
+    /**
+     * @return The format for java.util.Date values.
+     */
+    public static FastDateFormat getDateFormat(String pattern, Locale locale) {
+
+        return get(DATE_FORMATS, new Key(pattern, locale), key -> FastDateFormat.getInstance(key.pattern, key.locale));
+    }
+
+    /**
+     * @return The formatter for joda DateTime values.
+     */
+    public static DateTimeFormatter getDateTimeFormatter(String pattern, Locale locale) {
+
+        return get(DATE_TIME_FORMATTERS, new Key(pattern, locale), key -> DateTimeFormat.forPattern(key.pattern).withLocale(key.locale));
+    }
+
+    /**
+     * @return The number formatted with the pattern, which is the same as DecimalFormat.format().
+     */
+    public static String formatNumber(Object number, String pattern, Locale locale) {
+
+        Locale numberLocale = locale != null ? locale : Locale.getDefault(Locale.Category.FORMAT);
+        DecimalFormatPool pool = get(DECIMAL_FORMATS, new Key(pattern, numberLocale), DecimalFormatPool::new);
+
+        DecimalFormat decimalFormat = pool.borrow();
+        try {
+            return decimalFormat.format(number);
+        } finally {
+            pool.release(decimalFormat);
+        }
+    }
+
+    /**
+     * Forget all the formatters.
+     */
+    public static void clear() {
+
+        DATE_FORMATS.clear();
+        DATE_TIME_FORMATTERS.clear();
+        DECIMAL_FORMATS.clear();
+    }
+
+    private static <T> T get(Map<Key, T> formatters, Key key, Function<Key, T> creator) {
+
+        T formatter = formatters.get(key);
+        if (formatter != null) {
+            return formatter;
+        }
+
+        if (formatters.size() >= MAX_ENTRIES) {
+            return creator.apply(key);
+        }
+
+        return formatters.computeIfAbsent(key, creator);
+    }
+
+    private static final class DecimalFormatPool {
+
+        private final DecimalFormat prototype;
+        private final BlockingQueue<DecimalFormat> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        DecimalFormatPool(Key key) {
+
+            DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getInstance(key.locale);
+            decimalFormat.applyPattern(key.pattern);
+            this.prototype = decimalFormat;
+        }
+
+        DecimalFormat borrow() {
+
+            DecimalFormat decimalFormat = pool.poll();
+            if (decimalFormat != null) {
+                return decimalFormat;
+            }
+
+            synchronized (prototype) {
+                return (DecimalFormat) prototype.clone();
+            }
+        }
+
+        void release(DecimalFormat decimalFormat) {
+
+            pool.offer(decimalFormat);
+        }
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+        private final Locale locale;
+        private final int hashCode;
+
+        Key(String pattern, Locale locale) {
+
+            this.pattern = pattern;
+            this.locale = locale != null ? locale : Locale.getDefault();
+            this.hashCode = Objects.hash(pattern, this.locale);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return Objects.equals(pattern, that.pattern) && locale.equals(that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
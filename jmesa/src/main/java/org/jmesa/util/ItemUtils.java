@@ -41,7 +41,8 @@ public class ItemUtils {
     }
 
     /**
-     * Get the value from the Bean or Map by property.
+     * Get the value from the Bean or Map by property. Bean values are read
+     * with the cached PropertyAccessor for the item class.
      *
      * @param item The Bean or Map.
      * @param property The Bean attribute or Map key.
@@ -67,8 +68,8 @@ public class ItemUtils {
                 }
 
                 itemValue = getItemValue(bean, property);
-            } else {
-                itemValue = PropertyUtils.getProperty(item, property);
+            } else if (item != null) {
+                itemValue = PropertyAccessorCache.getValue(item, property);
             }
         } catch (Exception e) {
             logger.debug("item class " + item.getClass().getName() + " does not have property " + property);
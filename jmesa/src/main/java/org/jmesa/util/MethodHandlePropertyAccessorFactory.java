@@ -0,0 +1,258 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * The default PropertyAccessorFactory. The getter of a simple property is
+ * compiled into a Function with the LambdaMetafactory so that reading the value
+ * is as fast as a direct method call. If the bean class is not visible to the
+ * JMesa class loader (for example JMesa is in a shared lib directory) a plain
+ * MethodHandle is used instead.
+ * </p>
+ *
+ * <p>
+ * Nested properties such as 'name.firstName' are split into a chain, and each
+ * intermediate value is looked up again by its runtime class, which is the same
+ * semantics as the commons PropertyUtils. Indexed and mapped properties, and
+ * DynaBeans, are still handed to PropertyUtils.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class MethodHandlePropertyAccessorFactory implements PropertyAccessorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandlePropertyAccessorFactory.class);
+
+    private static final MethodType FUNCTION_FACTORY_TYPE = MethodType.methodType(Function.class);
+    private static final MethodType FUNCTION_APPLY_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    @Override
+    public PropertyAccessor createPropertyAccessor(Class<?> type, String property) {
+
+        if (property.indexOf('[') != -1 || property.indexOf('(') != -1 || DynaBean.class.isAssignableFrom(type)) {
+            return new PropertyUtilsAccessor(property);
+        }
+
+        int dotIndex = property.indexOf('.');
+        if (dotIndex != -1) {
+            PropertyAccessor head = PropertyAccessorCache.getPropertyAccessor(type, property.substring(0, dotIndex));
+            return new NestedAccessor(head, property.substring(dotIndex + 1));
+        }
+
+        if (Map.class.isAssignableFrom(type)) {
+            return new MapAccessor(property);
+        }
+
+        Method readMethod = getReadMethod(type, property);
+        if (readMethod == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("item class " + type.getName() + " does not have property " + property);
+            }
+            return NullAccessor.INSTANCE;
+        }
+
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(readMethod);
+            Function<Object, Object> function = createFunction(handle, readMethod);
+            if (function != null) {
+                return new FunctionAccessor(function);
+            }
+
+            return new MethodHandleAccessor(handle.asType(FUNCTION_APPLY_TYPE));
+        } catch (IllegalAccessException e) {
+            logger.debug("Could not access the read method " + readMethod + ", using PropertyUtils instead.", e);
+            return new PropertyUtilsAccessor(property);
+        }
+    }
+
+    /**
+     * @return The public read method for the property, looking through the
+     *         public interfaces and super classes if the class is not public.
+     */
+    protected Method getReadMethod(Class<?> type, String property) {
+
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(type);
+            for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                if (descriptor.getName().equals(property) && descriptor.getReadMethod() != null) {
+                    return MethodUtils.getAccessibleMethod(type, descriptor.getReadMethod());
+                }
+            }
+        } catch (IntrospectionException e) {
+            logger.debug("Could not introspect the class " + type.getName(), e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Spin up a Function that calls the getter directly.
+     *
+     * @return The Function, or null if one could not be generated.
+     */
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> createFunction(MethodHandle handle, Method readMethod) {
+
+        if (!isVisible(readMethod.getDeclaringClass())) {
+            return null;
+        }
+
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup(), "apply", FUNCTION_FACTORY_TYPE,
+                FUNCTION_APPLY_TYPE, handle, handle.type().wrap());
+            return (Function<Object, Object>) callSite.getTarget().invoke();
+        } catch (Throwable t) {
+            logger.debug("Could not compile the read method " + readMethod + ", using a MethodHandle instead.", t);
+            return null;
+        }
+    }
+
+    private static boolean isVisible(Class<?> type) {
+
+        try {
+            ClassLoader classLoader = MethodHandlePropertyAccessorFactory.class.getClassLoader();
+            return Class.forName(type.getName(), false, classLoader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static final class FunctionAccessor implements PropertyAccessor {
+
+        private final Function<Object, Object> function;
+
+        FunctionAccessor(Function<Object, Object> function) {
+
+            this.function = function;
+        }
+
+        @Override
+        public Object getValue(Object item) {
+
+            return function.apply(item);
+        }
+    }
+
+    private static final class MethodHandleAccessor implements PropertyAccessor {
+
+        private final MethodHandle handle;
+
+        MethodHandleAccessor(MethodHandle handle) {
+
+            this.handle = handle;
+        }
+
+        @Override
+        public Object getValue(Object item) {
+
+            try {
+                return handle.invokeExact(item);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    private static final class NestedAccessor implements PropertyAccessor {
+
+        private final PropertyAccessor head;
+        private final String tail;
+
+        NestedAccessor(PropertyAccessor head, String tail) {
+
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public Object getValue(Object item) {
+
+            return PropertyAccessorCache.getValue(head.getValue(item), tail);
+        }
+    }
+
+    private static final class MapAccessor implements PropertyAccessor {
+
+        private final String key;
+
+        MapAccessor(String key) {
+
+            this.key = key;
+        }
+
+        @Override
+        public Object getValue(Object item) {
+
+            return ((Map<?, ?>) item).get(key);
+        }
+    }
+
+    private static final class PropertyUtilsAccessor implements PropertyAccessor {
+
+        private final String property;
+
+        PropertyUtilsAccessor(String property) {
+
+            this.property = property;
+        }
+
+        @Override
+        public Object getValue(Object item) {
+
+            try {
+                return PropertyUtils.getProperty(item, property);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class NullAccessor implements PropertyAccessor {
+
+        static final NullAccessor INSTANCE = new NullAccessor();
+
+        @Override
+        public Object getValue(Object item) {
+
+            return null;
+        }
+    }
+}
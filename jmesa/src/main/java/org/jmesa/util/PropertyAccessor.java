@@ -0,0 +1,35 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+/**
+ * Reads a single (possibly nested) property from an item. Implementations are
+ * resolved once per item class and property and then reused for every row, so
+ * they must be thread safe and should not do any reflective lookups in
+ * {@link #getValue(Object)}.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface PropertyAccessor {
+
+    /**
+     * @param item The Bean or Map to read from.
+     * @return The property value, or null if the item (or an intermediate
+     *         nested value) does not have the property.
+     */
+    Object getValue(Object item);
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Application wide cache of PropertyAccessor instances keyed by the item class
+ * and the property. The accessors are created by the configured
+ * PropertyAccessorFactory the first time a (class, property) pair is seen, so the
+ * cost of introspection is paid once instead of once for every row.
+ * </p>
+ *
+ * <p>
+ * The accessors hold strong references to the classes they were made for, so
+ * the cache keeps those classes, and their class loaders, from being unloaded.
+ * A web application that is redeployed while jmesa stays loaded, for instance
+ * from a shared library directory, should call clear() when it stops.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PropertyAccessorCache {
+
+    private static volatile PropertyAccessorFactory propertyAccessorFactory = new MethodHandlePropertyAccessorFactory();
+
+    private static volatile ClassValue<ConcurrentMap<String, PropertyAccessor>> accessors = newAccessors();
+
+    private PropertyAccessorCache() {
+
+        // hide constructor
+    }
+
+    /**
+     * @param type The class of the items that will be read.
+     * @param property The Bean attribute or Map key, can be nested.
+     * @return The cached PropertyAccessor for the class and property.
+     */
+    public static PropertyAccessor getPropertyAccessor(Class<?> type, String property) {
+
+        ConcurrentMap<String, PropertyAccessor> classAccessors = accessors.get(type);
+
+        PropertyAccessor accessor = classAccessors.get(property);
+        if (accessor == null) {
+            accessor = propertyAccessorFactory.createPropertyAccessor(type, property);
+            PropertyAccessor existing = classAccessors.putIfAbsent(property, accessor);
+            if (existing != null) {
+                accessor = existing;
+            }
+        }
+
+        return accessor;
+    }
+
+    /**
+     * Get the value from the item using the cached PropertyAccessor for the
+     * class of the item.
+     *
+     * @param item The Bean or Map.
+     * @param property The Bean attribute or Map key, can be nested.
+     * @return The value, or null if the item is null.
+     */
+    public static Object getValue(Object item, String property) {
+
+        if (item == null) {
+            return null;
+        }
+
+        return getPropertyAccessor(item.getClass(), property).getValue(item);
+    }
+
+    public static PropertyAccessorFactory getPropertyAccessorFactory() {
+
+        return propertyAccessorFactory;
+    }
+
+    /**
+     * Plug in a different way to read the item properties. Any accessors that
+     * were already created are discarded.
+     *
+     * @param factory The PropertyAccessorFactory to use.
+     */
+    public static void setPropertyAccessorFactory(PropertyAccessorFactory factory) {
+
+        AssertUtils.notNull("The PropertyAccessorFactory cannot be null.", factory);
+
+        propertyAccessorFactory = factory;
+        clear();
+    }
+
+    /**
+     * Discard all the cached accessors.
+     */
+    public static void clear() {
+
+        accessors = newAccessors();
+    }
+
+    private static ClassValue<ConcurrentMap<String, PropertyAccessor>> newAccessors() {
+
+        return new ClassValue<ConcurrentMap<String, PropertyAccessor>>() {
+            @Override
+            protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type) {
+
+                return new ConcurrentHashMap<String, PropertyAccessor>();
+            }
+        };
+    }
+}
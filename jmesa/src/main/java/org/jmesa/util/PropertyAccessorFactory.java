@@ -0,0 +1,34 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+/**
+ * Creates the PropertyAccessor for a class and property. The created accessors
+ * are cached by the {@link PropertyAccessorCache} so a factory is only called
+ * once for each (class, property) pair.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface PropertyAccessorFactory {
+
+    /**
+     * @param type The class of the items that will be read.
+     * @param property The Bean attribute or Map key, can be nested. For example 'name.firstName'.
+     * @return The PropertyAccessor for the property. Should never return null.
+     */
+    PropertyAccessor createPropertyAccessor(Class<?> type, String property);
+}
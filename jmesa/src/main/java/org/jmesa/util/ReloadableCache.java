@@ -0,0 +1,158 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A thread safe cache for objects that are loaded from configuration files,
+ * such as the Preferences and Messages. Once an object is loaded it is handed
+ * out from memory without touching the file system again.
+ * </p>
+ *
+ * <p>
+ * If a reload interval is given then, at most once per interval, the last
+ * modified time of the files that back each object is checked and the object
+ * is loaded again when one of them changed. This is meant for development, in
+ * production the interval should be left at zero.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ReloadableCache<T> {
+
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<String, Entry<T>>();
+    private final long reloadInterval;
+
+    /**
+     * @param reloadInterval The milliseconds between checks for modified files. Zero to never reload.
+     */
+    public ReloadableCache(long reloadInterval) {
+
+        this.reloadInterval = reloadInterval;
+    }
+
+    /**
+     * @param key The cache key.
+     * @param loader Loads the object the first time, and after the files are modified.
+     * @param resourceFiles The files that back the object. Only used if reloading is on.
+     * @return The cached object.
+     */
+    public T get(String key, Supplier<T> loader, Supplier<Collection<File>> resourceFiles) {
+
+        Entry<T> entry = entries.get(key);
+
+        if (entry == null || entry.isModified()) {
+            Collection<File> files = Collections.emptyList();
+            if (reloadInterval > 0) {
+                files = resourceFiles.get();
+            }
+            entry = new Entry<T>(loader.get(), files, reloadInterval);
+            entries.put(key, entry);
+        }
+
+        return entry.value;
+    }
+
+    public long getReloadInterval() {
+
+        return reloadInterval;
+    }
+
+    public void clear() {
+
+        entries.clear();
+    }
+
+    /**
+     * @param url The resource URL.
+     * @return The File for the URL, or null if the URL does not point to the file system.
+     */
+    public static File toFile(URL url) {
+
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return new File(url.getPath());
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final T value;
+        private final File[] files;
+        private final long[] lastModified;
+        private final long reloadInterval;
+        private volatile long nextCheck;
+
+        Entry(T value, Collection<File> resourceFiles, long reloadInterval) {
+
+            this.value = value;
+            this.reloadInterval = reloadInterval;
+
+            List<File> existing = new ArrayList<File>();
+            for (File file : resourceFiles) {
+                if (file != null) {
+                    existing.add(file);
+                }
+            }
+
+            this.files = existing.toArray(new File[0]);
+            this.lastModified = new long[files.length];
+            for (int i = 0; i < files.length; i++) {
+                lastModified[i] = files[i].lastModified();
+            }
+
+            this.nextCheck = System.currentTimeMillis() + reloadInterval;
+        }
+
+        boolean isModified() {
+
+            if (reloadInterval <= 0 || files.length == 0) {
+                return false;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now < nextCheck) {
+                return false;
+            }
+            nextCheck = now + reloadInterval;
+
+            for (int i = 0; i < files.length; i++) {
+                if (files[i].lastModified() != lastModified[i]) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import org.jmesa.core.filter.FilterMatcherRegistry;
 import org.jmesa.core.filter.FilterMatcherRegistrySupport;
 import org.jmesa.core.message.Messages;
 import org.jmesa.core.message.MessagesSupport;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesSupport;
 import org.jmesa.limit.state.StateAttrSupport;
 import org.jmesa.view.ExportTypesSupport;
 import org.jmesa.view.component.*;
@@ -112,6 +114,19 @@ public class SupportUtils {
         }
     }
 
+    /**
+     * Set the Preferences on the object being inspected if it is not already set.
+     *
+     * @param obj The object being inspected.
+     * @param preferences The object to be injected.
+     */
+    public static void setPreferences(Object obj, Preferences preferences) {
+
+        if ((obj instanceof PreferencesSupport) && ((PreferencesSupport) obj).getPreferences() == null) {
+            ((PreferencesSupport) obj).setPreferences(preferences);
+        }
+    }
+
     /**
      * Set the String pattern on the object being inspected if it is not already set.
      *
@@ -46,13 +46,7 @@ public abstract class AbstractViewExporter implements ViewExporter, CoreContextS
         response.setContentType(getContextType());
         String encoding = getEncoding();
 
-        if (encoding == null) {
-            encoding = Charset.defaultCharset().name();
-        }
-        String fn = new String(fileName.getBytes(encoding), encoding);
-        if(!fn.endsWith(getExtensionName())){
-        	fn += getExtensionName();
-        }
+        String fn = getExportFileName();
 
         // added by xwx
         fn = DownloadFileNameEncoder.codedFileName(getUserAgent(), fn, encoding);
@@ -65,6 +59,29 @@ public abstract class AbstractViewExporter implements ViewExporter, CoreContextS
 
 
 
+    /**
+     * @return The name of the exported file, with the extension.
+     * @since 4.5
+     */
+    public String getExportFileName() throws Exception {
+
+        String encoding = getEncoding();
+        String fn = new String(fileName.getBytes(encoding), encoding);
+        if(!fn.endsWith(getExtensionName())){
+        	fn += getExtensionName();
+        }
+        return fn;
+    }
+
+    /**
+     * @return The content type of the exported file.
+     * @since 4.5
+     */
+    public String getExportContentType() {
+
+        return getContextType();
+    }
+
     @Override
     public View getView() {
 
@@ -25,4 +25,49 @@ public class ExportConstants {
     public static final String PDF_FONT_NAME = "export.pdf.fontName";
     public static final String PDF_FONT_ENCODING = "export.pdf.fontEncoding";
     public static final String ENCODING = "encoding";
+
+    /**
+     * The number of rows a streaming export writes before it flushes the
+     * output. Defaults to {@link #DEFAULT_FLUSH_ROWS}.
+     */
+    public static final String FLUSH_ROWS = "export.flushRows";
+    public static final int DEFAULT_FLUSH_ROWS = 500;
+
+    /**
+     * The number of rows the streaming excel export keeps in memory, the rest
+     * are flushed to a temporary file.
+     */
+    public static final String EXCEL_ROW_ACCESS_WINDOW = "export.excel.rowAccessWindow";
+    public static final String EXCEL_COMPRESS_TEMP_FILES = "export.excel.compressTempFiles";
+    public static final String EXCEL_DATE_FORMAT = "export.excel.dateFormat";
+    public static final String EXCEL_DATETIME_FORMAT = "export.excel.dateTimeFormat";
+
+    /**
+     * The number of rows, header included, that the xls exports put on one
+     * sheet before they start a new one. Defaults to the xls limit of 65536.
+     */
+    public static final String EXCEL_MAX_ROWS_PER_SHEET = "export.excel.maxRowsPerSheet";
+    public static final int DEFAULT_EXCEL_MAX_ROWS_PER_SHEET = 65536;
+    public static final String JEXCEL_USE_TEMPORARY_FILE = "export.jexcel.useTemporaryFile";
+
+    /**
+     * The background exports. The number of exports that run at the same
+     * time, the number that may wait for a free slot, how many seconds a
+     * finished export is kept for download, and the directory for the files
+     * (the java.io.tmpdir if not set).
+     */
+    public static final String ASYNC_MAX_CONCURRENT = "export.async.maxConcurrent";
+    public static final String ASYNC_MAX_QUEUED = "export.async.maxQueued";
+    public static final String ASYNC_TIME_TO_LIVE = "export.async.timeToLive";
+    public static final String ASYNC_TEMP_DIR = "export.async.tempDir";
+
+    /**
+     * The export cache. It is only used when it is enabled and the table has a
+     * data version. The size is the most megabytes of files it keeps, and the
+     * directory is a jmesa-export-cache directory in the java.io.tmpdir if not
+     * set.
+     */
+    public static final String CACHE_ENABLED = "export.cache.enabled";
+    public static final String CACHE_MAX_SIZE = "export.cache.maxSize";
+    public static final String CACHE_DIR = "export.cache.dir";
 }
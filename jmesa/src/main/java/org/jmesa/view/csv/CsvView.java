@@ -15,13 +15,22 @@
  */
 package org.jmesa.view.csv;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.jmesa.view.AbstractExportView;
+import org.jmesa.view.ExportConstants;
 import org.jmesa.view.component.Column;
 import org.jmesa.view.renderer.CellRenderer;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 
+import static org.jmesa.view.ExportConstants.DEFAULT_FLUSH_ROWS;
+import static org.jmesa.view.ExportConstants.FLUSH_ROWS;
+
 /**
  * @since 2.0
  * @author Jeff Johnston
@@ -45,7 +54,28 @@ public class CsvView extends AbstractExportView {
     @Override
     public Object render() {
 
-        StringBuilder results = new StringBuilder();
+        StringWriter results = new StringWriter();
+
+        try {
+            render(results);
+        } catch (IOException e) {
+            // a StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+
+        return results.toString();
+    }
+
+    /**
+     * Write the csv straight to the Writer one row at a time, instead of
+     * building the whole file in memory. The Writer is flushed every
+     * {@link ExportConstants#FLUSH_ROWS} rows.
+     *
+     * @param writer The Writer to render to, typically wrapping the response OutputStream.
+     * @since 4.5
+     */
+    public void render(Writer writer)
+            throws IOException {
 
         List<Column> columns = getTable().getRow().getColumns();
 
@@ -53,13 +83,15 @@ public class CsvView extends AbstractExportView {
         while (headerIterator.hasNext()) {
             Column column = headerIterator.next();
             String title = column.getTitle();
-            results.append("\"").append(escapeValue(title)).append("\"");
+            writer.append("\"").append(escapeValue(title)).append("\"");
 
             if (headerIterator.hasNext()) {
-                results.append(getDelimiter());
+                writer.append(getDelimiter());
             }
         }
-        results.append("\r\n");
+        writer.append("\r\n");
+
+        int flushRows = getFlushRows();
 
         int rowcount = 0;
         for (Object item : getCoreContext().getPageItems()) {
@@ -70,16 +102,27 @@ public class CsvView extends AbstractExportView {
                 Column column = bodyIterator.next();
                 CellRenderer cellRenderer = column.getCellRenderer();
                 Object value = cellRenderer.render(item, rowcount);
-                results.append("\"").append(escapeValue(value)).append("\"");
+                writer.append("\"").append(escapeValue(value)).append("\"");
 
                 if (bodyIterator.hasNext()) {
-                    results.append(getDelimiter());
+                    writer.append(getDelimiter());
                 }
             }
-            results.append("\r\n");
+            writer.append("\r\n");
+
+            if (rowcount % flushRows == 0) {
+                writer.flush();
+            }
         }
 
-        return results.toString();
+        writer.flush();
+    }
+
+    protected int getFlushRows() {
+
+        String flushRows = getCoreContext().getPreference(FLUSH_ROWS);
+        int result = NumberUtils.toInt(flushRows, DEFAULT_FLUSH_ROWS);
+        return result > 0 ? result : DEFAULT_FLUSH_ROWS;
     }
 
     String escapeValue(Object value) {
@@ -89,6 +132,6 @@ public class CsvView extends AbstractExportView {
         }
 
         String stringval = String.valueOf(value);
-        return stringval.replaceAll("\"", "\"\"");
+        return StringUtils.replace(stringval, "\"", "\"\"");
     }
 }
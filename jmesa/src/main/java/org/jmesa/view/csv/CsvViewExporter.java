@@ -16,8 +16,12 @@
 package org.jmesa.view.csv;
 
 import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.View;
 
+import java.io.BufferedWriter;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 /**
  * @since 2.0
@@ -25,6 +29,8 @@ import java.io.OutputStream;
  */
 public class CsvViewExporter extends AbstractViewExporter {
 
+    private static final int BUFFER_SIZE = 8192;
+
     @Override
     public void export()
             throws Exception {
@@ -32,12 +38,21 @@ public class CsvViewExporter extends AbstractViewExporter {
         export(getHttpServletResponse().getOutputStream());
     }
 
+    /**
+     * Stream the rows through a buffered Writer in the export encoding so the
+     * whole file never has to be held in memory. A View that is not a CsvView
+     * is rendered to a String first.
+     */
     @Override
     public void export(OutputStream out) throws Exception {
-        String viewData = (String) getView().render();
-        byte[] contents = (viewData).getBytes();
-        out.write(contents);
-        out.flush();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, getEncoding()), BUFFER_SIZE);
+        View view = getView();
+        if (view instanceof CsvView) {
+            ((CsvView) view).render(writer);
+        } else {
+            writer.write(String.valueOf(view.render()));
+        }
+        writer.flush();
     }
     @Override
     public Object exportDirect() {
@@ -16,7 +16,7 @@
 package org.jmesa.view.editor;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateFormatUtils;
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.util.ItemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,7 +62,7 @@ public class DateCellEditor extends AbstractPatternCellEditor {
             }
 
             Locale locale = getWebContext().getLocale();
-            itemValue = DateFormatUtils.format((Date) itemValue, getPattern(), locale);
+            itemValue = FormatterRegistry.getDateFormat(getPattern(), locale).format((Date) itemValue);
         } catch (Exception e) {
             logger.warn("Could not process date editor with property " + property, e);
         }
@@ -16,6 +16,7 @@
 package org.jmesa.view.editor;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.util.ItemUtils;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -63,7 +64,7 @@ public class DateTimeCellEditor extends DateCellEditor {
 
             Locale locale = getWebContext().getLocale();
             DateTime dateTime = (DateTime) itemValue;
-            itemValue = dateTime.toString(getPattern(), locale);
+            itemValue = FormatterRegistry.getDateTimeFormatter(getPattern(), locale).print(dateTime);
         } catch (Exception e) {
             logger.warn("Could not process date time editor with property " + property, e);
         }
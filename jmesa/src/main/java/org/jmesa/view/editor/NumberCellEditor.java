@@ -15,12 +15,11 @@
  */
 package org.jmesa.view.editor;
 
+import org.jmesa.util.FormatterRegistry;
 import org.jmesa.util.ItemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.util.Locale;
 
 /**
@@ -59,10 +58,7 @@ public class NumberCellEditor extends AbstractPatternCellEditor {
             }
 
             Locale locale = getWebContext().getLocale();
-            NumberFormat nf = NumberFormat.getInstance(locale);
-            DecimalFormat df = (DecimalFormat) nf;
-            df.applyPattern(getPattern());
-            itemValue = df.format(itemValue);
+            itemValue = FormatterRegistry.formatNumber(itemValue, getPattern(), locale);
         } catch (Exception e) {
             logger.warn("Could not process number editor with property " + property);
         }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.editor.expression;
+
+import com.sun.el.parser.ELParser;
+import com.sun.el.parser.Node;
+import com.sun.el.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * The parsed EL templates by template text, shared by the whole application.
+ * The parsed Nodes are not changed when they are evaluated, which is also why
+ * the EL implementation keeps a cache of them, so one Node can be used by any
+ * number of cell editors and threads.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class ElExpressionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElExpressionCache.class);
+
+    /**
+     * Past this many templates the templates are parsed every time they are asked for.
+     */
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Map<String, Node> NODES = new ConcurrentHashMap<>();
+
+    private ElExpressionCache() {}
+
+    /**
+     * @param template The template text, a mix of text and EL expressions.
+     * @return The parsed template, or null if it could not be parsed.
+     */
+    public static Node getNode(String template) {
+
+        Node node = NODES.get(template);
+        if (node != null) {
+            return node;
+        }
+
+        try {
+            node = new ELParser(new StringReader(template)).CompositeExpression();
+        } catch (ParseException e) {
+            logger.warn("Could not parse the el expression " + template, e);
+            return null;
+        }
+
+        if (NODES.size() < MAX_ENTRIES) {
+            Node existing = NODES.putIfAbsent(template, node);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Forget all the parsed templates.
+     */
+    public static void clear() {
+
+        NODES.clear();
+    }
+}
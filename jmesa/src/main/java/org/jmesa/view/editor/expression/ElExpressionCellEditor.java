@@ -16,37 +16,47 @@
 package org.jmesa.view.editor.expression;
 
 import com.sun.el.lang.EvaluationContext;
-import com.sun.el.parser.ELParser;
 import com.sun.el.parser.Node;
-import com.sun.el.parser.ParseException;
 import org.jmesa.util.ItemUtils;
 import org.jmesa.view.editor.AbstractCellEditor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.el.*;
-import java.io.StringReader;
-import java.util.Map;
 
 import static org.jmesa.util.AssertUtils.notNull;
 
 /**
+ * <p>
  * Uses commons-el to evaluate EL expressions.
  * Update: since EL
+ * </p>
+ *
+ * <p>
+ * The template is parsed once for the whole application by the ElExpressionCache
+ * and the item is bound to the var through one ValueExpression that is reused
+ * for every row.
+ * </p>
  *
  * @author bgould
  * @version 2.4
  */
 public class ElExpressionCellEditor extends AbstractCellEditor {
 
+    /**
+     * Looking up the ExpressionFactory is expensive and it is thread safe, so it is shared.
+     */
+    private static final ExpressionFactory EXPRESSION_FACTORY = ExpressionFactory.newInstance();
+
     /**
      * cell data variable name, i.e. 'item'
      */
     protected final String var;
-    protected ExpressionFactory expressionFactory = ExpressionFactory.newInstance();
+    protected ExpressionFactory expressionFactory = EXPRESSION_FACTORY;
     protected StandardELContext context = new StandardELContext(expressionFactory);
     private final Logger logger = LoggerFactory.getLogger(ElExpressionCellEditor.class);
     protected Object template;
+    private final ItemValueExpression itemValueExpression = new ItemValueExpression();
 
     public ElExpressionCellEditor(Expression expression) {
 
@@ -61,13 +71,11 @@ public class ElExpressionCellEditor extends AbstractCellEditor {
 
         notNull("The template is required.", template);
         this.template = template;
-        try {
-            this.template = new ELParser(new StringReader(String.valueOf(template))).CompositeExpression();
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-
 
+        Node node = ElExpressionCache.getNode(String.valueOf(template));
+        if (node != null) {
+            this.template = node;
+        }
     }
 
     @Override
@@ -104,9 +112,71 @@ public class ElExpressionCellEditor extends AbstractCellEditor {
 
     protected VariableMapper getVariableMapper(Object item) {
         VariableMapper variableMapper = context.getVariableMapper();
-        variableMapper.setVariable(var, expressionFactory.createValueExpression(item, Map.class));
+        itemValueExpression.item = item;
+        variableMapper.setVariable(var, itemValueExpression);
         return variableMapper;
     }
 
+    /**
+     * The item of the row that is being evaluated.
+     */
+    private static class ItemValueExpression extends ValueExpression {
+
+        private Object item;
+
+        @Override
+        public Object getValue(ELContext context) {
+
+            return item;
+        }
+
+        @Override
+        public void setValue(ELContext context, Object value) {
+
+            throw new PropertyNotWritableException("The item can not be set.");
+        }
+
+        @Override
+        public boolean isReadOnly(ELContext context) {
+
+            return true;
+        }
+
+        @Override
+        public Class<?> getType(ELContext context) {
+
+            return item == null ? null : item.getClass();
+        }
+
+        @Override
+        public Class<?> getExpectedType() {
+
+            return Object.class;
+        }
+
+        @Override
+        public String getExpressionString() {
+
+            return null;
+        }
+
+        @Override
+        public boolean isLiteralText() {
+
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj == this;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return System.identityHashCode(this);
+        }
+    }
 
 }
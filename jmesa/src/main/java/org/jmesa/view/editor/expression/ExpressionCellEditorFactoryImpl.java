@@ -18,6 +18,12 @@ package org.jmesa.view.editor.expression;
 import org.jmesa.view.editor.CellEditor;
 
 /**
+ * <p>
+ * EL expressions are parsed once by the ElExpressionCache. Other languages are
+ * compiled once by the ScriptExpressionCache if there is a JSR-223 engine that
+ * can compile them, otherwise they are evaluated by BSF.
+ * </p>
+ *
  * @version 2.4
  * @author bgould
  */
@@ -32,6 +38,14 @@ public class ExpressionCellEditorFactoryImpl implements ExpressionCellEditorFact
             return new ElExpressionCellEditor(expression);
         }
 
+        Object template = expression.getTemplate();
+        if (template instanceof String) {
+            ScriptExpression scriptExpression = ScriptExpressionCache.getScriptExpression(language, expression.getVar(), (String) template);
+            if (scriptExpression != null) {
+                return new ScriptExpressionCellEditor(scriptExpression);
+            }
+        }
+
         return new BsfExpressionCellEditor(expression);
     }
 }
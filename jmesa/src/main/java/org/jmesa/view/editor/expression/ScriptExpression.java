@@ -0,0 +1,80 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.editor.expression;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * <p>
+ * A script that is compiled once through the JSR-223 Compilable interface and
+ * then evaluated for every item. Each thread keeps its own Bindings, so they
+ * are reused from one item to the next instead of being created every time.
+ * </p>
+ *
+ * <p>
+ * If the engine does not say it is thread safe then the items are evaluated
+ * one at a time.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ScriptExpression {
+
+    private final String var;
+    private final CompiledScript compiledScript;
+    private final boolean threadSafe;
+    private final ThreadLocal<Bindings> bindings;
+
+    public ScriptExpression(String var, CompiledScript compiledScript) {
+
+        this.var = var;
+        this.compiledScript = compiledScript;
+
+        ScriptEngine engine = compiledScript.getEngine();
+        this.threadSafe = engine.getFactory().getParameter("THREADING") != null;
+        this.bindings = ThreadLocal.withInitial(engine::createBindings);
+    }
+
+    public String getVar() {
+
+        return var;
+    }
+
+    /**
+     * @param item The item to evaluate the script against, which is bound to the var.
+     * @return The result of the script.
+     */
+    public Object eval(Object item) throws ScriptException {
+
+        Bindings itemBindings = bindings.get();
+        itemBindings.put(var, item);
+        try {
+            if (threadSafe) {
+                return compiledScript.eval(itemBindings);
+            }
+
+            synchronized (compiledScript.getEngine()) {
+                return compiledScript.eval(itemBindings);
+            }
+        } finally {
+            itemBindings.remove(var);
+        }
+    }
+}
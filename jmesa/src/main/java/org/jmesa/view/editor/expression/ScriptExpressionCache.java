@@ -0,0 +1,170 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.editor.expression;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.Compilable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * The compiled scripts by language, var and template, shared by the whole
+ * application. A script is compiled the first time it is asked for and every
+ * cell editor for the same expression gets the same ScriptExpression.
+ * </p>
+ *
+ * <p>
+ * Only JSR-223 engines that implement Compilable are used. If there is no such
+ * engine for a language then null is returned and the caller should fall back
+ * to the BsfExpressionCellEditor.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class ScriptExpressionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptExpressionCache.class);
+
+    /**
+     * Past this many expressions the scripts are compiled every time they are asked for.
+     */
+    private static final int MAX_ENTRIES = 512;
+
+    private static final ScriptEngineManager SCRIPT_ENGINE_MANAGER = new ScriptEngineManager(ScriptExpressionCache.class.getClassLoader());
+
+    private static final Map<Language, ScriptEngine> ENGINES = new ConcurrentHashMap<>();
+    private static final Map<Key, ScriptExpression> EXPRESSIONS = new ConcurrentHashMap<>();
+
+    private ScriptExpressionCache() {}
+
+    /**
+     * @return The manager the script engines are looked up in.
+     */
+    public static ScriptEngineManager getScriptEngineManager() {
+
+        return SCRIPT_ENGINE_MANAGER;
+    }
+
+    /**
+     * @param language The script language.
+     * @param var The name the item is bound to.
+     * @param template The script.
+     * @return The compiled script, or null if there is no engine that can compile the language.
+     * @throws IllegalArgumentException if the script does not compile.
+     */
+    public static ScriptExpression getScriptExpression(Language language, String var, String template) {
+
+        Key key = new Key(language, var, template);
+
+        ScriptExpression expression = EXPRESSIONS.get(key);
+        if (expression != null) {
+            return expression;
+        }
+
+        ScriptEngine engine = getScriptEngine(language);
+        if (engine == null) {
+            return null;
+        }
+
+        expression = compile(engine, var, template);
+        if (EXPRESSIONS.size() < MAX_ENTRIES) {
+            ScriptExpression existing = EXPRESSIONS.putIfAbsent(key, expression);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        return expression;
+    }
+
+    /**
+     * Forget all the compiled scripts and engines.
+     */
+    public static void clear() {
+
+        ENGINES.clear();
+        EXPRESSIONS.clear();
+    }
+
+    private static ScriptEngine getScriptEngine(Language language) {
+
+        ScriptEngine engine = ENGINES.get(language);
+        if (engine != null) {
+            return engine;
+        }
+
+        engine = SCRIPT_ENGINE_MANAGER.getEngineByName(language.toString().toLowerCase());
+        if (!(engine instanceof Compilable)) {
+            logger.debug("There is no compilable script engine for the language " + language + ".");
+            return null;
+        }
+
+        ScriptEngine existing = ENGINES.putIfAbsent(language, engine);
+        return existing != null ? existing : engine;
+    }
+
+    private static ScriptExpression compile(ScriptEngine engine, String var, String template) {
+
+        try {
+            return new ScriptExpression(var, ((Compilable) engine).compile(template));
+        } catch (ScriptException e) {
+            throw new IllegalArgumentException("The expression " + template + " could not be compiled.", e);
+        }
+    }
+
+    private static final class Key {
+
+        private final Language language;
+        private final String var;
+        private final String template;
+
+        Key(Language language, String var, String template) {
+
+            this.language = language;
+            this.var = var;
+            this.template = template;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return language == that.language && var.equals(that.var) && template.equals(that.template);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(language, var, template);
+        }
+    }
+}
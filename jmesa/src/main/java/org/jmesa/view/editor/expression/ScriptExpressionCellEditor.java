@@ -0,0 +1,55 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.editor.expression;
+
+import org.jmesa.view.editor.AbstractCellEditor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.ScriptException;
+
+import static org.jmesa.util.AssertUtils.notNull;
+
+/**
+ * Uses a script that was compiled once by a JSR-223 engine to evaluate expressions.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ScriptExpressionCellEditor extends AbstractCellEditor {
+
+    private final Logger logger = LoggerFactory.getLogger(ScriptExpressionCellEditor.class);
+
+    private final ScriptExpression scriptExpression;
+
+    public ScriptExpressionCellEditor(ScriptExpression scriptExpression) {
+
+        notNull("The script expression is required.", scriptExpression);
+        this.scriptExpression = scriptExpression;
+    }
+
+    @Override
+    public Object getValue(Object item, String property, int rowcount) {
+
+        try {
+            return scriptExpression.eval(item);
+        } catch (ScriptException e) {
+            logger.warn("Could not process script expression editor with property " + property, e);
+        }
+
+        return null;
+    }
+}
@@ -17,20 +17,47 @@ package org.jmesa.view.excel;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.hssf.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.jmesa.util.ExportUtils;
 import org.jmesa.view.AbstractExportView;
 import org.jmesa.view.component.Column;
-import org.jmesa.view.component.Row;
 import org.jmesa.view.component.Table;
 
 import java.util.Collection;
 import java.util.List;
 
+
 /**
+ * An xls export. When the rows do not fit on one sheet (65536 rows for xls)
+ * the export rolls over to a new sheet, with the header repeated, so large
+ * tables do not fail.
+ *
  * @since 2.1
  * @author jeff jie
  */
 public class ExcelView extends AbstractExportView {
 
+    private int maxRowsPerSheet;
+
+    /**
+     * @return The number of rows, header included, on one sheet.
+     */
+    public int getMaxRowsPerSheet() {
+
+        if (maxRowsPerSheet <= 0) {
+            maxRowsPerSheet = ExportUtils.getMaxRowsPerSheet(getCoreContext());
+        }
+        return maxRowsPerSheet;
+    }
+
+    /**
+     * @param maxRowsPerSheet The number of rows, header included, on one sheet.
+     */
+    public void setMaxRowsPerSheet(int maxRowsPerSheet) {
+
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
     @Override
     public Object render() {
 
@@ -40,41 +67,74 @@ public class ExcelView extends AbstractExportView {
         if (StringUtils.isEmpty(caption)) {
             caption = "JMesa Export";
         }
-        HSSFSheet sheet = workbook.createSheet(caption);
 
-        Row row = table.getRow();
-        row.getRowRenderer();
         List<Column> columns = table.getRow().getColumns();
 
-        // renderer header
-        HSSFRow hssfRow = sheet.createRow(0);
-        int columncount = 0;
-        for (Column col : columns) {
-            HSSFCell cell = hssfRow.createCell(columncount++);
-            cell.setCellValue(new HSSFRichTextString(col.getTitle()));
-        }
+        int maxRows = getMaxRowsPerSheet();
+        int sheetcount = 1;
+        HSSFSheet sheet = createSheet(workbook, caption, sheetcount, columns);
 
         // renderer body
         Collection<?> items = getCoreContext().getPageItems();
         int rowcount = 1;
+        int sheetRowcount = 1;
         for (Object item : items) {
-            HSSFRow r = sheet.createRow(rowcount++);
-            columncount = 0;
+            if (sheetRowcount == maxRows) {
+                sheet = createSheet(workbook, caption, ++sheetcount, columns);
+                sheetRowcount = 1;
+            }
+
+            HSSFRow r = sheet.createRow(sheetRowcount++);
+            rowcount++;
+            int columncount = 0;
             for (Column col : columns) {
                 HSSFCell cell = r.createCell(columncount++);
                 Object value = col.getCellRenderer().render(item, rowcount);
-                if (value == null) {
-                    value = "";
-                }
-
-                if (value instanceof Number) {
-                    Double number = Double.valueOf(value.toString());
-                    cell.setCellValue(number);
-                } else {
-                    cell.setCellValue(new HSSFRichTextString(value.toString()));
-                }
+                setCellValue(cell, value);
             }
         }
         return workbook;
     }
+
+    /**
+     * Numbers are written as numeric cells, everything else as a plain string.
+     */
+    protected void setCellValue(HSSFCell cell, Object value) {
+
+        if (value == null) {
+            cell.setCellValue("");
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    /**
+     * @return The sheet name. The sheets after the first one are numbered.
+     */
+    protected String getSheetName(String caption, int sheetcount) {
+
+        if (sheetcount == 1) {
+            return WorkbookUtil.createSafeSheetName(caption);
+        }
+
+        String suffix = " (" + sheetcount + ")";
+        return WorkbookUtil.createSafeSheetName(StringUtils.left(caption, 31 - suffix.length()) + suffix);
+    }
+
+    private HSSFSheet createSheet(HSSFWorkbook workbook, String caption, int sheetcount, List<Column> columns) {
+
+        HSSFSheet sheet = workbook.createSheet(getSheetName(caption, sheetcount));
+
+        // renderer header
+        HSSFRow hssfRow = sheet.createRow(0);
+        int columncount = 0;
+        for (Column col : columns) {
+            HSSFCell cell = hssfRow.createCell(columncount++);
+            cell.setCellValue(col.getTitle());
+        }
+
+        return sheet;
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.excel;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jmesa.view.AbstractExportView;
+import org.jmesa.view.component.Column;
+import org.jmesa.view.component.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.jmesa.view.ExportConstants.EXCEL_COMPRESS_TEMP_FILES;
+import static org.jmesa.view.ExportConstants.EXCEL_DATETIME_FORMAT;
+import static org.jmesa.view.ExportConstants.EXCEL_DATE_FORMAT;
+import static org.jmesa.view.ExportConstants.EXCEL_ROW_ACCESS_WINDOW;
+
+/**
+ * <p>
+ * An Excel 2007 (xlsx) export that is built with the POI SXSSFWorkbook. Only
+ * the last rows (the row access window) are kept in memory, the rest are
+ * flushed to a temporary file, so the heap used does not grow with the number
+ * of rows.
+ * </p>
+ *
+ * <p>
+ * Numbers, dates and booleans are written as native cell values, and the cell
+ * styles are created once per workbook. The returned SXSSFWorkbook must be
+ * disposed of once it is written out, which the
+ * StreamingExcel2007ViewExporter takes care of.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class StreamingExcel2007View extends AbstractExportView {
+
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-mm-dd";
+    private static final String DEFAULT_DATETIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private CellStyle dateStyle;
+    private CellStyle dateTimeStyle;
+
+    @Override
+    public Object render() {
+
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
+            render(workbook);
+        } catch (RuntimeException | Error e) {
+            workbook.dispose();
+            throw e;
+        }
+
+        return workbook;
+    }
+
+    /**
+     * @return An empty workbook, set up with the row access window. It has to
+     *         be disposed of, even when rendering into it fails.
+     */
+    public SXSSFWorkbook createWorkbook() {
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(getRowAccessWindow());
+        workbook.setCompressTempFiles(isCompressTempFiles());
+        return workbook;
+    }
+
+    /**
+     * Render the table into the workbook.
+     */
+    public void render(SXSSFWorkbook workbook) {
+
+        Table table = this.getTable();
+        String caption = table.getCaption();
+        if (StringUtils.isBlank(caption)) {
+            caption = "JMesa Export";
+        }
+        SXSSFSheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(caption));
+
+        createStyles(workbook);
+
+        List<Column> columns = table.getRow().getColumns();
+
+        // renderer header
+        CellStyle headerStyle = createHeaderStyle(workbook);
+        SXSSFRow headerRow = sheet.createRow(0);
+        int columncount = 0;
+        for (Column col : columns) {
+            Cell cell = headerRow.createCell(columncount++);
+            cell.setCellValue(col.getTitle());
+            cell.setCellStyle(headerStyle);
+        }
+
+        // renderer body
+        int rowcount = 0;
+        for (Object item : getCoreContext().getPageItems()) {
+            rowcount++;
+            SXSSFRow r = sheet.createRow(rowcount);
+            columncount = 0;
+            for (Column col : columns) {
+                Cell cell = r.createCell(columncount++);
+                Object value = col.getCellRenderer().render(item, rowcount);
+                setCellValue(cell, value);
+            }
+        }
+    }
+
+    protected void setCellValue(Cell cell, Object value) {
+
+        if (value == null) {
+            cell.setBlank();
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof java.sql.Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof Calendar) {
+            cell.setCellValue((Calendar) value);
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue((LocalDate) value);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) value);
+            cell.setCellStyle(dateTimeStyle);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    /**
+     * Create the shared date styles. A cell style is a workbook level object
+     * so there should only be one per format, not one per cell.
+     */
+    protected void createStyles(SXSSFWorkbook workbook) {
+
+        CreationHelper creationHelper = workbook.getCreationHelper();
+
+        this.dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat(getPreference(EXCEL_DATE_FORMAT, DEFAULT_DATE_FORMAT)));
+
+        this.dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(creationHelper.createDataFormat().getFormat(getPreference(EXCEL_DATETIME_FORMAT, DEFAULT_DATETIME_FORMAT)));
+    }
+
+    protected CellStyle createHeaderStyle(SXSSFWorkbook workbook) {
+
+        Font font = workbook.createFont();
+        font.setBold(true);
+
+        CellStyle headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(font);
+        return headerStyle;
+    }
+
+    protected int getRowAccessWindow() {
+
+        int window = NumberUtils.toInt(getCoreContext().getPreference(EXCEL_ROW_ACCESS_WINDOW), SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+        return window > 0 ? window : SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+    }
+
+    protected boolean isCompressTempFiles() {
+
+        String compress = getCoreContext().getPreference(EXCEL_COMPRESS_TEMP_FILES);
+        return compress == null || Boolean.parseBoolean(compress.trim());
+    }
+
+    private String getPreference(String code, String defaultValue) {
+
+        String value = getCoreContext().getPreference(code);
+        return StringUtils.isNotBlank(value) ? value : defaultValue;
+    }
+}
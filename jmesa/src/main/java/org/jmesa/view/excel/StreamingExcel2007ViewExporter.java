@@ -0,0 +1,72 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.excel;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jmesa.view.AbstractViewExporter;
+
+import java.io.OutputStream;
+
+/**
+ * Writes the StreamingExcel2007View straight to the OutputStream, and then
+ * removes the temporary files that the rows were flushed to.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class StreamingExcel2007ViewExporter extends AbstractViewExporter {
+
+    @Override
+    public void export()
+            throws Exception {
+        responseHeaders();
+        export(getHttpServletResponse().getOutputStream());
+    }
+
+    @Override
+    public void export(OutputStream out) throws Exception {
+        StreamingExcel2007View view = (StreamingExcel2007View) this.getView();
+        SXSSFWorkbook workbook = view.createWorkbook();
+        try {
+            view.render(workbook);
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * @return The SXSSFWorkbook. The caller needs to dispose of it once it is written.
+     */
+    @Override
+    public Object exportDirect() {
+        return this.getView().render();
+    }
+
+    @Override
+    protected String getContextType() {
+
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    protected String getExtensionName() {
+
+        return "xlsx";
+    }
+}
@@ -24,6 +24,8 @@ import org.jmesa.view.html.component.HtmlTable;
 import org.jmesa.view.html.toolbar.Toolbar;
 import org.jmesa.view.html.toolbar.ToolbarSupport;
 
+import java.io.IOException;
+
 /**
  * Abstract view for building html tables.
  * 
@@ -60,6 +62,20 @@ public abstract class AbstractHtmlView extends AbstractContextSupport implements
         this.toolbar = toolbar;
     }
 
+    /**
+     * Write the table straight to the output, for example the writer of the response. By default
+     * this writes what render() returns.
+     *
+     * @since 4.5
+     */
+    public void render(Appendable out) throws IOException {
+
+        Object render = render();
+        if (render != null) {
+            out.append(render.toString());
+        }
+    }
+
     public byte[] getBytes() {
 		
         String render = (String) render();
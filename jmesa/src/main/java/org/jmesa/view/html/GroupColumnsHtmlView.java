@@ -19,6 +19,7 @@ import org.jmesa.view.component.Column;
 import org.jmesa.view.editor.CellEditor;
 import org.jmesa.view.editor.GroupCellEditor;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -36,12 +37,25 @@ public class GroupColumnsHtmlView extends HtmlView {
     @Override
     public Object render() {
 
+        decorateCellEditors();
+
+        return super.render();
+    }
+
+    @Override
+    public void render(Appendable out) throws IOException {
+
+        decorateCellEditors();
+
+        renderTable(out);
+    }
+
+    private void decorateCellEditors() {
+
         List<Column> columns = getTable().getRow().getColumns();
         for (Column column : columns) {
             CellEditor decoratedCellEditor = column.getCellEditor();
             column.setCellEditor(new GroupCellEditor(decoratedCellEditor));
         }
-
-        return super.render();
     }
 }
@@ -62,7 +62,7 @@ public class HtmlBuilder {
      */
     public int length() {
 
-        return builder.toString().length();
+        return builder.length();
     }
 
     /**
@@ -33,6 +33,7 @@ import org.jmesa.worksheet.Worksheet;
 import org.jmesa.worksheet.WorksheetRow;
 import org.jmesa.worksheet.WorksheetRowStatus;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -42,6 +43,7 @@ import java.util.*;
 public class HtmlSnippets extends AbstractContextSupport {
 
     private static final Gson GSON = new Gson();
+    private static final String ROW_END = new HtmlBuilder().trEnd(1).toString();
     private HtmlTable table;
     private Toolbar toolbar;
 
@@ -173,11 +175,31 @@ public class HtmlSnippets extends AbstractContextSupport {
 
     public String body() {
 
-        HtmlBuilder html = new HtmlBuilder();
+        StringBuilder html = new StringBuilder();
+
+        try {
+            body(html);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return html.toString();
+    }
+
+    /**
+     * Write the rows straight to the output, one cell at a time, instead of building up the
+     * whole body first.
+     *
+     * @since 4.5
+     */
+    public void body(Appendable out) throws IOException {
 
         CoreContext coreContext = getCoreContext();
 
-        html.append(worksheetRowsAdded());
+        String worksheetRowsAdded = worksheetRowsAdded();
+        if (worksheetRowsAdded != null) {
+            out.append(worksheetRowsAdded);
+        }
 
         int rowcount = HtmlUtils.startingRowcount(coreContext);
 
@@ -188,16 +210,15 @@ public class HtmlSnippets extends AbstractContextSupport {
             HtmlRow row = table.getRow();
             List<Column> columns = row.getColumns();
 
-            html.append(row.getRowRenderer().render(item, rowcount));
+            row.getRowRenderer().render(item, rowcount, out);
 
             for (Iterator<Column> iter = columns.iterator(); iter.hasNext();) {
                 HtmlColumn column = (HtmlColumn) iter.next();
-                html.append(column.getCellRenderer().render(item, rowcount));
+                column.getCellRenderer().render(item, rowcount, out);
             }
 
-            html.trEnd(1);
+            out.append(ROW_END);
         }
-        return html.toString();
     }
 
     public String worksheetRowsAdded() {
@@ -15,8 +15,19 @@
  */
 package org.jmesa.view.html;
 
+import java.io.IOException;
+
 /**
+ * <p>
  * Default html view.
+ * </p>
+ *
+ * <p>
+ * The table can also be written straight to a Writer with render(Appendable), which writes
+ * every snippet, row and cell as soon as it is rendered instead of building the whole table in
+ * memory first. A subclass that overrides render(), or HtmlSnippets that override body(), are
+ * written the old way so that whatever they do still happens.
+ * </p>
  * 
  * @since 2.0
  * @author Jeff Johnston
@@ -26,40 +37,90 @@ public class HtmlView extends AbstractHtmlView {
     @Override
     public Object render() {
 		
+        StringBuilder html = new StringBuilder();
+
+        try {
+            renderTable(html);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return html.toString();
+    }
+
+    /**
+     * @since 4.5
+     */
+    @Override
+    public void render(Appendable out) throws IOException {
+
+        if (isDeclaredBy(this, "render", HtmlView.class)) {
+            renderTable(out);
+        } else {
+            super.render(out);
+        }
+    }
+
+    /**
+     * Write the snippets of the table to the output.
+     *
+     * @since 4.5
+     */
+    protected void renderTable(Appendable out) throws IOException {
+
         HtmlSnippets snippets = getHtmlSnippets();
 
-        HtmlBuilder html = new HtmlBuilder();
+        append(out, snippets.themeStart());
+
+        append(out, snippets.tableStart());
 
-        html.append(snippets.themeStart());
+        append(out, snippets.theadStart());
 
-        html.append(snippets.tableStart());
+        append(out, snippets.toolbar());
 
-        html.append(snippets.theadStart());
+        append(out, snippets.filter());
 
-        html.append(snippets.toolbar());
+        append(out, snippets.header());
 
-        html.append(snippets.filter());
+        append(out, snippets.theadEnd());
 
-        html.append(snippets.header());
+        append(out, snippets.tbodyStart());
 
-        html.append(snippets.theadEnd());
+        if (isDeclaredBy(snippets, "body", HtmlSnippets.class)) {
+            snippets.body(out);
+        } else {
+            append(out, snippets.body());
+        }
 
-        html.append(snippets.tbodyStart());
+        append(out, snippets.tbodyEnd());
 
-        html.append(snippets.body());
+        append(out, snippets.footer());
 
-        html.append(snippets.tbodyEnd());
+        append(out, snippets.statusBar());
 
-        html.append(snippets.footer());
+        append(out, snippets.tableEnd());
 
-        html.append(snippets.statusBar());
+        append(out, snippets.themeEnd());
 
-        html.append(snippets.tableEnd());
+        append(out, snippets.hiddenFields());
+    }
+
+    private static void append(Appendable out, String snippet) throws IOException {
 
-        html.append(snippets.themeEnd());
+        if (snippet != null) {
+            out.append(snippet);
+        }
+    }
 
-        html.append(snippets.hiddenFields());
+    /**
+     * @return Is true if the no argument method of the object is the one of the class.
+     */
+    private static boolean isDeclaredBy(Object object, String method, Class<?> clazz) {
 
-        return html.toString();
+        try {
+            return object.getClass().getMethod(method).getDeclaringClass() == clazz;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 }
@@ -16,12 +16,18 @@
 package org.jmesa.view.html.editor;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.core.CoreContext;
+import org.jmesa.core.DistinctValues;
+import org.jmesa.core.DistinctValuesIndex;
 import org.jmesa.limit.Filter;
 import org.jmesa.limit.Limit;
 import org.jmesa.util.ItemUtils;
 import org.jmesa.view.editor.AbstractFilterEditor;
 import org.jmesa.view.html.HtmlBuilder;
 import org.jmesa.view.html.component.HtmlColumn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
@@ -29,14 +35,30 @@ import static org.apache.commons.text.StringEscapeUtils.escapeHtml4;
 import static org.apache.commons.text.StringEscapeUtils.escapeEcmaScript;
 
 /**
+ * <p>
  * Create a droplist for the filter.
+ * </p>
+ *
+ * <p>
+ * If no options are added the options are the distinct values of the column.
+ * They come from the DistinctValuesIndex, so when the TableFacade is given a
+ * data version they are only collected once per version of the items. At most
+ * html.droplistFilterEditor.maxOptions values are shown.
+ * </p>
  *
  * @since 2.2
  * @author Jeff Johnston
  */
 public class DroplistFilterEditor extends AbstractFilterEditor {
 
+    private static final Logger logger = LoggerFactory.getLogger(DroplistFilterEditor.class);
+
+    public static final String MAX_OPTIONS = "html.droplistFilterEditor.maxOptions";
+
+    private static final int DEFAULT_MAX_OPTIONS = 1000;
+
     private Set<Option> options;
+    private int maxOptions;
 
     @Override
     public Object getValue() {
@@ -117,36 +139,69 @@ public class DroplistFilterEditor extends AbstractFilterEditor {
 
         List<Option> opts;
 
-        if (this.options == null) {
-            opts = new ArrayList<Option>();
-            opts.add(new Option("", ""));
-
-            Set<String> values = new HashSet<String>();
-            String property = getColumn().getProperty();
-            for (Object item : getCoreContext().getAllItems()) {
-                Object value = ItemUtils.getItemValue(item, property);
-                if (value == null) {
-                    continue;
-                }
-                String valueStr = String.valueOf(value);
-                if (valueStr.length() == 0) {
-                    continue;
-                }
-                values.add(valueStr);
-            }
-            for (String value : values) {
-                Option option = new Option(value, value);
-                opts.add(option);
-            }
-        } else {
+        if (this.options != null) {
             opts = new ArrayList<Option>(this.options);
+            Collections.sort(opts, null);
+            return opts;
         }
 
-        Collections.sort(opts, null);
+        DistinctValues distinctValues = getDistinctValues();
+
+        opts = new ArrayList<Option>(distinctValues.getValues().size() + 1);
+        opts.add(new Option("", ""));
+
+        // the values are already sorted the same way the options are
+        for (String value : distinctValues.getValues()) {
+            opts.add(new Option(value, value));
+        }
 
         return opts;
     }
 
+    /**
+     * @return The distinct values of the column.
+     */
+    protected DistinctValues getDistinctValues() {
+
+        CoreContext coreContext = getCoreContext();
+        String id = coreContext.getLimit().getId();
+        String property = getColumn().getProperty();
+
+        DistinctValues distinctValues;
+        if (getWebContext() != null) {
+            DistinctValuesIndex index = DistinctValuesIndex.getInstance(getWebContext());
+            distinctValues = index.getDistinctValues(id, property, coreContext.getDataVersion(),
+                coreContext.getAllItems(), getMaxOptions());
+        } else {
+            distinctValues = DistinctValues.create(coreContext.getAllItems(), property, getMaxOptions());
+        }
+
+        if (distinctValues.isTruncated() && logger.isDebugEnabled()) {
+            logger.debug("The droplist for the property " + property + " of the table " + id + " only shows the first "
+                + getMaxOptions() + " values.");
+        }
+
+        return distinctValues;
+    }
+
+    public int getMaxOptions() {
+
+        if (maxOptions == 0) {
+            String preference = getCoreContext().getPreference(MAX_OPTIONS);
+            maxOptions = NumberUtils.toInt(preference, DEFAULT_MAX_OPTIONS);
+        }
+
+        return maxOptions;
+    }
+
+    /**
+     * @param maxOptions The most distinct values to show when no options are added.
+     */
+    public void setMaxOptions(int maxOptions) {
+
+        this.maxOptions = maxOptions;
+    }
+
     /**
      * Represents an Html Select Option.
      */
@@ -15,58 +15,238 @@
  */
 package org.jmesa.view.html.renderer;
 
+import org.jmesa.core.CoreContext;
+import org.jmesa.view.component.Column;
 import org.jmesa.view.html.HtmlBuilder;
 import org.jmesa.view.html.component.HtmlColumn;
 import org.jmesa.view.renderer.AbstractCellRenderer;
 
+import java.io.IOException;
+
 import static org.jmesa.view.html.HtmlConstants.CELL_RENDERER_INCLUDE_ID;
 
 /**
+ * <p>
+ * Renders the td of every cell of a column.
+ * </p>
+ *
+ * <p>
+ * Everything in the td that does not change from row to row (the id without the rowcount, the
+ * width, style and class) is worked out once and kept in a template, so a cell only needs to add
+ * the rowcount and the value. The template is made again when the width, style or class of the
+ * column changes.
+ * </p>
+ *
  * @since 2.0
  * @author Jeff Johnston
  */
 public class HtmlCellRenderer extends AbstractCellRenderer {
 
+    private static final String TD_END = new HtmlBuilder().tdEnd().toString();
+    private static final String NBSP = new HtmlBuilder().nbsp().toString();
+
+    private CellTemplate template;
+    private Boolean customized;
+
     @Override
     public HtmlColumn getColumn() {
 
         return (HtmlColumn) super.getColumn();
     }
 
+    @Override
+    public void setColumn(Column column) {
+
+        super.setColumn(column);
+        this.template = null;
+    }
+
+    @Override
+    public void setCoreContext(CoreContext coreContext) {
+
+        super.setCoreContext(coreContext);
+        this.template = null;
+    }
+
     protected String getId(int rowcount) {
 
         if ("false".equals(getCoreContext().getPreference(CELL_RENDERER_INCLUDE_ID))) {
             return null;
         }
 
-        String id = getCoreContext().getLimit().getId() + "_column_" + getColumn().getProperty() + "_" + rowcount;
-        id = id.replaceAll("\\.", "_");
-        return id;
+        return getIdStem() + rowcount;
+    }
+
+    /**
+     * @return The id of the cell without the rowcount.
+     */
+    private String getIdStem() {
+
+        String id = getCoreContext().getLimit().getId() + "_column_" + getColumn().getProperty() + "_";
+        return id.replace('.', '_');
     }
 
     @Override
     public Object render(Object item, int rowcount) {
 
-        HtmlBuilder html = new HtmlBuilder();
+        StringBuilder html = new StringBuilder();
+
+        try {
+            renderCell(item, rowcount, html);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return html.toString();
+    }
+
+    /**
+     * @since 4.5
+     */
+    @Override
+    public void render(Object item, int rowcount, Appendable out) throws IOException {
+
+        if (isCustomized()) {
+            Object value = render(item, rowcount);
+            if (value != null) {
+                out.append(value.toString());
+            }
+            return;
+        }
+
+        renderCell(item, rowcount, out);
+    }
+
+    private void renderCell(Object item, int rowcount, Appendable out) throws IOException {
 
         HtmlColumn column = getColumn();
+        CellTemplate cellTemplate = getTemplate(column);
 
-        html.td(2).id(getId(rowcount));
-        html.width(getColumn().getWidth());
-        html.style(column.getStyle());
-        html.styleClass(column.getStyleClass());
-        html.close();
+        out.append(cellTemplate.start);
+        if (cellTemplate.idEnd != null) {
+            out.append(Integer.toString(rowcount));
+            out.append(cellTemplate.idEnd);
+        } else if (cellTemplate.customId) {
+            // a subclass decides on the id
+            HtmlBuilder html = new HtmlBuilder();
+            html.id(getId(rowcount));
+            html.width(column.getWidth());
+            html.style(column.getStyle());
+            html.styleClass(column.getStyleClass());
+            html.close();
+            out.append(html.toString());
+        }
 
-        String property = getColumn().getProperty();
-        Object value = column.getCellEditor().getValue(item, property, rowcount);
+        Object value = column.getCellEditor().getValue(item, column.getProperty(), rowcount);
         if (value != null) {
-            html.append(value.toString());
+            out.append(value.toString());
         } else {
-            html.nbsp();
+            out.append(NBSP);
         }
 
-        html.tdEnd();
+        out.append(TD_END);
+    }
 
-        return html.toString();
+    private CellTemplate getTemplate(HtmlColumn column) {
+
+        CellTemplate cellTemplate = template;
+        if (cellTemplate == null || !cellTemplate.isFor(column)) {
+            cellTemplate = new CellTemplate(column, isIdCustomized() ? null : getIdStem(),
+                    !"false".equals(getCoreContext().getPreference(CELL_RENDERER_INCLUDE_ID)), isIdCustomized());
+            this.template = cellTemplate;
+        }
+
+        return cellTemplate;
+    }
+
+    /**
+     * @return Is true if a subclass overrides render(item, rowcount), which then has to be used
+     *         for the streaming render as well.
+     */
+    private boolean isCustomized() {
+
+        if (customized == null) {
+            try {
+                customized = getClass().getMethod("render", Object.class, int.class).getDeclaringClass() != HtmlCellRenderer.class;
+            } catch (NoSuchMethodException e) {
+                customized = true;
+            }
+        }
+
+        return customized;
+    }
+
+    private boolean isIdCustomized() {
+
+        for (Class<?> clazz = getClass(); clazz != HtmlCellRenderer.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("getId", int.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // look at the super class
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The parts of the td that are the same for every cell of the column.
+     */
+    private static final class CellTemplate {
+
+        private final String width;
+        private final String style;
+        private final String styleClass;
+
+        /**
+         * Everything up to the rowcount of the id, or the whole start tag if there is no id.
+         */
+        private final String start;
+
+        /**
+         * Everything after the rowcount of the id, or null if there is no id.
+         */
+        private final String idEnd;
+
+        private final boolean customId;
+
+        CellTemplate(HtmlColumn column, String idStem, boolean includeId, boolean customId) {
+
+            this.width = column.getWidth();
+            this.style = column.getStyle();
+            this.styleClass = column.getStyleClass();
+            this.customId = customId;
+
+            HtmlBuilder attributes = new HtmlBuilder();
+            attributes.width(width);
+            attributes.style(style);
+            attributes.styleClass(styleClass);
+            attributes.close();
+
+            HtmlBuilder html = new HtmlBuilder();
+            html.td(2);
+
+            if (customId) {
+                this.start = html.toString();
+                this.idEnd = null;
+            } else if (includeId) {
+                // the same as HtmlBuilder.id()
+                html.append(" id=\"").append(idStem);
+                this.start = html.toString();
+                this.idEnd = "\" " + attributes.toString();
+            } else {
+                html.append(attributes.toString());
+                this.start = html.toString();
+                this.idEnd = null;
+            }
+        }
+
+        boolean isFor(HtmlColumn column) {
+
+            return width == column.getWidth()
+                    && style == column.getStyle()
+                    && styleClass == column.getStyleClass();
+        }
     }
 }
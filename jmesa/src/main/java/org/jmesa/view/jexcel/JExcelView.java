@@ -16,75 +16,103 @@
 package org.jmesa.view.jexcel;
 
 import jxl.Workbook;
+import jxl.WorkbookSettings;
 import jxl.format.Border;
 import jxl.format.BorderLineStyle;
 import jxl.format.Colour;
 import jxl.write.Number;
 import jxl.write.*;
 import org.apache.commons.lang3.StringUtils;
+import org.jmesa.util.ExportUtils;
 import org.jmesa.view.AbstractExportView;
 import org.jmesa.view.component.Column;
-import org.jmesa.view.component.Row;
 import org.jmesa.view.component.Table;
 
 import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
 
+import static org.jmesa.view.ExportConstants.JEXCEL_USE_TEMPORARY_FILE;
+
 /**
  * <p>
  * Create the JExcel view.
  * </p>
  *
+ * <p>
+ * The workbook is created on the output stream and, unless the
+ * export.jexcel.useTemporaryFile preference is false, the cells are kept in a
+ * temporary file until the workbook is written instead of in memory. When the
+ * rows do not fit on one sheet (65536 rows for xls) the export rolls over to a
+ * new sheet, with the header repeated.
+ * </p>
+ *
  * @since 2.2
  * @author Paul Horn
  */
 public class JExcelView extends AbstractExportView {
 
     private OutputStream outputStream;
+    private int maxRowsPerSheet;
 
     public void setOutputStream(OutputStream outputStream) {
 
         this.outputStream = outputStream;
     }
 
+    /**
+     * @return The number of rows, header included, on one sheet.
+     */
+    public int getMaxRowsPerSheet() {
+
+        if (maxRowsPerSheet <= 0) {
+            maxRowsPerSheet = ExportUtils.getMaxRowsPerSheet(getCoreContext());
+        }
+        return maxRowsPerSheet;
+    }
+
+    /**
+     * @param maxRowsPerSheet The number of rows, header included, on one sheet.
+     */
+    public void setMaxRowsPerSheet(int maxRowsPerSheet) {
+
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
     @Override
     public Object render() {
 
         try {
             Table table = getTable();
-            WritableWorkbook workbook = Workbook.createWorkbook(outputStream);
+            WritableWorkbook workbook = Workbook.createWorkbook(outputStream, createWorkbookSettings());
             String caption = table.getCaption();
             if (StringUtils.isEmpty(caption)) {
                 caption = "JMesa Export";
             }
-            workbook.createSheet(caption, 0);
 
             WritableCellFormat headerFmt = new WritableCellFormat(new WritableFont(WritableFont.ARIAL, 10));
             headerFmt.setBackground(Colour.GREY_25_PERCENT);
             headerFmt.setBorder(Border.ALL, BorderLineStyle.THIN);
 
-            WritableSheet sheet = workbook.getSheet(caption);
-
-            int colidx = 0;
-            int rowidx = 0;
-
-            Row row = table.getRow();
-            row.getRowRenderer();
             List<Column> columns = table.getRow().getColumns();
 
-            for (Column col : columns) {
-                sheet.addCell(new Label(colidx, rowidx, col.getTitle(), headerFmt));
-                sheet.setColumnView(colidx++, 20);
-            }
+            int maxRows = getMaxRowsPerSheet();
+            int sheetcount = 1;
+            WritableSheet sheet = createSheet(workbook, caption, sheetcount, columns, headerFmt);
 
-            rowidx++;
+            int rowidx = 1;
+            int sheetRowidx = 1;
 
             WritableCellFormat rowFmt = new WritableCellFormat(new WritableFont(WritableFont.ARIAL, 10));
 
             Collection<?> items = getCoreContext().getPageItems();
             for (Object item : items) {
-                colidx = 0;
+                if (sheetRowidx == maxRows) {
+                    sheet = createSheet(workbook, caption, ++sheetcount, columns, headerFmt);
+                    sheetRowidx = 1;
+                }
+
+                int colidx = 0;
                 for (Column col : columns) {
                     Object value = col.getCellRenderer().render(item, rowidx);
                     if (value == null) {
@@ -93,14 +121,15 @@ public class JExcelView extends AbstractExportView {
 
                     WritableCell cell = null;
                     if (value instanceof java.lang.Number) {
-                        cell = new Number(colidx++, rowidx, Double.valueOf(value.toString()), rowFmt);
+                        cell = new Number(colidx++, sheetRowidx, ((java.lang.Number) value).doubleValue(), rowFmt);
                     } else {
-                        cell = new Label(colidx++, rowidx, value + "", rowFmt);
+                        cell = new Label(colidx++, sheetRowidx, value.toString(), rowFmt);
                     }
 
                     sheet.addCell(cell);
                 }
                 rowidx++;
+                sheetRowidx++;
             }
 
             return workbook;
@@ -108,4 +137,39 @@ public class JExcelView extends AbstractExportView {
             throw new RuntimeException(e);
         }
     }
+
+    protected WorkbookSettings createWorkbookSettings() {
+
+        WorkbookSettings settings = new WorkbookSettings();
+        String useTemporaryFile = getCoreContext().getPreference(JEXCEL_USE_TEMPORARY_FILE);
+        settings.setUseTemporaryFileDuringWrite(useTemporaryFile == null || java.lang.Boolean.parseBoolean(useTemporaryFile.trim()));
+        return settings;
+    }
+
+    /**
+     * @return The sheet name. The sheets after the first one are numbered.
+     */
+    protected String getSheetName(String caption, int sheetcount) {
+
+        if (sheetcount == 1) {
+            return StringUtils.left(caption, 31);
+        }
+
+        String suffix = " (" + sheetcount + ")";
+        return StringUtils.left(caption, 31 - suffix.length()) + suffix;
+    }
+
+    private WritableSheet createSheet(WritableWorkbook workbook, String caption, int sheetcount, List<Column> columns,
+            WritableCellFormat headerFmt) throws WriteException {
+
+        WritableSheet sheet = workbook.createSheet(getSheetName(caption, sheetcount), sheetcount - 1);
+
+        int colidx = 0;
+        for (Column col : columns) {
+            sheet.addCell(new Label(colidx, 0, col.getTitle(), headerFmt));
+            sheet.setColumnView(colidx++, 20);
+        }
+
+        return sheet;
+    }
 }
@@ -15,102 +15,161 @@
  */
 package org.jmesa.view.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jmesa.limit.Limit;
 import org.jmesa.view.AbstractExportView;
 import org.jmesa.view.component.Column;
 import org.jmesa.view.renderer.CellRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 /**
+ * <p>
+ * Writes the table as a JSON object with the caption, titles, items and paging
+ * of the table. The JSON is written through a JsonGenerator, so an export can
+ * stream it straight to the OutputStream with render(OutputStream).
+ * </p>
+ *
+ * <p>
+ * In the newline delimited mode (NDJSON) only the items are written, one JSON
+ * object per line, which suits very large exports and feeds into data
+ * pipelines that read the rows one at a time.
+ * </p>
+ *
  * @author xwx
  * @since 4.1
  */
 public class JsonViewAlter extends AbstractExportView {
 
+    private static final Logger logger = LoggerFactory.getLogger(JsonViewAlter.class);
+
+    /**
+     * The ObjectMapper, and the JsonFactory behind it, are thread safe and expensive to create.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private boolean newlineDelimited;
+
     public JsonViewAlter() {
     }
 
+    /**
+     * @param newlineDelimited Is true to write one JSON object per item and line.
+     */
+    public JsonViewAlter(boolean newlineDelimited) {
+
+        this.newlineDelimited = newlineDelimited;
+    }
+
+    public boolean isNewlineDelimited() {
+
+        return newlineDelimited;
+    }
+
+    public void setNewlineDelimited(boolean newlineDelimited) {
+
+        this.newlineDelimited = newlineDelimited;
+    }
 
     @Override
     public Object render() {
-        try {
-            StringBuilder results = new StringBuilder();
 
-            List<Column> columns = getTable().getRow().getColumns();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            render(out);
+        } catch (IOException e) {
+            logger.error("Could not render the json view.", e);
+            return "";
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
 
-            results.append("{\n\"caption\":\"").append(escapeValue(getTable().getCaption())).append("\",\n");
-            addColumnTitles(results, columns);
-            addTableData(results, columns);
-            addParams(results, this.getCoreContext().getLimit());
+    /**
+     * Write the JSON to the OutputStream in UTF-8. The OutputStream is flushed but not closed.
+     */
+    public void render(OutputStream out) throws IOException {
 
-            results.append("}\n");
+        List<Column> columns = getTable().getRow().getColumns();
 
-            return results.toString();
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+        JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            if (newlineDelimited) {
+                // each item ends its own line instead of being separated by a space
+                generator.setRootValueSeparator(null);
+                addItems(generator, columns);
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField("caption", toText(getTable().getCaption()));
+                addColumnTitles(generator, columns);
+                generator.writeArrayFieldStart("items");
+                addItems(generator, columns);
+                generator.writeEndArray();
+                addParams(generator, getCoreContext().getLimit());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        } finally {
+            generator.close();
         }
-        return "";
     }
 
-    private void addParams(StringBuilder results, Limit limit) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        results.append("\n\"paging\":")
-                .append(objectMapper.writeValueAsString(limit.getRowSelect()));
-        results.append("\n,\"total\":")
-                .append(objectMapper.writeValueAsString(limit.getRowSelect().getTotalRows()));
+    private void addParams(JsonGenerator generator, Limit limit) throws IOException {
+
+        generator.writeObjectField("paging", limit.getRowSelect());
+        generator.writeNumberField("total", limit.getRowSelect().getTotalRows());
     }
 
+    private void addItems(JsonGenerator generator, List<Column> columns) throws IOException {
+
+        int size = columns.size();
+        String[] properties = new String[size];
+        CellRenderer[] cellRenderers = new CellRenderer[size];
+        for (int i = 0; i < size; i++) {
+            Column column = columns.get(i);
+            properties[i] = toText(column.getProperty());
+            cellRenderers[i] = column.getCellRenderer();
+        }
 
-    private void addTableData(StringBuilder results, List<Column> columns) throws JsonProcessingException {
         int rowcount = 0;
-        results.append("\"items\": [");
         Collection<?> items = getCoreContext().getPageItems();
-        ObjectMapper mapper = new ObjectMapper();
-
-
         for (Object item : items) {
             rowcount++;
-            results.append("{\n");
-
-            Iterator<Column> bodyIterator = columns.iterator();
-            while (bodyIterator.hasNext()) {
-                Column column = bodyIterator.next();
-                CellRenderer cellRenderer = column.getCellRenderer();
-                Object value = cellRenderer.render(item, rowcount);
-                results.append("\"").append(escapeValue(column.getProperty())).append("\"");
-                results.append(":");
-                String jsonString = mapper.writeValueAsString(value);
-                results.append(jsonString);
-
-                if (bodyIterator.hasNext()) {
-                    results.append(",\n");
-                }
+
+            generator.writeStartObject();
+            for (int i = 0; i < size; i++) {
+                generator.writeFieldName(properties[i]);
+                generator.writeObject(cellRenderers[i].render(item, rowcount));
             }
-            results.append("}");
-            if (rowcount < items.size()) {
-                results.append(",\n");
+            generator.writeEndObject();
+
+            if (newlineDelimited) {
+                generator.writeRaw('\n');
             }
         }
-        results.append("\n],\n");
     }
 
-    private void addColumnTitles(StringBuilder results, List<Column> columns) {
-        results.append("\"titles\": [\n");
-        Iterator<Column> headerIterator = columns.iterator();
-        while (headerIterator.hasNext()) {
-            Column column = headerIterator.next();
-            String title = column.getTitle();
-            results.append("\"").append(escapeValue(title)).append("\"");
-            if (headerIterator.hasNext()) {
-                results.append(",\n");
-            }
+    private void addColumnTitles(JsonGenerator generator, List<Column> columns) throws IOException {
+
+        generator.writeArrayFieldStart("titles");
+        for (Column column : columns) {
+            generator.writeString(toText(column.getTitle()));
         }
-        results.append("],\n");
+        generator.writeEndArray();
+    }
+
+    private String toText(Object value) {
+
+        return value == null ? "" : String.valueOf(value);
     }
 
     String escapeValue(Object value) {
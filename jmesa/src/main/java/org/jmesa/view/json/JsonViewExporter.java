@@ -16,6 +16,7 @@
 package org.jmesa.view.json;
 
 import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.View;
 
 import java.io.OutputStream;
 
@@ -32,9 +33,20 @@ public class JsonViewExporter extends AbstractViewExporter {
         export(getHttpServletResponse().getOutputStream());
     }
 
+    /**
+     * A JsonViewAlter streams the JSON straight to the OutputStream. Any other
+     * View is rendered to a String first.
+     */
     @Override
     public void export(OutputStream out) throws Exception {
-        String viewData = (String) getView().render();
+        View view = getView();
+        if (view instanceof JsonViewAlter) {
+            ((JsonViewAlter) view).render(out);
+            out.flush();
+            return;
+        }
+
+        String viewData = (String) view.render();
         byte[] contents = (viewData).getBytes();
         out.write(contents);
         out.flush();
@@ -46,11 +58,22 @@ public class JsonViewExporter extends AbstractViewExporter {
 
     @Override
     protected String getContextType() {
+        if (isNewlineDelimited()) {
+            return "application/x-ndjson";
+        }
         return "application/json";
     }
 
     @Override
     protected String getExtensionName() {
+        if (isNewlineDelimited()) {
+            return "ndjson";
+        }
         return "json";
     }
+
+    private boolean isNewlineDelimited() {
+        View view = getView();
+        return view instanceof JsonViewAlter && ((JsonViewAlter) view).isNewlineDelimited();
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import org.apache.commons.lang3.StringUtils;
+import org.jmesa.core.CoreContext;
+import org.jmesa.limit.RowSelect;
+import org.jmesa.view.AbstractExportView;
+import org.jmesa.view.component.Column;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.jmesa.view.ViewUtils.isRowEven;
+import static org.jmesa.view.pdf.PdfTableStreamer.checkChunkSize;
+import static org.jmesa.view.html.HtmlConstants.STATUSBAR_NO_RESULTS_FOUND;
+import static org.jmesa.view.html.HtmlConstants.STATUSBAR_RESULTS_FOUND;
+
+/**
+ * <p>
+ * A PDF view that lays the table out with the iText layout API directly,
+ * instead of generating html and converting it like the PdfView does. The
+ * look comes from the same stylesheet (pdf.cssLocation), which is mapped to
+ * iText Styles once by the PdfStyles.
+ * </p>
+ *
+ * <p>
+ * The rows are streamed into the Document with the iText large table support
+ * and flushed every chunkSize rows, so memory does not grow with the number
+ * of rows.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfLayoutView extends AbstractExportView {
+
+    private String cssLocation;
+    private int chunkSize = 100;
+
+    /**
+     * @return The stylesheet to use for this pdf.
+     */
+    public String getCssLocation() {
+
+        if (StringUtils.isEmpty(cssLocation)) {
+            cssLocation = getCoreContext().getPreference("pdf.cssLocation");
+        }
+        return cssLocation;
+    }
+
+    /**
+     * @param cssLocation The path and name of the jmesa css file, relative to the servlet context.
+     */
+    public void setCssLocation(String cssLocation) {
+
+        this.cssLocation = cssLocation;
+    }
+
+    public int getChunkSize() {
+
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize The number of rows that are streamed to the document at a time, at least 1.
+     */
+    public void setChunkSize(int chunkSize) {
+
+        this.chunkSize = checkChunkSize(chunkSize);
+    }
+
+    public PdfStyles getPdfStyles() {
+
+        return PdfStyles.getInstance(getCssLocation(), getWebContext());
+    }
+
+    /**
+     * @return The whole table. Use render(Document) to stream the table instead.
+     */
+    @Override
+    public Table render() {
+
+        PdfStyles styles = getPdfStyles();
+        List<Column> columns = getTable().getRow().getColumns();
+
+        Table table = createTable(columns, false);
+        addHeaderCells(table, columns, styles);
+
+        Collection<?> items = getCoreContext().getPageItems();
+        int rowcount = 0;
+        for (Object item : items) {
+            rowcount++;
+            addRowCells(table, columns, item, rowcount, styles);
+        }
+
+        return table;
+    }
+
+    /**
+     * Stream the caption, the table and the status bar into the Document.
+     */
+    public void render(Document document) {
+
+        PdfStyles styles = getPdfStyles();
+        List<Column> columns = getTable().getRow().getColumns();
+
+        String caption = getTable().getCaption();
+        if (StringUtils.isNotEmpty(caption)) {
+            document.add(new Paragraph(caption).addStyle(styles.getCaptionStyle()));
+        }
+
+        Table table = createTable(columns, true);
+        addHeaderCells(table, columns, styles);
+        PdfTableStreamer.stream(document, table, getCoreContext().getPageItems(), chunkSize,
+                (t, item, rowcount) -> addRowCells(t, columns, item, rowcount, styles));
+
+        document.add(new Paragraph(getStatusBarText()).addStyle(styles.getStatusBarStyle()));
+    }
+
+    private Table createTable(List<Column> columns, boolean largeTable) {
+
+        Table table = new Table(UnitValue.createPercentArray(columns.size()), largeTable);
+        table.setWidth(UnitValue.createPercentValue(100));
+        return table;
+    }
+
+    private void addHeaderCells(Table table, List<Column> columns, PdfStyles styles) {
+
+        Style headerStyle = styles.getHeaderStyle();
+        for (Column column : columns) {
+            Cell cell = new Cell().addStyle(headerStyle);
+            cell.add(new Paragraph(StringUtils.defaultString(column.getTitle())));
+            table.addHeaderCell(cell);
+        }
+    }
+
+    private void addRowCells(Table table, List<Column> columns, Object item, int rowcount, PdfStyles styles) {
+
+        Style style = isRowEven(rowcount) ? styles.getEvenStyle() : styles.getOddStyle();
+
+        for (Column column : columns) {
+            Object value = column.getCellEditor().getValue(item, column.getProperty(), rowcount);
+            Cell cell = new Cell().addStyle(style);
+            cell.add(new Paragraph(value == null ? "" : String.valueOf(value)));
+            table.addCell(cell);
+        }
+    }
+
+    /**
+     * @return The same text as the status bar of the html table.
+     */
+    private String getStatusBarText() {
+
+        CoreContext coreContext = getCoreContext();
+        RowSelect rowSelect = coreContext.getLimit().getRowSelect();
+
+        if (rowSelect.getTotalRows() == 0) {
+            return coreContext.getMessage(STATUSBAR_NO_RESULTS_FOUND);
+        }
+
+        Object[] messageArguments = {rowSelect.getTotalRows(), rowSelect.getRowStart() + 1, rowSelect.getRowEnd()};
+        return coreContext.getMessage(STATUSBAR_RESULTS_FOUND, messageArguments);
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.styledxmlparser.css.CssDeclaration;
+import com.itextpdf.styledxmlparser.css.CssRuleSet;
+import com.itextpdf.styledxmlparser.css.CssStatement;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+import com.itextpdf.styledxmlparser.css.page.CssPageRule;
+import com.itextpdf.styledxmlparser.css.parse.CssStyleSheetParser;
+import com.itextpdf.styledxmlparser.css.util.CssDimensionParsingUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.util.ReloadableCache;
+import org.jmesa.web.WebContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * The iText layout Styles for the PdfLayoutView, read from the same stylesheet
+ * (pdf.cssLocation) that the html PdfView uses. Only the rules that matter for
+ * a table are used:
+ * </p>
+ *
+ * <pre>
+ * &#64;page                 size, margin
+ * .jmesa caption        color, font-size, font-weight, text-align, padding
+ * .jmesa .header td     color, background-color, font-size, font-weight, padding
+ * .jmesa .even (td)     color, background-color, font-size, font-weight, padding
+ * .jmesa .odd (td)      color, background-color, font-size, font-weight, padding
+ * .jmesa .statusBar td  color, background-color, font-size, font-weight, padding
+ * </pre>
+ *
+ * <p>
+ * The stylesheet is only read once per location and application, see the
+ * PdfStylesRegistry. The Styles do not hold on to any fonts, so they are
+ * shared by every export.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfStyles {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfStyles.class);
+
+    private static final String DEFAULT_CSS = "/jmesa-pdf.css";
+
+    private static final float DEFAULT_FONT_SIZE = 12;
+
+    private PageSize pageSize = PageSize.A4;
+    private float[] margins;
+    private final Style captionStyle = new Style();
+    private final Style headerStyle = new Style();
+    private final Style evenStyle = new Style();
+    private final Style oddStyle = new Style();
+    private final Style statusBarStyle = new Style();
+
+    /**
+     * @param cssLocation The stylesheet, relative to the servlet context or else on the classpath.
+     * @param webContext The WebContext, used to find the stylesheet.
+     * @return The styles for the stylesheet, or the styles of the default jmesa-pdf.css.
+     */
+    public static PdfStyles getInstance(String cssLocation, WebContext webContext) {
+
+        if (webContext == null) {
+            return load(cssLocation, null);
+        }
+
+        return PdfStylesRegistry.getInstance(webContext).getPdfStyles(cssLocation, webContext);
+    }
+
+    /**
+     * @param css The stylesheet.
+     */
+    public static PdfStyles parse(InputStream css) throws IOException {
+
+        PdfStyles styles = new PdfStyles();
+
+        CssStyleSheet styleSheet = CssStyleSheetParser.parse(css);
+        for (CssStatement statement : styleSheet.getStatements()) {
+            if (statement instanceof CssPageRule) {
+                for (CssStatement pageStatement : ((CssPageRule) statement).getStatements()) {
+                    if (pageStatement instanceof CssRuleSet) {
+                        styles.applyPage(((CssRuleSet) pageStatement).getNormalDeclarations());
+                    }
+                }
+            } else if (statement instanceof CssRuleSet) {
+                CssRuleSet ruleSet = (CssRuleSet) statement;
+                Style style = styles.getStyle(String.valueOf(ruleSet.getSelector()));
+                if (style != null) {
+                    apply(style, ruleSet.getNormalDeclarations());
+                }
+            }
+        }
+
+        return styles;
+    }
+
+    static PdfStyles load(String cssLocation, WebContext webContext) {
+
+        try (InputStream css = open(cssLocation, webContext)) {
+            if (css != null) {
+                return parse(css);
+            }
+        } catch (IOException e) {
+            logger.warn("Not able to read the pdf stylesheet " + cssLocation, e);
+        }
+
+        try (InputStream css = PdfStyles.class.getResourceAsStream(DEFAULT_CSS)) {
+            if (css != null) {
+                return parse(css);
+            }
+        } catch (IOException e) {
+            logger.warn("Not able to read the pdf stylesheet " + DEFAULT_CSS, e);
+        }
+
+        return new PdfStyles();
+    }
+
+    /**
+     * @return The files the stylesheet is read from, to reload the styles when one changes.
+     */
+    static List<File> getResourceFiles(String cssLocation, WebContext webContext) {
+
+        List<File> results = new ArrayList<File>();
+        results.add(ReloadableCache.toFile(PdfStyles.class.getResource(DEFAULT_CSS)));
+
+        if (cssLocation != null) {
+            String realPath = webContext != null ? webContext.getRealPath(cssLocation) : null;
+            if (realPath != null && new File(realPath).isFile()) {
+                results.add(new File(realPath));
+            } else {
+                results.add(ReloadableCache.toFile(PdfStyles.class.getResource(cssLocation)));
+            }
+        }
+
+        return results;
+    }
+
+    private static InputStream open(String cssLocation, WebContext webContext) throws IOException {
+
+        if (cssLocation == null) {
+            return null;
+        }
+
+        if (webContext != null) {
+            String realPath = webContext.getRealPath(cssLocation);
+            if (realPath != null && new File(realPath).isFile()) {
+                return new FileInputStream(realPath);
+            }
+        }
+
+        return PdfStyles.class.getResourceAsStream(cssLocation);
+    }
+
+    /**
+     * @return The Style for the selector, or null if the selector is not used.
+     */
+    private Style getStyle(String selector) {
+
+        switch (selector.replaceAll("\\s+", " ").trim()) {
+            case ".jmesa caption":
+                return captionStyle;
+            case ".jmesa .header td":
+                return headerStyle;
+            case ".jmesa .even":
+            case ".jmesa .even td":
+                return evenStyle;
+            case ".jmesa .odd":
+            case ".jmesa .odd td":
+                return oddStyle;
+            case ".jmesa .statusBar td":
+                return statusBarStyle;
+            default:
+                return null;
+        }
+    }
+
+    private void applyPage(List<CssDeclaration> declarations) {
+
+        for (CssDeclaration declaration : declarations) {
+            try {
+                applyPage(declaration);
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring the pdf page style " + declaration + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void applyPage(CssDeclaration declaration) {
+
+        String[] values = declaration.getExpression().trim().split("\\s+");
+        if ("size".equals(declaration.getProperty()) && values.length == 2) {
+            pageSize = new PageSize(toPoints(values[0]), toPoints(values[1]));
+        } else if ("margin".equals(declaration.getProperty())) {
+            margins = toBox(values);
+        }
+    }
+
+    /**
+     * A declaration that cannot be used, like font-size: small, is logged and left out.
+     */
+    private static void apply(Style style, List<CssDeclaration> declarations) {
+
+        for (CssDeclaration declaration : declarations) {
+            try {
+                apply(style, declaration);
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring the pdf style " + declaration + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void apply(Style style, CssDeclaration declaration) {
+
+        String value = declaration.getExpression().trim();
+        switch (declaration.getProperty()) {
+            case "color":
+                style.setFontColor(toColor(value));
+                break;
+            case "background-color":
+                style.setBackgroundColor(toColor(value));
+                break;
+            case "font-size":
+                style.setFontSize(toPoints(value));
+                break;
+            case "font-weight":
+                if ("bold".equals(value) || "bolder".equals(value) || NumberUtils.toInt(value) >= 600) {
+                    style.setBold();
+                }
+                break;
+            case "text-align":
+                if ("center".equals(value)) {
+                    style.setTextAlignment(TextAlignment.CENTER);
+                } else if ("right".equals(value)) {
+                    style.setTextAlignment(TextAlignment.RIGHT);
+                } else {
+                    style.setTextAlignment(TextAlignment.LEFT);
+                }
+                break;
+            case "padding":
+                float[] box = toBox(value.split("\\s+"));
+                style.setPaddings(box[0], box[1], box[2], box[3]);
+                break;
+            case "padding-top":
+                style.setPaddingTop(toPoints(value));
+                break;
+            case "padding-right":
+                style.setPaddingRight(toPoints(value));
+                break;
+            case "padding-bottom":
+                style.setPaddingBottom(toPoints(value));
+                break;
+            case "padding-left":
+                style.setPaddingLeft(toPoints(value));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static DeviceRgb toColor(String value) {
+
+        float[] rgba = CssDimensionParsingUtils.parseRgbaColor(value);
+        return new DeviceRgb(rgba[0], rgba[1], rgba[2]);
+    }
+
+    /**
+     * @return The top, right, bottom and left of a css box shorthand like padding or margin.
+     */
+    private static float[] toBox(String[] values) {
+
+        float top = toPoints(values[0]);
+        float right = values.length > 1 ? toPoints(values[1]) : top;
+        float bottom = values.length > 2 ? toPoints(values[2]) : top;
+        float left = values.length > 3 ? toPoints(values[3]) : right;
+        return new float[]{top, right, bottom, left};
+    }
+
+    private static float toPoints(String value) {
+
+        if (value.endsWith("em")) {
+            return Float.parseFloat(value.substring(0, value.length() - 2)) * DEFAULT_FONT_SIZE;
+        }
+
+        return CssDimensionParsingUtils.parseAbsoluteLength(value);
+    }
+
+    public PageSize getPageSize() {
+
+        return pageSize;
+    }
+
+    /**
+     * @return The top, right, bottom and left page margins, or null to use the default margins.
+     */
+    public float[] getMargins() {
+
+        return margins == null ? null : margins.clone();
+    }
+
+    public Style getCaptionStyle() {
+
+        return captionStyle;
+    }
+
+    public Style getHeaderStyle() {
+
+        return headerStyle;
+    }
+
+    public Style getEvenStyle() {
+
+        return evenStyle;
+    }
+
+    public Style getOddStyle() {
+
+        return oddStyle;
+    }
+
+    public Style getStatusBarStyle() {
+
+        return statusBarStyle;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jmesa.util.ReloadableCache;
+import org.jmesa.web.WebContext;
+
+/**
+ * <p>
+ * Application scoped registry of the PdfStyles, keyed by the stylesheet
+ * location. The registry is stored as an application attribute so a
+ * stylesheet is only read once per application, and two applications with a
+ * stylesheet at the same location each get their own styles.
+ * </p>
+ *
+ * <p>
+ * To pick up changes to the stylesheets without a restart set the
+ * jmesaPdfStylesReloadInterval context parameter to the number of seconds
+ * between checks for modified files.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfStylesRegistry {
+
+    public static final String PDF_STYLES_REGISTRY = PdfStylesRegistry.class.getName();
+
+    private static final String JMESA_PDF_STYLES_RELOAD_INTERVAL = "jmesaPdfStylesReloadInterval";
+
+    private final ReloadableCache<PdfStyles> cache;
+
+    public PdfStylesRegistry(long reloadInterval) {
+
+        this.cache = new ReloadableCache<PdfStyles>(reloadInterval);
+    }
+
+    /**
+     * @param webContext The WebContext for the application.
+     * @return The registry for the application, created the first time it is asked for.
+     */
+    public static PdfStylesRegistry getInstance(WebContext webContext) {
+
+        PdfStylesRegistry registry = (PdfStylesRegistry) webContext.getApplicationAttribute(PDF_STYLES_REGISTRY);
+        if (registry != null) {
+            return registry;
+        }
+
+        synchronized (PdfStylesRegistry.class) {
+            registry = (PdfStylesRegistry) webContext.getApplicationAttribute(PDF_STYLES_REGISTRY);
+            if (registry == null) {
+                Object interval = webContext.getApplicationInitParameter(JMESA_PDF_STYLES_RELOAD_INTERVAL);
+                long seconds = interval == null ? 0 : NumberUtils.toLong(String.valueOf(interval).trim());
+                registry = new PdfStylesRegistry(seconds * 1000);
+                webContext.setApplicationAttribute(PDF_STYLES_REGISTRY, registry);
+            }
+        }
+
+        return registry;
+    }
+
+    public PdfStyles getPdfStyles(String cssLocation, WebContext webContext) {
+
+        return cache.get(String.valueOf(cssLocation),
+            () -> PdfStyles.load(cssLocation, webContext),
+            () -> PdfStyles.getResourceFiles(cssLocation, webContext));
+    }
+
+    /**
+     * Discard the cached PdfStyles so the stylesheets are read again on the next export.
+     */
+    public void clear() {
+
+        cache.clear();
+    }
+}
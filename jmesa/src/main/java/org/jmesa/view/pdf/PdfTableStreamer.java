@@ -0,0 +1,76 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Table;
+
+import java.util.Collection;
+
+/**
+ * Streams the rows of an iText large table into a Document, flushing them to
+ * the document every chunkSize rows so memory does not grow with the number of
+ * rows. Shared by the PdfLayoutView and the PdfPView.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class PdfTableStreamer {
+
+    /**
+     * Adds the cells of one row to the table.
+     */
+    public interface RowWriter {
+
+        void addRowCells(Table table, Object item, int rowcount);
+    }
+
+    private PdfTableStreamer() {}
+
+    /**
+     * @return The chunk size, if it is at least one.
+     */
+    public static int checkChunkSize(int chunkSize) {
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunkSize must be at least 1, but is " + chunkSize + ".");
+        }
+
+        return chunkSize;
+    }
+
+    /**
+     * @param table A large table that already has its header cells.
+     */
+    public static void stream(Document document, Table table, Collection<?> items, int chunkSize, RowWriter rowWriter) {
+
+        checkChunkSize(chunkSize);
+
+        document.add(table);
+
+        int rowcount = 0;
+        for (Object item : items) {
+            rowcount++;
+            rowWriter.addRowCells(table, item, rowcount);
+
+            if (rowcount % chunkSize == 0) {
+                table.flush();
+            }
+        }
+
+        table.complete();
+    }
+}
@@ -17,8 +17,14 @@ package org.jmesa.view.pdf;
 
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
 import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.web.DetachedWebContext;
 import org.jmesa.web.HttpServletRequestSupport;
+import org.jmesa.web.WebContext;
+import org.jmesa.web.WebContextSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,14 +41,16 @@ import java.io.UnsupportedEncodingException;
  * @since 2.2
  * @author Paul Horn
  */
-public class PdfViewExporter extends AbstractViewExporter implements HttpServletRequestSupport {
+public class PdfViewExporter extends AbstractViewExporter implements HttpServletRequestSupport, WebContextSupport {
 
     private static Logger logger = LoggerFactory.getLogger(PdfViewExporter.class);
 
     private HttpServletRequest request;
+    private WebContext webContext;
 
     @Override
     public void export() throws Exception {
+        responseHeaders();
         HttpServletResponse response = getHttpServletResponse();
         export(response.getOutputStream());
     }
@@ -52,9 +60,18 @@ public class PdfViewExporter extends AbstractViewExporter implements HttpServlet
         throw  new UnsupportedOperationException();
     }
 
+    /**
+     * A PdfLayoutView is laid out straight into the PDF. Any other view is
+     * rendered to html and converted by html2pdf.
+     */
     @Override
     public void export(OutputStream out) throws Exception {
 
+        if (getView() instanceof PdfLayoutView) {
+            exportLayout((PdfLayoutView) getView(), out);
+            return;
+        }
+
         String string = (String) getView().render();
 
         byte[] contents = null;
@@ -64,8 +81,6 @@ public class PdfViewExporter extends AbstractViewExporter implements HttpServlet
             logger.info("Not able to process the PDF file using the UTF-8 encoding.");
         }
 
-        responseHeaders();
-
 //        System.setProperty("xr.util-logging.loggingEnabled", "false");
 //        System.setProperty("xr.util-logging.java.util.logging.ConsoleHandler.level", "WARN");
 //        System.setProperty("xr.util-logging..level", "WARN");
@@ -93,28 +108,59 @@ public class PdfViewExporter extends AbstractViewExporter implements HttpServlet
 //
 //        renderer.setDocument(doc, getBaseUrl());
 //        renderer.layout();
-        HttpServletResponse response = getHttpServletResponse();
 //        renderer.createPDF(response.getOutputStream());
         ConverterProperties properties = new ConverterProperties();
         properties.setBaseUri(getBaseUrl());
         properties.setCharset("UTF-8");
-        HtmlConverter.convertToPdf(new ByteArrayInputStream(contents), response.getOutputStream(),
-                properties);
+        HtmlConverter.convertToPdf(new ByteArrayInputStream(contents), out, properties);
+    }
+
+    private void exportLayout(PdfLayoutView view, OutputStream out) throws Exception {
+
+        PdfStyles styles = view.getPdfStyles();
 
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        PdfDocument pdfDocument = new PdfDocument(writer);
+        Document document = new Document(pdfDocument, styles.getPageSize());
 
+        float[] margins = styles.getMargins();
+        if (margins != null) {
+            document.setMargins(margins[0], margins[1], margins[2], margins[3]);
+        }
+
+        view.render(document);
+        document.close();
+        out.flush();
     }
 
     /**
-     * @return The base url to the web application.
+     * @return The base url to the web application. A background export has no request, but the
+     *         DetachedWebContext kept its url.
      */
     private String getBaseUrl() {
 
         if (request != null) {
             return request.getRequestURL().toString();
         }
+        if (webContext instanceof DetachedWebContext) {
+            return ((DetachedWebContext) webContext).getRequestUrl();
+        }
         return null;
     }
 
+    @Override
+    public WebContext getWebContext() {
+
+        return webContext;
+    }
+
+    @Override
+    public void setWebContext(WebContext webContext) {
+
+        this.webContext = webContext;
+    }
+
     @Override
     public HttpServletRequest getHttpServletRequest() {
 
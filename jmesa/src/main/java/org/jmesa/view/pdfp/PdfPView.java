@@ -22,12 +22,14 @@ import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import org.jmesa.view.AbstractExportView;
 import org.jmesa.view.component.Column;
-import org.jmesa.view.component.Row;
+import org.jmesa.view.pdf.PdfTableStreamer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,9 +41,19 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.jmesa.view.ExportConstants.PDF_FONT_ENCODING;
 import static org.jmesa.view.ExportConstants.PDF_FONT_NAME;
 import static org.jmesa.view.ViewUtils.isRowEven;
+import static org.jmesa.view.pdf.PdfTableStreamer.checkChunkSize;
 
 /**
+ * <p>
  * A PDF view that uses the iText PdfPTable.
+ * </p>
+ *
+ * <p>
+ * The render(Document) method streams the table into the Document. It uses the
+ * iText large table support, so the rows are flushed to the document every
+ * chunkSize rows instead of the whole table being held in memory. The fonts and
+ * cell styles are created once per export and shared by all the cells.
+ * </p>
  *
  * @since 2.3.4
  * @author Ismail Seyfi
@@ -56,6 +68,17 @@ public class PdfPView extends AbstractExportView {
     private Color headerFontColor;
     private Color captionFontColor;
     private int captionAlignment;
+    private int chunkSize = 100;
+
+    /*
+     * Created once per export. A PdfFont belongs to the PdfDocument it is used
+     * in, so they can not be kept from one export to the next.
+     */
+    private PdfFont headerCellFont;
+    private PdfFont cellFont;
+    private Style headerStyle;
+    private Style evenCellStyle;
+    private Style oddCellStyle;
 
     public PdfPView() {
 
@@ -80,50 +103,96 @@ public class PdfPView extends AbstractExportView {
     @Override
     public Table render() {
 
-        Table pdfpTable = new Table(getTable().getRow().getColumns().size());
-       // pdfpTable.setSpacingBefore(3);
+        createStyles();
 
-        Row row = getTable().getRow();
+        List<Column> columns = getTable().getRow().getColumns();
 
-        List<Column> columns = row.getColumns();
+        Table pdfpTable = new Table(columns.size());
+       // pdfpTable.setSpacingBefore(3);
 
-        // build table headers
-        for (Column column : columns) {
-            Cell cell = new Cell();
-            cell.setFont(getHeaderCellFont());
-            cell.setPadding(3.0f);
-            cell.setBackgroundColor(getHeaderBackgroundColor());
-            cell.add(new Paragraph(column.getTitle()));
-            pdfpTable.addCell(cell);
-        }
+        addHeaderCells(pdfpTable, columns);
 
-        // build table body
         Collection<?> items = getCoreContext().getPageItems();
         int rowcount = 0;
         for (Object item : items) {
             rowcount++;
+            addRowCells(pdfpTable, columns, item, rowcount);
+        }
 
-            columns = row.getColumns();
+        return pdfpTable;
+    }
 
-            for (Column column : columns) {
-                String property = column.getProperty();
-                Object value = column.getCellEditor().getValue(item, property, rowcount);
-                Cell cell = new Cell();//
-                cell.add( new Paragraph(value == null ? "" : String.valueOf(value)));
-                cell.setFont(getCellFont());
-                cell.setPadding(3.0f);
+    /**
+     * Stream the table into the Document. The rows are flushed to the document
+     * every chunkSize rows, so memory does not grow with the number of rows.
+     */
+    public void render(Document document) {
 
-                if (isRowEven(rowcount)) {
-                    cell.setBackgroundColor(getEvenCellBackgroundColor());
-                } else {
-                    cell.setBackgroundColor(getOddCellBackgroundColor());
-                }
+        createStyles();
 
-                pdfpTable.addCell(cell);
-            }
+        List<Column> columns = getTable().getRow().getColumns();
+
+        Table pdfpTable = new Table(columns.size(), true);
+        addHeaderCells(pdfpTable, columns);
+        PdfTableStreamer.stream(document, pdfpTable, getCoreContext().getPageItems(), chunkSize,
+                (table, item, rowcount) -> addRowCells(table, columns, item, rowcount));
+    }
+
+    private void createStyles() {
+
+        this.headerCellFont = getHeaderCellFont();
+        this.cellFont = getCellFont();
+
+        this.headerStyle = new Style()
+            .setFont(headerCellFont)
+            .setFontColor(getHeaderFontColor())
+            .setBackgroundColor(getHeaderBackgroundColor())
+            .setPadding(3.0f);
+        this.evenCellStyle = new Style()
+            .setFont(cellFont)
+            .setBackgroundColor(getEvenCellBackgroundColor())
+            .setPadding(3.0f);
+        this.oddCellStyle = new Style()
+            .setFont(cellFont)
+            .setBackgroundColor(getOddCellBackgroundColor())
+            .setPadding(3.0f);
+    }
+
+    private void addHeaderCells(Table pdfpTable, List<Column> columns) {
+
+        for (Column column : columns) {
+            Cell cell = new Cell();
+            cell.addStyle(headerStyle);
+            cell.add(new Paragraph(column.getTitle()));
+            pdfpTable.addHeaderCell(cell);
         }
+    }
 
-        return pdfpTable;
+    private void addRowCells(Table pdfpTable, List<Column> columns, Object item, int rowcount) {
+
+        Style style = isRowEven(rowcount) ? evenCellStyle : oddCellStyle;
+
+        for (Column column : columns) {
+            String property = column.getProperty();
+            Object value = column.getCellEditor().getValue(item, property, rowcount);
+            Cell cell = new Cell();
+            cell.addStyle(style);
+            cell.add(new Paragraph(value == null ? "" : String.valueOf(value)));
+            pdfpTable.addCell(cell);
+        }
+    }
+
+    public int getChunkSize() {
+
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize The number of rows that are streamed to the document at a time, at least 1.
+     */
+    public void setChunkSize(int chunkSize) {
+
+        this.chunkSize = checkChunkSize(chunkSize);
     }
 
     public int getCaptionAlignment() {
@@ -31,23 +31,31 @@ import java.io.OutputStream;
  */
 public class PdfPViewExporter extends AbstractViewExporter {
 
+    /**
+     * The headers are set before the body starts to stream to the response.
+     */
     @Override
     public void export() throws Exception {
+        responseHeaders();
         HttpServletResponse response = getHttpServletResponse();
         ServletOutputStream out = response.getOutputStream();
         export(out);
     }
 
+    /**
+     * Stream the table to the OutputStream a chunk of rows at a time.
+     */
     @Override
     public void export(OutputStream out) throws Exception {
-        com.itextpdf.kernel.pdf.PdfDocument pdfDoc = new com.itextpdf.kernel.pdf.PdfDocument(new PdfWriter(out));
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        com.itextpdf.kernel.pdf.PdfDocument pdfDoc = new com.itextpdf.kernel.pdf.PdfDocument(writer);
         Document document = new Document(pdfDoc);
 
         PdfPView pdfView = (PdfPView) getView();
         document.add(pdfView.getTableCaption());
-        document.add(pdfView.render());
+        pdfView.render(document);
         document.close();
-        responseHeaders();
         out.flush();
     }
 
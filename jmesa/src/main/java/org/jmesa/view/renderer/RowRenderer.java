@@ -17,6 +17,8 @@ package org.jmesa.view.renderer;
 
 import org.jmesa.view.component.Row;
 
+import java.io.IOException;
+
 /**
  * @since 2.0
  * @author Jeff Johnston
@@ -26,4 +28,18 @@ public interface RowRenderer {
     public Row getRow();
     public void setRow(Row row);
     public Object render(Object item, int rowcount);
+
+    /**
+     * Write the start of the row straight to the output instead of returning it. By default
+     * this writes what render(item, rowcount) returns.
+     *
+     * @since 4.5
+     */
+    default void render(Object item, int rowcount, Appendable out) throws IOException {
+
+        Object value = render(item, rowcount);
+        if (value != null) {
+            out.append(value.toString());
+        }
+    }
 }
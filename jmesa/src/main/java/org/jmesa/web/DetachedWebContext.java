@@ -0,0 +1,304 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.web;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.PageContext;
+import java.io.Writer;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * A copy of a WebContext that can be used once the request is over, like by an
+ * export that runs in the background. It is made on the request thread and
+ * keeps the locale, context path, url, parameters and request attributes of the
+ * request, and the ServletContext and HttpSession, which outlive the request.
+ * The request itself is not kept, because the container recycles it.
+ * </p>
+ *
+ * <p>
+ * The page and request attributes only live in this copy. There is no writer
+ * and no backing object.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class DetachedWebContext implements WebContext {
+
+    private final WebContext webContext;
+    private final ServletContext servletContext;
+    private final HttpSession session;
+    private final String contextPath;
+    private final String requestUrl;
+    private final Map<String, Object> pageAttributes = new ConcurrentHashMap<>();
+    private final Map<String, Object> requestAttributes = new ConcurrentHashMap<>();
+    private volatile Map<?, ?> parameterMap;
+    private volatile Locale locale;
+
+    /**
+     * @param webContext The WebContext of the request, read right away.
+     */
+    public DetachedWebContext(WebContext webContext) {
+
+        this.webContext = webContext;
+        this.locale = webContext.getLocale();
+        this.parameterMap = new HashMap<>(webContext.getParameterMap());
+
+        HttpServletRequest request = getRequest(webContext.getBackingObject());
+        if (request != null) {
+            this.servletContext = request.getServletContext();
+            this.session = request.getSession(false);
+            this.contextPath = request.getContextPath();
+            this.requestUrl = request.getRequestURL().toString();
+
+            Enumeration<String> names = request.getAttributeNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                put(requestAttributes, name, request.getAttribute(name));
+            }
+        } else {
+            this.servletContext = null;
+            this.session = null;
+            this.contextPath = getContextPath(webContext);
+            this.requestUrl = null;
+        }
+    }
+
+    private static HttpServletRequest getRequest(Object backingObject) {
+
+        if (backingObject instanceof HttpServletRequest) {
+            return (HttpServletRequest) backingObject;
+        }
+
+        if (backingObject instanceof PageContext) {
+            ServletRequest request = ((PageContext) backingObject).getRequest();
+            if (request instanceof HttpServletRequest) {
+                return (HttpServletRequest) request;
+            }
+        }
+
+        return null;
+    }
+
+    private static String getContextPath(WebContext webContext) {
+
+        try {
+            return webContext.getContextPath();
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The url of the request, or null if the WebContext was not for an http request.
+     */
+    public String getRequestUrl() {
+
+        return requestUrl;
+    }
+
+    /**
+     * Without a ServletContext the application scope is still read from the
+     * original WebContext, which then is not tied to the request.
+     */
+    @Override
+    public Object getApplicationInitParameter(String name) {
+
+        if (servletContext == null) {
+            return webContext.getApplicationInitParameter(name);
+        }
+
+        return servletContext.getInitParameter(name);
+    }
+
+    @Override
+    public Object getApplicationAttribute(String name) {
+
+        if (servletContext == null) {
+            return webContext.getApplicationAttribute(name);
+        }
+
+        return servletContext.getAttribute(name);
+    }
+
+    @Override
+    public void setApplicationAttribute(String name, Object value) {
+
+        if (servletContext == null) {
+            webContext.setApplicationAttribute(name, value);
+            return;
+        }
+
+        servletContext.setAttribute(name, value);
+    }
+
+    @Override
+    public void removeApplicationAttribute(String name) {
+
+        if (servletContext == null) {
+            webContext.removeApplicationAttribute(name);
+            return;
+        }
+
+        servletContext.removeAttribute(name);
+    }
+
+    @Override
+    public Object getPageAttribute(String name) {
+
+        return pageAttributes.get(name);
+    }
+
+    @Override
+    public void setPageAttribute(String name, Object value) {
+
+        put(pageAttributes, name, value);
+    }
+
+    @Override
+    public void removePageAttribute(String name) {
+
+        pageAttributes.remove(name);
+    }
+
+    @Override
+    public String getParameter(String name) {
+
+        Object value = parameterMap.get(name);
+        if (value instanceof String[]) {
+            String[] values = (String[]) value;
+            return values.length > 0 ? values[0] : null;
+        }
+
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    @Override
+    public Map<?, ?> getParameterMap() {
+
+        return parameterMap;
+    }
+
+    @Override
+    public void setParameterMap(Map<String, Object> parameterMap) {
+
+        this.parameterMap = parameterMap;
+    }
+
+    @Override
+    public Object getRequestAttribute(String name) {
+
+        return requestAttributes.get(name);
+    }
+
+    @Override
+    public void setRequestAttribute(String name, Object value) {
+
+        put(requestAttributes, name, value);
+    }
+
+    @Override
+    public void removeRequestAttribute(String name) {
+
+        requestAttributes.remove(name);
+    }
+
+    @Override
+    public Object getSessionAttribute(String name) {
+
+        if (session == null) {
+            return null;
+        }
+
+        return session.getAttribute(name);
+    }
+
+    @Override
+    public void setSessionAttribute(String name, Object value) {
+
+        if (session != null) {
+            session.setAttribute(name, value);
+        }
+    }
+
+    @Override
+    public void removeSessionAttribute(String name) {
+
+        if (session != null) {
+            session.removeAttribute(name);
+        }
+    }
+
+    @Override
+    public Writer getWriter() {
+
+        throw new UnsupportedOperationException("There is no response to write to once the request is over.");
+    }
+
+    @Override
+    public Locale getLocale() {
+
+        return locale;
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+
+        this.locale = locale;
+    }
+
+    @Override
+    public String getContextPath() {
+
+        return contextPath;
+    }
+
+    @Override
+    public String getRealPath(String path) {
+
+        if (servletContext == null) {
+            return webContext.getRealPath(path);
+        }
+
+        return servletContext.getRealPath(path);
+    }
+
+    /**
+     * @return Null, the request is not kept.
+     */
+    @Override
+    public Object getBackingObject() {
+
+        return null;
+    }
+
+    private static void put(Map<String, Object> attributes, String name, Object value) {
+
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+}
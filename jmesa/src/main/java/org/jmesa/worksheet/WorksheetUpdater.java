@@ -18,10 +18,12 @@ package org.jmesa.worksheet;
 import org.apache.commons.lang3.StringUtils;
 import org.jmesa.core.message.Messages;
 import org.jmesa.web.WebContext;
-import org.jmesa.worksheet.state.SessionWorksheetState;
 import org.jmesa.worksheet.state.WorksheetState;
+import org.jmesa.worksheet.state.WorksheetStateFactory;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static java.net.URLDecoder.decode;
@@ -39,6 +41,11 @@ import static java.net.URLDecoder.decode;
  */
 public class WorksheetUpdater {
 
+    /**
+     * @deprecated The worksheet is retrieved with WorksheetState.retrieveOrCreateWorksheet(), which
+     *             only locks the worksheet of the current user.
+     */
+    @Deprecated
     protected static final Object LOCK_OBJECT = new Object();
 
     protected static String UNIQUE_PROPERTIES = "up_";
@@ -59,10 +66,9 @@ public class WorksheetUpdater {
         String columnStatus;
         Worksheet worksheet;
 
-        synchronized (LOCK_OBJECT) {
-            worksheet = getWorksheet(messages, webContext);
-        }
-        synchronized (worksheet) {
+        worksheet = getWorksheet(messages, webContext);
+
+        synchronized (getWorksheetState(webContext).getLock(worksheet)) {
             WorksheetRow worksheetRow = getWorksheetRow(worksheet, webContext);
 
             WorksheetColumn worksheetColumn = getWorksheetColumn(worksheetRow, webContext);
@@ -75,26 +81,68 @@ public class WorksheetUpdater {
         return columnStatus;
     }
 
+    /**
+     * <p>
+     * Apply a batch of cell changes to the worksheet of the table with the id request parameter.
+     * The worksheet is locked and persisted once for the whole batch instead of once per cell.
+     * </p>
+     *
+     * <p>
+     * Every cell uses the same keys as the single cell request: the unique property (up_ plus the
+     * property name), the column property (cp_), the original value (ov_), the changed value (cv_)
+     * and optionally an error message (em_). The values are used as they are, they are not URL
+     * decoded.
+     * </p>
+     *
+     * @param cells The cell changes, in the order they were made.
+     * @return The status of each cell, in the same order as the cells. A cell without a unique
+     *         property or column property is not applied and gets the error status.
+     */
+    public List<String> update(Messages messages, WebContext webContext, List<Map<String, ?>> cells) {
+
+        List<String> columnStatuses = new ArrayList<>(cells.size());
+
+        Worksheet worksheet = getWorksheet(messages, webContext);
+
+        synchronized (getWorksheetState(webContext).getLock(worksheet)) {
+            for (Map<String, ?> cell : cells) {
+                String property = cell != null ? getValue(cell, COLUMN_PROPERTY) : null;
+                WorksheetRow worksheetRow = property != null ? getWorksheetRow(worksheet, cell) : null;
+                if (worksheetRow == null) {
+                    columnStatuses.add(COLUMN_HAS_ERROR);
+                    continue;
+                }
+
+                WorksheetColumn worksheetColumn = getWorksheetColumn(worksheetRow, property,
+                        getValue(cell, ORIGINAL_VALUE), StringUtils.defaultString(getValue(cell, CHANGED_VALUE)));
+                columnStatuses.add(validateWorksheet(worksheet, worksheetRow, worksheetColumn, getValue(cell, ERROR_MESSAGE), false));
+            }
+
+            // for distributed deployment (e.g. GAE)
+            getWorksheetState(webContext).persistWorksheet(worksheet);
+        }
+
+        return columnStatuses;
+    }
+
     protected Worksheet getWorksheet(Messages messages, WebContext webContext) {
 
         worksheetState = getWorksheetState(webContext);
-        Worksheet worksheet = worksheetState.retrieveWorksheet();
-        if (worksheet == null) {
+
+        return worksheetState.retrieveOrCreateWorksheet(() -> {
             String id = webContext.getParameter("id");
-            worksheet = new Worksheet(id);
+            Worksheet worksheet = new Worksheet(id);
             worksheet.setWebContext(webContext);
             worksheet.setMessages(messages);
-            worksheetState.persistWorksheet(worksheet);
-        }
-
-        return worksheet;
+            return worksheet;
+        });
     }
 
     protected WorksheetState getWorksheetState(WebContext webContext) {
 
         if (worksheetState == null) {
             String id = webContext.getParameter("id");
-            return new SessionWorksheetState(id, webContext);
+            return WorksheetStateFactory.createWorksheetState(id, webContext);
         }
 
         return worksheetState;
@@ -109,34 +157,50 @@ public class WorksheetUpdater {
                 String value = webContext.getParameter(parameter);
                 String property = StringUtils.substringAfter(parameter, UNIQUE_PROPERTIES);
 
-                UniqueProperty uniqueProperty = new UniqueProperty(property, value);
-                WorksheetRow worksheetRow = worksheet.getRow(uniqueProperty);
-                if (worksheetRow == null) {
-                    worksheetRow = new WorksheetRow(uniqueProperty);
-                    worksheetRow.setRowStatus(WorksheetRowStatus.MODIFY);
-                    worksheet.addRow(worksheetRow);
-                }
+                return getWorksheetRow(worksheet, property, value);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The row for the unique property of the batched cell, or null if the cell does not have one.
+     */
+    protected WorksheetRow getWorksheetRow(Worksheet worksheet, Map<String, ?> cell) {
 
-                return worksheetRow;
+        for (String key : cell.keySet()) {
+            if (key.startsWith(UNIQUE_PROPERTIES)) {
+                String property = StringUtils.substringAfter(key, UNIQUE_PROPERTIES);
+                return getWorksheetRow(worksheet, property, getValue(cell, key));
             }
         }
 
         return null;
     }
 
+    private WorksheetRow getWorksheetRow(Worksheet worksheet, String property, String value) {
+
+        UniqueProperty uniqueProperty = new UniqueProperty(property, value);
+        WorksheetRow worksheetRow = worksheet.getRow(uniqueProperty);
+        if (worksheetRow == null) {
+            worksheetRow = new WorksheetRow(uniqueProperty);
+            worksheetRow.setRowStatus(WorksheetRowStatus.MODIFY);
+            worksheet.addRow(worksheetRow);
+        }
+
+        return worksheetRow;
+    }
+
     protected WorksheetColumn getWorksheetColumn(WorksheetRow worksheetRow, WebContext webContext) {
 
         String property = webContext.getParameter(COLUMN_PROPERTY);
-        WorksheetColumn worksheetColumn = worksheetRow.getColumn(property);
-        if (worksheetColumn == null) {
-            String orginalValue = webContext.getParameter(ORIGINAL_VALUE);
-            try {
-                orginalValue = decode(orginalValue, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-            }
-            worksheetColumn = new WorksheetColumn(property, orginalValue);
-            worksheetRow.addColumn(worksheetColumn);
+
+        String orginalValue = webContext.getParameter(ORIGINAL_VALUE);
+        try {
+            orginalValue = decode(orginalValue, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            e.printStackTrace();
         }
 
         String changedValue = webContext.getParameter(CHANGED_VALUE);
@@ -145,24 +209,56 @@ public class WorksheetUpdater {
         } catch (UnsupportedEncodingException e) {
             e.printStackTrace();
         }
+
+        return getWorksheetColumn(worksheetRow, property, orginalValue, changedValue);
+    }
+
+    private WorksheetColumn getWorksheetColumn(WorksheetRow worksheetRow, String property, String orginalValue, String changedValue) {
+
+        WorksheetColumn worksheetColumn = worksheetRow.getColumn(property);
+        if (worksheetColumn == null) {
+            worksheetColumn = new WorksheetColumn(property, orginalValue);
+            worksheetRow.addColumn(worksheetColumn);
+        }
+
         worksheetColumn.setChangedValue(changedValue);
 
         return worksheetColumn;
     }
 
+    private static String getValue(Map<String, ?> cell, String key) {
+
+        Object value = cell.get(key);
+        if (value == null) {
+            return null;
+        }
+
+        return String.valueOf(value);
+    }
+
     /**
      * Validate that the columns original value is not the same as the changed value. If it is
      * then remove the column from the row.
      */
     protected String validateWorksheet(Worksheet worksheet, WorksheetRow row, WorksheetColumn column, String errorMessage) {
 
+        return validateWorksheet(worksheet, row, column, errorMessage, true);
+    }
+
+    private String validateWorksheet(Worksheet worksheet, WorksheetRow row, WorksheetColumn column, String errorMessage,
+            boolean decodeErrorMessage) {
+
         String columnStatus = COLUMN_UPDATED;
 
         if (StringUtils.isNotEmpty(errorMessage)) {
-            try {
-                column.setError(decode(errorMessage, "UTF-8"));
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
+            if (decodeErrorMessage) {
+                try {
+                    column.setError(decode(errorMessage, "UTF-8"));
+                } catch (UnsupportedEncodingException e) {
+                    e.printStackTrace();
+                }
+            } else {
+                column.setError(errorMessage);
             }
             columnStatus = COLUMN_HAS_ERROR;
         } else if (column.hasError()) {
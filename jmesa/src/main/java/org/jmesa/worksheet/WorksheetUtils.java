@@ -90,7 +90,8 @@ public class WorksheetUtils {
 
     public static WorksheetRow getWorksheetRow(Worksheet worksheet, Row row, Object item) {
 
-        if (worksheet == null) {
+        // no need to read the unique property of the item if there is nothing to find
+        if (worksheet == null || !worksheet.hasChanges()) {
             return null;
         }
 
@@ -15,6 +15,10 @@
  */
 package org.jmesa.worksheet.servlet;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
 import org.jmesa.core.message.Messages;
 import org.jmesa.web.HttpServletRequestWebContext;
 import org.jmesa.web.WebContext;
@@ -24,17 +28,32 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 import static org.jmesa.core.message.MessagesFactory.getMessages;
 
 /**
+ * <p>
  * The default invoker of the worksheet updater.
+ * </p>
+ *
+ * <p>
+ * A single cell change is sent as request parameters and answered with the column status. A POST
+ * with a JSON body is a batch of cell changes for the table with the id request parameter. The body
+ * is an array of cells, each with the same keys as the single cell parameters, and the answer is a
+ * JSON array with the status of each cell.
+ * </p>
  *
  * @since 2.3
  * @author Jeff Johnston
  */
 public class WorksheetServlet extends HttpServlet {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Map<String, ?>>> CELLS_TYPE = new TypeReference<List<Map<String, ?>>>() {
+    };
+
     @Override
     public void doGet(HttpServletRequest request, HttpServletResponse response) {
 
@@ -53,6 +72,35 @@ public class WorksheetServlet extends HttpServlet {
     @Override
     public void doPost(HttpServletRequest request, HttpServletResponse response) {
 
-        doGet(request, response);
+        String contentType = request.getContentType();
+        if (contentType == null || !StringUtils.startsWithIgnoreCase(contentType, "application/json")) {
+            doGet(request, response);
+            return;
+        }
+
+        try {
+            List<Map<String, ?>> cells;
+            try {
+                cells = OBJECT_MAPPER.readValue(request.getReader(), CELLS_TYPE);
+            } catch (JsonProcessingException e) {
+                cells = null;
+            }
+
+            if (cells == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "The worksheet cells are not a JSON array.");
+                return;
+            }
+
+            WebContext webContext = new HttpServletRequestWebContext(request);
+            Messages messages = getMessages(webContext);
+            WorksheetUpdater worksheetUpdater = new WorksheetUpdater();
+            List<String> columnStatuses = worksheetUpdater.update(messages, webContext, cells);
+
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            OBJECT_MAPPER.writeValue(response.getWriter(), columnStatuses);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.util.ItemUtils;
+import org.jmesa.web.WebContext;
+import org.jmesa.worksheet.UniqueProperty;
+import org.jmesa.worksheet.Worksheet;
+import org.jmesa.worksheet.WorksheetColumn;
+import org.jmesa.worksheet.WorksheetRow;
+import org.jmesa.worksheet.WorksheetRowStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Keeps a worksheet as a log of row and column changes in a WorksheetStore instead of storing
+ * the Worksheet object. Persisting the worksheet compares it with what was last loaded or saved
+ * and only appends the difference, so a save costs as much as the edits since the last save
+ * and not as much as the whole worksheet.
+ * </p>
+ *
+ * <p>
+ * Retrieving the worksheet replays the log into a new Worksheet. When the log has become much
+ * longer than the worksheet it describes it is compacted.
+ * </p>
+ *
+ * <p>
+ * Two requests of the same user each get their own Worksheet, so the Worksheet can not be used to
+ * serialize their edits. getLock() instead gives the lock of the session and table, which the
+ * WorksheetUpdater holds while it changes and persists the Worksheet. Each request only appends
+ * its own edits, so neither loses the edits of the other.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class ChangeLogWorksheetState implements WorksheetState {
+
+    /**
+     * Compact the log once it is this many times longer than the worksheet...
+     */
+    private static final int COMPACT_RATIO = 2;
+
+    /**
+     * ...and has at least this many changes.
+     */
+    private static final int COMPACT_MIN = 32;
+
+    private final String id;
+    private final String key;
+    private final WebContext webContext;
+    private final WorksheetStore worksheetStore;
+
+    /**
+     * The changes the store holds, by key, as of the last load or save.
+     */
+    private Map<String, WorksheetChange> snapshot;
+
+    public ChangeLogWorksheetState(String id, WebContext webContext, WorksheetStore worksheetStore) {
+
+        this.id = id;
+        this.key = WorksheetLocks.getSessionKey(webContext, id + "_WORKSHEET_CHANGES");
+        this.webContext = webContext;
+        this.worksheetStore = worksheetStore;
+    }
+
+    @Override
+    public Worksheet retrieveWorksheet() {
+
+        synchronized (WorksheetLocks.getLock(key)) {
+            List<WorksheetChange> changeLog = worksheetStore.load(webContext, key);
+            this.snapshot = replay(changeLog);
+
+            if (changeLog == null) {
+                return null;
+            }
+
+            if (snapshot.isEmpty() || changeLog.size() >= COMPACT_MIN && changeLog.size() > COMPACT_RATIO * snapshot.size()) {
+                worksheetStore.replace(webContext, key, new ArrayList<>(snapshot.values()));
+            }
+        }
+
+        return toWorksheet(snapshot);
+    }
+
+    @Override
+    public void persistWorksheet(Worksheet worksheet) {
+
+        Map<String, WorksheetChange> current = toChanges(worksheet);
+
+        synchronized (WorksheetLocks.getLock(key)) {
+            if (snapshot == null) {
+                this.snapshot = replay(worksheetStore.load(webContext, key));
+            }
+
+            List<WorksheetChange> changes = new ArrayList<>();
+            for (Map.Entry<String, WorksheetChange> entry : snapshot.entrySet()) {
+                if (!current.containsKey(entry.getKey())) {
+                    changes.add(entry.getValue().toRemoval());
+                }
+            }
+            for (Map.Entry<String, WorksheetChange> entry : current.entrySet()) {
+                if (!entry.getValue().equals(snapshot.get(entry.getKey()))) {
+                    changes.add(entry.getValue());
+                }
+            }
+
+            if (!changes.isEmpty()) {
+                worksheetStore.append(webContext, key, changes);
+            }
+
+            this.snapshot = current;
+        }
+    }
+
+    /**
+     * Only requests for the same session and table wait on each other.
+     */
+    @Override
+    public Worksheet retrieveOrCreateWorksheet(Supplier<Worksheet> creator) {
+
+        synchronized (WorksheetLocks.getLock(key)) {
+            Worksheet worksheet = retrieveWorksheet();
+            if (worksheet == null) {
+                worksheet = creator.get();
+                persistWorksheet(worksheet);
+            }
+            return worksheet;
+        }
+    }
+
+    /**
+     * Every request gets its own Worksheet, so they share the lock of the session and table instead.
+     */
+    @Override
+    public Object getLock(Worksheet worksheet) {
+
+        return WorksheetLocks.getLock(key);
+    }
+
+    private static Map<String, WorksheetChange> replay(List<WorksheetChange> changeLog) {
+
+        Map<String, WorksheetChange> changes = new LinkedHashMap<>();
+        if (changeLog == null) {
+            return changes;
+        }
+
+        for (WorksheetChange change : changeLog) {
+            if (change.isRemoved()) {
+                changes.remove(change.getKey());
+            } else {
+                changes.put(change.getKey(), change);
+            }
+        }
+
+        return changes;
+    }
+
+    private Worksheet toWorksheet(Map<String, WorksheetChange> changes) {
+
+        Worksheet worksheet = new Worksheet(id);
+        worksheet.setWebContext(webContext);
+
+        for (WorksheetChange change : changes.values()) {
+            if (!change.isRowChange()) {
+                continue;
+            }
+
+            WorksheetRow worksheetRow = new WorksheetRow(change.getUniqueProperty());
+            worksheetRow.setRowStatus(change.getRowStatus());
+            worksheetRow.setError(change.getError());
+            if (change.getValues() != null) {
+                Map<String, Object> item = new LinkedHashMap<String, Object>(change.getValues());
+                if (change.getItem() != null) {
+                    item.put(ItemUtils.JMESA_ITEM, change.getItem());
+                }
+                worksheetRow.setItem(item);
+            }
+            worksheet.addRow(worksheetRow);
+        }
+
+        for (WorksheetChange change : changes.values()) {
+            if (change.isRowChange()) {
+                continue;
+            }
+
+            UniqueProperty uniqueProperty = change.getUniqueProperty();
+            WorksheetRow worksheetRow = worksheet.getRow(uniqueProperty);
+            if (worksheetRow == null) {
+                worksheetRow = new WorksheetRow(uniqueProperty);
+                worksheetRow.setRowStatus(WorksheetRowStatus.MODIFY);
+                worksheet.addRow(worksheetRow);
+            }
+
+            WorksheetColumn worksheetColumn = new WorksheetColumn(change.getProperty(), change.getOriginalValue());
+            worksheetColumn.setChangedValue(change.getChangedValue());
+            worksheetColumn.setError(change.getError());
+            worksheetRow.addColumn(worksheetColumn);
+        }
+
+        return worksheet;
+    }
+
+    private static Map<String, WorksheetChange> toChanges(Worksheet worksheet) {
+
+        Map<String, WorksheetChange> changes = new LinkedHashMap<>();
+        if (worksheet == null) {
+            return changes;
+        }
+
+        for (WorksheetRow worksheetRow : worksheet.getRows()) {
+            UniqueProperty uniqueProperty = worksheetRow.getUniqueProperty();
+
+            WorksheetChange rowChange = WorksheetChange.rowChange(uniqueProperty, worksheetRow.getRowStatus(),
+                    worksheetRow.getError(), getValues(worksheetRow), getItem(worksheetRow));
+            changes.put(rowChange.getKey(), rowChange);
+
+            for (WorksheetColumn worksheetColumn : worksheetRow.getColumns()) {
+                WorksheetChange columnChange = WorksheetChange.columnChange(uniqueProperty, worksheetColumn.getProperty(),
+                        worksheetColumn.getOriginalValue(), worksheetColumn.getChangedValue(), worksheetColumn.getError());
+                changes.put(columnChange.getKey(), columnChange);
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * @return The values of the item of an added row. The other rows get their item back from
+     *         the table items.
+     */
+    private static Map<String, Object> getValues(WorksheetRow worksheetRow) {
+
+        if (worksheetRow.getRowStatus() != WorksheetRowStatus.ADD || !(worksheetRow.getItem() instanceof Map)) {
+            return null;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) worksheetRow.getItem()).entrySet()) {
+            if (ItemUtils.JMESA_ITEM.equals(entry.getKey()) || entry.getValue() == null) {
+                continue;
+            }
+            values.put(String.valueOf(entry.getKey()), entry.getValue());
+        }
+
+        return values;
+    }
+
+    /**
+     * @return The bean an added row was made from, which the store keeps for as long as it holds
+     *         the change in memory.
+     */
+    private static Object getItem(WorksheetRow worksheetRow) {
+
+        if (worksheetRow.getRowStatus() != WorksheetRowStatus.ADD || !(worksheetRow.getItem() instanceof Map)) {
+            return null;
+        }
+
+        return ((Map<?, ?>) worksheetRow.getItem()).get(ItemUtils.JMESA_ITEM);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesSupport;
+import org.jmesa.web.WebContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Keeps each change log in its own file, so the worksheets take up no session memory at all.
+ * A save appends its changes to the end of the file. The directory is set with the
+ * worksheet.store.directory preference and is a jmesa-worksheets directory in java.io.tmpdir by
+ * default.
+ * </p>
+ *
+ * <p>
+ * The files are not tied to the session. A file is removed when its worksheet is saved or
+ * cleared, and the files of a session are removed by the WorksheetStoreListener when the
+ * session ends.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class FileWorksheetStore implements WorksheetStore, PreferencesSupport {
+
+    public static final String DIRECTORY = "worksheet.store.directory";
+
+    private Preferences preferences;
+    private volatile File directory;
+
+    @Override
+    public Preferences getPreferences() {
+
+        return preferences;
+    }
+
+    @Override
+    public void setPreferences(Preferences preferences) {
+
+        this.preferences = preferences;
+        this.directory = null;
+    }
+
+    @Override
+    public List<WorksheetChange> load(WebContext webContext, String key) {
+
+        File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+
+        List<WorksheetChange> changeLog = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                changeLog.add(WorksheetChange.read(in));
+            }
+        } catch (EOFException e) {
+            // the end of the log, or a change that was cut off while it was written
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read the worksheet changes from " + file, e);
+        }
+
+        return changeLog;
+    }
+
+    @Override
+    public void append(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        File file = getFile(key);
+        try {
+            write(new FileOutputStream(file, true), changes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write the worksheet changes to " + file, e);
+        }
+    }
+
+    @Override
+    public void replace(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        File file = getFile(key);
+
+        try {
+            if (changes.isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                return;
+            }
+
+            File temp = new File(file.getPath() + ".tmp");
+            write(new FileOutputStream(temp), changes);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write the worksheet changes to " + file, e);
+        }
+    }
+
+    @Override
+    public void removeAll(String keyPrefix) {
+
+        String filePrefix = encode(keyPrefix);
+        File[] files = getDirectory().listFiles((dir, name) -> name.startsWith(filePrefix));
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not delete the worksheet changes " + file, e);
+            }
+        }
+    }
+
+    private void write(FileOutputStream fileOutputStream, List<WorksheetChange> changes) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutputStream))) {
+            for (WorksheetChange change : changes) {
+                change.write(out);
+            }
+        }
+    }
+
+    private File getFile(String key) {
+
+        return new File(getDirectory(), encode(key) + ".log");
+    }
+
+    /**
+     * Every character is encoded on its own, so the encoded prefix of a key is the prefix of the
+     * encoded key.
+     */
+    private static String encode(String key) {
+
+        try {
+            return URLEncoder.encode(key, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private File getDirectory() {
+
+        File result = directory;
+        if (result != null) {
+            return result;
+        }
+
+        String path = preferences != null ? preferences.getPreference(DIRECTORY) : null;
+        if (StringUtils.isBlank(path)) {
+            result = new File(System.getProperty("java.io.tmpdir"), "jmesa-worksheets");
+        } else {
+            result = new File(path.trim());
+        }
+
+        if (!result.isDirectory() && !result.mkdirs() && !result.isDirectory()) {
+            throw new IllegalStateException("Could not create the worksheet directory " + result);
+        }
+
+        directory = result;
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.web.WebContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the change logs on the heap of this JVM. The logs are not tied to the session, so the
+ * WorksheetStoreListener has to be registered for the logs of a session to go when it ends.
+ * Meant for tests and for a single node that does not want to replicate its worksheets at all.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class MemoryWorksheetStore implements WorksheetStore {
+
+    private final Map<String, List<WorksheetChange>> changeLogs = new ConcurrentHashMap<>();
+
+    @Override
+    public List<WorksheetChange> load(WebContext webContext, String key) {
+
+        List<WorksheetChange> changeLog = changeLogs.get(key);
+        if (changeLog == null) {
+            return null;
+        }
+
+        return new ArrayList<>(changeLog);
+    }
+
+    @Override
+    public void append(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        changeLogs.computeIfAbsent(key, k -> new ArrayList<>()).addAll(changes);
+    }
+
+    @Override
+    public void replace(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        if (changes.isEmpty()) {
+            changeLogs.remove(key);
+        } else {
+            changeLogs.put(key, new ArrayList<>(changes));
+        }
+    }
+
+    @Override
+    public void removeAll(String keyPrefix) {
+
+        changeLogs.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+}
@@ -18,6 +18,8 @@ package org.jmesa.worksheet.state;
 import org.jmesa.web.WebContext;
 import org.jmesa.worksheet.Worksheet;
 
+import java.util.function.Supplier;
+
 /**
  * @author Jeff Johnston
  * @since 2.3
@@ -44,4 +46,25 @@ public class SessionWorksheetState implements WorksheetState {
 
         webContext.setSessionAttribute(id, worksheet);
     }
+
+    /**
+     * Only requests for the same session and table wait on each other.
+     */
+    @Override
+    public Worksheet retrieveOrCreateWorksheet(Supplier<Worksheet> creator) {
+
+        synchronized (WorksheetLocks.getLock(getLockKey())) {
+            Worksheet worksheet = retrieveWorksheet();
+            if (worksheet == null) {
+                worksheet = creator.get();
+                persistWorksheet(worksheet);
+            }
+            return worksheet;
+        }
+    }
+
+    private String getLockKey() {
+
+        return WorksheetLocks.getSessionKey(webContext, id);
+    }
 }
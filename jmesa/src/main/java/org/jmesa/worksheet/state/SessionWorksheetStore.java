@@ -0,0 +1,96 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.web.WebContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Keeps the change log in the session, like the SessionWorksheetState keeps the Worksheet.
+ * </p>
+ *
+ * <p>
+ * Every save is its own session attribute, and a save only ever sets the attribute with its
+ * own changes and the attribute with the number of saves. A session that is replicated when an
+ * attribute is set then only sends the changes of the save instead of the whole worksheet.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class SessionWorksheetStore implements WorksheetStore {
+
+    private static final String CHUNKS = "_CHUNKS";
+
+    @Override
+    public List<WorksheetChange> load(WebContext webContext, String key) {
+
+        int chunks = getChunks(webContext, key);
+        if (chunks == 0) {
+            return null;
+        }
+
+        List<WorksheetChange> changeLog = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            WorksheetChange[] chunk = (WorksheetChange[]) webContext.getSessionAttribute(getChunkName(key, i));
+            if (chunk != null) {
+                Collections.addAll(changeLog, chunk);
+            }
+        }
+
+        return changeLog;
+    }
+
+    @Override
+    public void append(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        int chunks = getChunks(webContext, key);
+        webContext.setSessionAttribute(getChunkName(key, chunks), changes.toArray(new WorksheetChange[changes.size()]));
+        webContext.setSessionAttribute(key + CHUNKS, chunks + 1);
+    }
+
+    @Override
+    public void replace(WebContext webContext, String key, List<WorksheetChange> changes) {
+
+        int chunks = getChunks(webContext, key);
+        for (int i = 0; i < chunks; i++) {
+            webContext.removeSessionAttribute(getChunkName(key, i));
+        }
+
+        if (changes.isEmpty()) {
+            webContext.removeSessionAttribute(key + CHUNKS);
+            return;
+        }
+
+        webContext.setSessionAttribute(getChunkName(key, 0), changes.toArray(new WorksheetChange[changes.size()]));
+        webContext.setSessionAttribute(key + CHUNKS, 1);
+    }
+
+    private int getChunks(WebContext webContext, String key) {
+
+        Integer chunks = (Integer) webContext.getSessionAttribute(key + CHUNKS);
+        return chunks != null ? chunks : 0;
+    }
+
+    private String getChunkName(String key, int chunk) {
+
+        return key + "_" + chunk;
+    }
+}
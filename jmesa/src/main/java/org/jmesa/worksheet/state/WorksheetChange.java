@@ -0,0 +1,387 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.jmesa.worksheet.UniqueProperty;
+import org.jmesa.worksheet.WorksheetRowStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * One entry in the change log of a worksheet. A row change holds the status and error of a
+ * row, a column change holds the values and error of one column of a row. A removal takes out
+ * the row or column change with the same key.
+ * </p>
+ *
+ * <p>
+ * Only strings are kept, never the items themselves, so a change is small and cheap to store.
+ * The one exception is an added row, which keeps the values of its item because there is no item
+ * to fall back on. The values keep their type as long as they are Serializable, anything else is
+ * kept as its string value.
+ * </p>
+ *
+ * <p>
+ * The item of an added row is kept as well, but only as long as the change stays in memory. It
+ * is not part of the serialized form, so a store that writes the changes out, like the
+ * FileWorksheetStore or a session that is passivated, gives back the values without the item.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public final class WorksheetChange implements Serializable {
+
+    private final String uniquePropertyName;
+    private final String uniquePropertyValue;
+    private final String property;
+    private final boolean removed;
+    private final WorksheetRowStatus rowStatus;
+    private final String originalValue;
+    private final String changedValue;
+    private final String error;
+    private final Map<String, Serializable> values;
+    private final transient Object item;
+
+    private WorksheetChange(String uniquePropertyName, String uniquePropertyValue, String property, boolean removed,
+            WorksheetRowStatus rowStatus, String originalValue, String changedValue, String error,
+            Map<String, Serializable> values, Object item) {
+
+        this.uniquePropertyName = uniquePropertyName;
+        this.uniquePropertyValue = uniquePropertyValue;
+        this.property = property;
+        this.removed = removed;
+        this.rowStatus = rowStatus;
+        this.originalValue = originalValue;
+        this.changedValue = changedValue;
+        this.error = error;
+        this.values = values;
+        this.item = item;
+    }
+
+    /**
+     * @param values The values of the item of an added row, or null for any other row. Values
+     *            that are not Serializable are kept as their string value.
+     * @param item The item of an added row, or null.
+     */
+    public static WorksheetChange rowChange(UniqueProperty uniqueProperty, WorksheetRowStatus rowStatus, String error,
+            Map<String, ?> values, Object item) {
+
+        Map<String, Serializable> copy = null;
+        if (values != null) {
+            copy = new LinkedHashMap<>();
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                Object value = entry.getValue();
+                if (value == null || value instanceof Serializable) {
+                    copy.put(entry.getKey(), (Serializable) value);
+                } else {
+                    copy.put(entry.getKey(), String.valueOf(value));
+                }
+            }
+            copy = Collections.unmodifiableMap(copy);
+        }
+
+        return new WorksheetChange(uniqueProperty.getName(), uniqueProperty.getValue(), null, false, rowStatus, null, null,
+                error, copy, item);
+    }
+
+    public static WorksheetChange columnChange(UniqueProperty uniqueProperty, String property, String originalValue,
+            String changedValue, String error) {
+
+        return new WorksheetChange(uniqueProperty.getName(), uniqueProperty.getValue(), property, false, null, originalValue,
+                changedValue, error, null, null);
+    }
+
+    /**
+     * @return The change that takes out the row or column of this change.
+     */
+    public WorksheetChange toRemoval() {
+
+        return new WorksheetChange(uniquePropertyName, uniquePropertyValue, property, true, null, null, null, null, null, null);
+    }
+
+    /**
+     * @return The key of the row or column this change is about. The row and column changes and
+     *         their removals share the same key.
+     */
+    public String getKey() {
+
+        StringBuilder key = new StringBuilder();
+        key.append(uniquePropertyName).append('\u0000').append(uniquePropertyValue);
+        if (property != null) {
+            key.append('\u0000').append(property);
+        }
+        return key.toString();
+    }
+
+    public UniqueProperty getUniqueProperty() {
+
+        return new UniqueProperty(uniquePropertyName, uniquePropertyValue);
+    }
+
+    /**
+     * @return The column property, or null if this is a row change.
+     */
+    public String getProperty() {
+
+        return property;
+    }
+
+    public boolean isRowChange() {
+
+        return property == null;
+    }
+
+    public boolean isRemoved() {
+
+        return removed;
+    }
+
+    public WorksheetRowStatus getRowStatus() {
+
+        return rowStatus;
+    }
+
+    public String getOriginalValue() {
+
+        return originalValue;
+    }
+
+    public String getChangedValue() {
+
+        return changedValue;
+    }
+
+    public String getError() {
+
+        return error;
+    }
+
+    /**
+     * @return The values of the item of an added row, or null.
+     */
+    public Map<String, Serializable> getValues() {
+
+        return values;
+    }
+
+    /**
+     * @return The item of an added row, or null if there is none or it did not survive the
+     *         store.
+     */
+    public Object getItem() {
+
+        return item;
+    }
+
+    void write(DataOutput out) throws IOException {
+
+        writeString(out, uniquePropertyName);
+        writeString(out, uniquePropertyValue);
+        writeString(out, property);
+        out.writeBoolean(removed);
+        writeString(out, rowStatus != null ? rowStatus.name() : null);
+        writeString(out, originalValue);
+        writeString(out, changedValue);
+        writeString(out, error);
+
+        if (values == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(values.size());
+            for (Map.Entry<String, Serializable> entry : values.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        }
+    }
+
+    static WorksheetChange read(DataInput in) throws IOException {
+
+        String uniquePropertyName = readString(in);
+        String uniquePropertyValue = readString(in);
+        String property = readString(in);
+        boolean removed = in.readBoolean();
+        String rowStatus = readString(in);
+        String originalValue = readString(in);
+        String changedValue = readString(in);
+        String error = readString(in);
+
+        Map<String, Serializable> values = null;
+        int size = in.readInt();
+        if (size >= 0) {
+            values = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                values.put(readString(in), readValue(in));
+            }
+            values = Collections.unmodifiableMap(values);
+        }
+
+        return new WorksheetChange(uniquePropertyName, uniquePropertyValue, property, removed,
+                rowStatus != null ? WorksheetRowStatus.valueOf(rowStatus) : null, originalValue, changedValue, error, values, null);
+    }
+
+    /**
+     * Strings are written as they are, anything else with Java serialization.
+     */
+    private static void writeValue(DataOutput out, Serializable value) throws IOException {
+
+        if (value == null || value instanceof String) {
+            out.writeBoolean(false);
+            writeString(out, (String) value);
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+            objectOut.writeObject(value);
+        }
+
+        out.writeBoolean(true);
+        out.writeInt(bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    private static Serializable readValue(DataInput in) throws IOException {
+
+        if (!in.readBoolean()) {
+            return readString(in);
+        }
+
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream objectIn = new ContextObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Serializable) objectIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not read a worksheet value", e);
+        }
+    }
+
+    /**
+     * Not writeUTF(), which is limited to 64K.
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Resolves the classes of the values with the context class loader, which in a web
+     * application is the one that can see them.
+     */
+    private static class ContextObjectInputStream extends ObjectInputStream {
+
+        ContextObjectInputStream(ByteArrayInputStream in) throws IOException {
+
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // fall back on the default resolution
+                }
+            }
+
+            return super.resolveClass(desc);
+        }
+    }
+
+    /**
+     * The item is left out, it is only carried along.
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof WorksheetChange)) {
+            return false;
+        }
+
+        WorksheetChange that = (WorksheetChange) o;
+        return removed == that.removed
+                && Objects.equals(uniquePropertyName, that.uniquePropertyName)
+                && Objects.equals(uniquePropertyValue, that.uniquePropertyValue)
+                && Objects.equals(property, that.property)
+                && rowStatus == that.rowStatus
+                && Objects.equals(originalValue, that.originalValue)
+                && Objects.equals(changedValue, that.changedValue)
+                && Objects.equals(error, that.error)
+                && Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(uniquePropertyName, uniquePropertyValue, property, removed, rowStatus, originalValue, changedValue,
+                error, values);
+    }
+
+    @Override
+    public String toString() {
+
+        ToStringBuilder builder = new ToStringBuilder(this);
+        builder.append("uniqueProperty", getUniqueProperty());
+        builder.append("property", property);
+        builder.append("removed", removed);
+        builder.append("rowStatus", rowStatus);
+        builder.append("originalValue", originalValue);
+        builder.append("changedValue", changedValue);
+        builder.append("error", error);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.web.WebContext;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.PageContext;
+import java.util.UUID;
+
+/**
+ * A fixed set of lock objects. A key always maps to the same lock, and
+ * different keys are spread over all of them, so unrelated worksheets
+ * rarely wait on each other.
+ *
+ * @since 4.5
+ * @author xwx
+ */
+final class WorksheetLocks {
+
+    static final String SESSION_TOKEN = WorksheetLocks.class.getName() + ".SESSION_TOKEN";
+
+    private static final int STRIPES = 256;
+
+    private static final Object[] LOCKS = new Object[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private WorksheetLocks() {}
+
+    static Object getLock(Object key) {
+
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return LOCKS[h & (STRIPES - 1)];
+    }
+
+    /**
+     * @return The name qualified by the token of the session. Without a session the name would be
+     *         shared by all the users, so that is an error.
+     */
+    static String getSessionKey(WebContext webContext, String name) {
+
+        HttpServletRequest request = getRequest(webContext.getBackingObject());
+        if (request == null) {
+            throw new IllegalStateException("The worksheet needs an HTTP session, but the WebContext is backed by "
+                    + webContext.getBackingObject());
+        }
+
+        return getKeyPrefix(getSessionToken(request.getSession())) + name;
+    }
+
+    /**
+     * The token is a random id kept in the session. Unlike the id of the session it stays the
+     * same when the container changes the session id, for example when the user logs in.
+     */
+    static Object getSessionToken(HttpSession session) {
+
+        Object token = session.getAttribute(SESSION_TOKEN);
+        if (token != null) {
+            return token;
+        }
+
+        synchronized (WorksheetLocks.class) {
+            token = session.getAttribute(SESSION_TOKEN);
+            if (token == null) {
+                token = UUID.randomUUID().toString();
+                session.setAttribute(SESSION_TOKEN, token);
+            }
+        }
+
+        return token;
+    }
+
+    /**
+     * @return The start of the keys of all the worksheets of the session with the token.
+     */
+    static String getKeyPrefix(Object sessionToken) {
+
+        return sessionToken + "|";
+    }
+
+    private static HttpServletRequest getRequest(Object backingObject) {
+
+        if (backingObject instanceof HttpServletRequest) {
+            return (HttpServletRequest) backingObject;
+        }
+
+        if (backingObject instanceof PageContext) {
+            ServletRequest request = ((PageContext) backingObject).getRequest();
+            if (request instanceof HttpServletRequest) {
+                return (HttpServletRequest) request;
+            }
+        }
+
+        return null;
+    }
+}
@@ -17,6 +17,8 @@ package org.jmesa.worksheet.state;
 
 import org.jmesa.worksheet.Worksheet;
 
+import java.util.function.Supplier;
+
 /**
  * <p>
  * Abstracts out where the Worksheet is being held so that the servlet and facade can work with the
@@ -31,4 +33,55 @@ public interface WorksheetState {
     Worksheet retrieveWorksheet();
 
     void persistWorksheet(Worksheet worksheet);
+
+    /**
+     * <p>
+     * Retrieve the Worksheet, or create and persist a new one if there is
+     * none yet. Two requests for the same Worksheet either end up with the
+     * same instance, or with their own instances and a shared getLock().
+     * </p>
+     *
+     * <p>
+     * The default implementation does this under one lock per WorksheetState
+     * class. Implementations that know who the Worksheet belongs to should
+     * lock on just that Worksheet.
+     * </p>
+     *
+     * @param creator Creates the Worksheet if there is none.
+     * @return The Worksheet.
+     * @since 4.5
+     */
+    default Worksheet retrieveOrCreateWorksheet(Supplier<Worksheet> creator) {
+
+        synchronized (WorksheetLocks.getLock(getClass())) {
+            Worksheet worksheet = retrieveWorksheet();
+            if (worksheet == null) {
+                worksheet = creator.get();
+                persistWorksheet(worksheet);
+            }
+            return worksheet;
+        }
+    }
+
+    /**
+     * <p>
+     * The object to hold while the Worksheet is changed and persisted, so
+     * the edits of two requests for the same Worksheet do not run into each
+     * other.
+     * </p>
+     *
+     * <p>
+     * The default is the Worksheet itself, which is right when every request
+     * gets the same instance. An implementation that gives every request its
+     * own instance has to return a lock that all of them share.
+     * </p>
+     *
+     * @param worksheet The retrieved Worksheet.
+     * @return The lock.
+     * @since 4.5
+     */
+    default Object getLock(Worksheet worksheet) {
+
+        return worksheet;
+    }
 }
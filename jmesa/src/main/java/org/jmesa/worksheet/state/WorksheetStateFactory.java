@@ -0,0 +1,99 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesFactory;
+import org.jmesa.core.preference.PreferencesSupport;
+import org.jmesa.web.WebContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Creates the WorksheetState for a table. By default the Worksheet is kept in the session with
+ * the SessionWorksheetState. When the worksheet.store preference names a WorksheetStore the
+ * worksheet is kept as a change log in that store with the ChangeLogWorksheetState instead.
+ * </p>
+ *
+ * <pre>
+ * worksheet.store=org.jmesa.worksheet.state.SessionWorksheetStore
+ * </pre>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class WorksheetStateFactory {
+
+    public static final String WORKSHEET_STORE = "worksheet.store";
+    public static final String WORKSHEET_STORES = WorksheetStateFactory.class.getName() + ".WORKSHEET_STORES";
+
+    private WorksheetStateFactory() {}
+
+    public static WorksheetState createWorksheetState(String id, WebContext webContext) {
+
+        Preferences preferences = PreferencesFactory.getPreferences(webContext);
+        String className = preferences != null ? preferences.getPreference(WORKSHEET_STORE) : null;
+        if (StringUtils.isBlank(className)) {
+            return new SessionWorksheetState(id, webContext);
+        }
+
+        WorksheetStore worksheetStore = getWorksheetStores(webContext)
+                .computeIfAbsent(className.trim(), name -> createWorksheetStore(name, preferences));
+        return new ChangeLogWorksheetState(id, webContext, worksheetStore);
+    }
+
+    /**
+     * @return The stores of the application by class name. There is one store per class and
+     *         application, as the memory and file stores hold on to the worksheets of all users.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, WorksheetStore> getWorksheetStores(WebContext webContext) {
+
+        Map<String, WorksheetStore> stores = (Map<String, WorksheetStore>) webContext.getApplicationAttribute(WORKSHEET_STORES);
+        if (stores != null) {
+            return stores;
+        }
+
+        synchronized (WorksheetStateFactory.class) {
+            stores = (Map<String, WorksheetStore>) webContext.getApplicationAttribute(WORKSHEET_STORES);
+            if (stores == null) {
+                stores = new ConcurrentHashMap<>();
+                webContext.setApplicationAttribute(WORKSHEET_STORES, stores);
+            }
+        }
+
+        return stores;
+    }
+
+    private static WorksheetStore createWorksheetStore(String className, Preferences preferences) {
+
+        WorksheetStore worksheetStore;
+        try {
+            worksheetStore = (WorksheetStore) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("The class " + className + " does not exist", e);
+        }
+
+        if (worksheetStore instanceof PreferencesSupport) {
+            ((PreferencesSupport) worksheetStore).setPreferences(preferences);
+        }
+
+        return worksheetStore;
+    }
+}
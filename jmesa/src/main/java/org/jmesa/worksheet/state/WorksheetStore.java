@@ -0,0 +1,66 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.web.WebContext;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Where the ChangeLogWorksheetState keeps the change log of a worksheet. The log only ever
+ * grows by the changes since the last save, until the state replaces it with a compacted copy.
+ * </p>
+ *
+ * <p>
+ * The key identifies the worksheet of one table of one user. The ChangeLogWorksheetState holds
+ * the lock for the key while it calls the store, so an implementation does not need to guard
+ * against two calls for the same key at the same time. One instance of a store is shared by the
+ * whole application.
+ * </p>
+ *
+ * <p>
+ * A store that keeps the logs outside of the session has to let go of them once the session
+ * ends. The WorksheetStoreListener calls removeAll() with the key prefix of the session when it
+ * is destroyed.
+ * </p>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public interface WorksheetStore {
+
+    /**
+     * @return The change log in the order the changes were appended, or null if there is none.
+     */
+    List<WorksheetChange> load(WebContext webContext, String key);
+
+    /**
+     * Add the changes to the end of the change log.
+     */
+    void append(WebContext webContext, String key, List<WorksheetChange> changes);
+
+    /**
+     * Replace the whole change log. An empty list removes the change log.
+     */
+    void replace(WebContext webContext, String key, List<WorksheetChange> changes);
+
+    /**
+     * Remove all the change logs with a key that starts with the prefix. The keys of all the
+     * worksheets of a session start with the same prefix.
+     */
+    default void removeAll(String keyPrefix) {}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import javax.servlet.annotation.WebListener;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+import java.util.Map;
+
+/**
+ * <p>
+ * Removes the change logs of a session from the worksheet stores of the
+ * application when the session ends. The memory and file stores do not live
+ * in the session, so without it the worksheets of every session stay until
+ * the application stops, or on disk for good.
+ * </p>
+ *
+ * <p>
+ * It is picked up by the container through its @WebListener annotation, but
+ * if the web.xml is metadata-complete it has to be declared there:
+ * </p>
+ *
+ * <pre>
+ * &lt;listener&gt;
+ *     &lt;listener-class&gt;org.jmesa.worksheet.state.WorksheetStoreListener&lt;/listener-class&gt;
+ * &lt;/listener&gt;
+ * </pre>
+ *
+ * @since 4.5
+ * @author xwx
+ */
+@WebListener
+public class WorksheetStoreListener implements HttpSessionListener {
+
+    @Override
+    public void sessionCreated(HttpSessionEvent event) {}
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sessionDestroyed(HttpSessionEvent event) {
+
+        HttpSession session = event.getSession();
+        Object token = session.getAttribute(WorksheetLocks.SESSION_TOKEN);
+        if (token == null) {
+            return;
+        }
+
+        Map<String, WorksheetStore> stores =
+                (Map<String, WorksheetStore>) session.getServletContext().getAttribute(WorksheetStateFactory.WORKSHEET_STORES);
+        if (stores == null) {
+            return;
+        }
+
+        String keyPrefix = WorksheetLocks.getKeyPrefix(token);
+        for (WorksheetStore worksheetStore : stores.values()) {
+            worksheetStore.removeAll(keyPrefix);
+        }
+    }
+}
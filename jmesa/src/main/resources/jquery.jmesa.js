@@ -83,19 +83,10 @@
 
             if (lastValue == changedValue) { return; }
 
-            var data = '{ "id" : "' + id + '"';
-            data += ', "cp_" : "' + property + '"';
-            data += ', "up_' + uniqueProperty + '" : "' + uniqueValue + '"';
-            data += ', "ov_" : "' + encodeURIComponent(originalValue) + '"';
-            data += ', "cv_" : "' + encodeURIComponent(changedValue) + '"';
-            data += '}';
+            var cell = { 'cp_' : property, 'ov_' : originalValue, 'cv_' : changedValue };
+            cell['up_' + uniqueProperty] = uniqueValue;
 
-            var contextPath = $(this.getForm(id)).find('input[name="' + id + '_ctx_"]').val();
-            if (contextPath) {
-               contextPath += "/";
-            }
-
-            $.post(contextPath + 'jmesa.wrk', jQuery.parseJSON(data), function(columnStatus) {
+            this.queueWorksheetCell(id, cell, function(columnStatus) {
                 $(column).data('lastValue', changedValue);
                 //jQuery.jmesa.updateCssClass(columnStatus, cell, errorMessage);
             });
@@ -112,32 +103,89 @@
                 originalValue = 'checked';
             }
 
-            var data = '{ "id" : "' + id + '"';
-            data += ', "cp_" : "' + property + '"';
-            data += ', "up_' + uniqueProperty + '" : "' + uniqueValue + '"';
-            data += ', "ov_" : "' + encodeURIComponent(originalValue) + '"';
-            data += ', "cv_" : "' + encodeURIComponent(changedValue) + '"';
-            data += '}';
+            var cell = { 'cp_' : property, 'ov_' : originalValue, 'cv_' : changedValue };
+            cell['up_' + uniqueProperty] = uniqueValue;
+
+            this.queueWorksheetCell(id, cell, function(columnStatus) {
+               //jQuery.jmesa.updateCssClass(columnStatus, cell, errorMessage);
+            });
+        },
+        /*
+         * Edits are collected per table and sent to the worksheet servlet as one JSON array
+         * once there have been no edits for worksheetBatchDelay milliseconds.
+         */
+        worksheetBatchDelay : 250,
+        worksheetQueues : {},
+        queueWorksheetCell : function(id, cell, callback) {
+
+            var queue = this.worksheetQueues[id];
+            if (!queue) {
+                queue = this.worksheetQueues[id] = { cells : [], callbacks : [], timer : null };
+            }
+
+            queue.cells.push(cell);
+            queue.callbacks.push(callback);
+
+            if (queue.timer) {
+                clearTimeout(queue.timer);
+            }
+
+            var api = this;
+            queue.timer = setTimeout(function() {
+                api.flushWorksheet(id, true);
+            }, this.worksheetBatchDelay);
+        },
+        flushWorksheet : function(id, async) {
+
+            var queue = this.worksheetQueues[id];
+            if (!queue || queue.cells.length == 0) {
+                return;
+            }
+
+            if (queue.timer) {
+                clearTimeout(queue.timer);
+                queue.timer = null;
+            }
+
+            var cells = queue.cells;
+            var callbacks = queue.callbacks;
+            queue.cells = [];
+            queue.callbacks = [];
 
             var contextPath = $(this.getForm(id)).find('input[name="' + id + '_ctx_"]').val();
             if (contextPath) {
                contextPath += "/";
             }
 
-            $.post(contextPath + 'jmesa.wrk', jQuery.parseJSON(data), function(columnStatus) {
-               //jQuery.jmesa.updateCssClass(columnStatus, cell, errorMessage);
+            $.ajax({
+                url : contextPath + 'jmesa.wrk?id=' + encodeURIComponent(id),
+                type : 'POST',
+                async : async !== false,
+                contentType : 'application/json; charset=UTF-8',
+                dataType : 'json',
+                data : JSON.stringify(cells),
+                success : function(columnStatuses) {
+                    for (var i = 0; i < callbacks.length; i++) {
+                        callbacks[i](columnStatuses[i]);
+                    }
+                }
             });
         },
         createHiddenInputFieldsForLimitAndSubmit : function(id) {
 
+            this.flushWorksheet(id, false);
             $(this.getForm(id)).submit();
         },
         submitTableForm : function(id) {
 
+            this.flushWorksheet(id, false);
             $(this.getForm(id)).submit();
         },
         createParameterStringForLimit : function(id) {
 
+            /* the worksheet has to be up to date before the table is reloaded */
+            this.flushWorksheet(id, false);
+
             var url = '';
 
             /* export fields */
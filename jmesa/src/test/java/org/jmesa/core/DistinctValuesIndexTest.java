@@ -0,0 +1,108 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.jmesa.test.AbstractTestCase;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class DistinctValuesIndexTest extends AbstractTestCase {
+
+    @Test
+    public void distinctValues() {
+
+        DistinctValues distinctValues = DistinctValues.create(PresidentDao.getPresidents(), "name.firstName", 1000);
+
+        List<String> values = distinctValues.getValues();
+        assertFalse(distinctValues.isTruncated());
+        assertEquals(36, values.size());
+        assertEquals("Abraham", values.get(0));
+
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue(values.get(i - 1).compareToIgnoreCase(values.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void truncated() {
+
+        DistinctValues distinctValues = DistinctValues.create(PresidentDao.getPresidents(), "name.firstName", 5);
+
+        assertTrue(distinctValues.isTruncated());
+        assertEquals(5, distinctValues.getValues().size());
+    }
+
+    @Test
+    public void cachedByDataVersion() {
+
+        WebContext webContext = createWebContext();
+        DistinctValuesIndex index = DistinctValuesIndex.getInstance(webContext);
+        assertSame(index, DistinctValuesIndex.getInstance(webContext));
+
+        Collection<President> items = new ArrayList<President>(PresidentDao.getPresidents());
+
+        DistinctValues first = index.getDistinctValues(ID, "name.firstName", 1L, items, 1000);
+        items.clear();
+        assertSame(first, index.getDistinctValues(ID, "name.firstName", 1L, items, 1000));
+
+        DistinctValues changed = index.getDistinctValues(ID, "name.firstName", 2L, items, 1000);
+        assertNotSame(first, changed);
+        assertTrue(changed.getValues().isEmpty());
+
+        DistinctValues unversioned = index.getDistinctValues(ID, "name.firstName", null, PresidentDao.getPresidents(), 1000);
+        assertNotSame(unversioned, index.getDistinctValues(ID, "name.firstName", null, PresidentDao.getPresidents(), 1000));
+    }
+
+    @Test
+    public void startingWith() {
+
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (String value : Arrays.asList("john", "James", "John", "Johnson", "Andrew", "", "jo")) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("name", value);
+            items.add(item);
+        }
+        items.add(new HashMap<String, Object>());
+
+        DistinctValues distinctValues = DistinctValues.create(items, "name", 100);
+
+        assertEquals(6, distinctValues.getValues().size());
+        assertEquals(4, distinctValues.startingWith("JO", 100).size());
+        assertEquals(new HashSet<String>(Arrays.asList("john", "John", "Johnson")), new HashSet<String>(distinctValues.startingWith("john", 100)));
+        assertEquals("Johnson", distinctValues.startingWith("john", 100).get(2));
+        assertEquals(Arrays.asList("James"), distinctValues.startingWith("ja", 100));
+        assertTrue(distinctValues.startingWith("x", 100).isEmpty());
+        assertEquals(3, distinctValues.startingWith("", 3).size());
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import org.apache.commons.collections.Predicate;
+import org.jmesa.core.filter.PredicateRowFilter;
+import org.jmesa.core.sort.ComparatorColumnSort;
+import org.jmesa.core.sort.MultiColumnSort;
+import org.jmesa.core.sort.ParallelColumnSort;
+import org.jmesa.limit.Limit;
+import org.jmesa.limit.LimitFactory;
+import org.jmesa.limit.Order;
+import org.jmesa.test.ParametersAdapter;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ItemsTest {
+
+    private static final String ID = "pres";
+    private static final int MAX_ROWS = 10;
+    private static final int TOTAL_ROWS = 200;
+
+    @Test
+    public void pageItemsMatchFullSort() {
+
+        pageItemsMatchFullSort(new MultiColumnSort());
+    }
+
+    @Test
+    public void parallelPageItemsMatchFullSort() {
+
+        ParallelColumnSort columnSort = new ParallelColumnSort();
+        columnSort.setParallelThreshold(0);
+        pageItemsMatchFullSort(columnSort);
+    }
+
+    private void pageItemsMatchFullSort(ComparatorColumnSort columnSort) {
+
+        List<Map<String, Object>> data = getData();
+
+        for (int page = 1; page <= TOTAL_ROWS / MAX_ROWS; page++) {
+            Limit limit = createLimit(page, TOTAL_ROWS);
+            Items items = new Items(data, limit, new EvenRowFilter(), columnSort);
+
+            List<Map<String, Object>> expected = new ArrayList<>();
+            for (Map<String, Object> item : data) {
+                if (((Integer) item.get("id")) % 2 == 0) {
+                    expected.add(item);
+                }
+            }
+            Collections.sort(expected, (o1, o2) -> ((Integer) o1.get("group")).compareTo((Integer) o2.get("group")));
+
+            assertEquals(expected.size(), limit.getRowSelect().getTotalRows());
+            assertEquals(expected.size(), items.getFilteredItems().size());
+            assertEquals(expected, items.getSortedItems());
+
+            int rowStart = limit.getRowSelect().getRowStart();
+            int rowEnd = limit.getRowSelect().getRowEnd();
+            if (rowStart < expected.size()) {
+                assertEquals(expected.subList(rowStart, Math.min(rowEnd, expected.size())), items.getPageItems());
+            }
+        }
+    }
+
+    @Test
+    public void unmodifiableViewIsCopied() {
+
+        List<Map<String, Object>> data = Collections.unmodifiableList(getData());
+
+        Items items = new Items(data, createLimit(1, TOTAL_ROWS), new EvenRowFilter(), new MultiColumnSort());
+
+        // the owner of the backing list can still change it, so it needs a copy
+        assertNotSame(data, items.getAllItems());
+        assertEquals(data, items.getAllItems());
+    }
+
+    @Test
+    public void immutableListIsNotCopied() {
+
+        List<Map<String, Object>> data = Collections.singletonList(getData().get(0));
+
+        Items items = new Items(data, createLimit(1, 1), new EvenRowFilter(), new MultiColumnSort());
+
+        assertSame(data, items.getAllItems());
+    }
+
+    @Test
+    public void overriddenSortItemsIsUsed() {
+
+        List<Map<String, Object>> data = getData();
+
+        MultiColumnSort reverseSort = new MultiColumnSort() {
+
+            @Override
+            public Collection<?> sortItems(Collection<?> items, Limit limit) {
+
+                List<Object> reversed = new ArrayList<>(items);
+                Collections.reverse(reversed);
+                return reversed;
+            }
+        };
+
+        Items items = new Items(data, createLimit(1, TOTAL_ROWS), new EvenRowFilter(), reverseSort);
+
+        List<Object> expected = new ArrayList<>(items.getFilteredItems());
+        Collections.reverse(expected);
+        assertEquals(expected, items.getSortedItems());
+    }
+
+    private List<Map<String, Object>> getData() {
+
+        Random random = new Random(42);
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < TOTAL_ROWS; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", i);
+            item.put("group", random.nextInt(7));
+            data.add(item);
+        }
+        return data;
+    }
+
+    private Limit createLimit(int page, int totalRows) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        ParametersBuilder builder = new ParametersBuilder(ID, new ParametersAdapter(parameters));
+        builder.setPage(page);
+        builder.addSort("group", Order.ASC);
+
+        WebContext webContext = new HttpServletRequestWebContext(new MockHttpServletRequest());
+        webContext.setParameterMap(parameters);
+        LimitFactory limitFactory = new LimitFactory(ID, webContext);
+        Limit limit = limitFactory.createLimit();
+        limit.setRowSelect(limitFactory.createRowSelect(MAX_ROWS, totalRows));
+        return limit;
+    }
+
+    private static class EvenRowFilter implements PredicateRowFilter {
+
+        @Override
+        public Collection<?> filterItems(Collection<?> items, Limit limit) {
+
+            Predicate predicate = createPredicate(items, limit);
+            List<Object> results = new ArrayList<>();
+            for (Object item : items) {
+                if (predicate.evaluate(item)) {
+                    results.add(item);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public Predicate createPredicate(Collection<?> items, Limit limit) {
+
+            return item -> ((Integer) ((Map<?, ?>) item).get("id")) % 2 == 0;
+        }
+    }
+}
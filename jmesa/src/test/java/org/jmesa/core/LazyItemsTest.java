@@ -0,0 +1,89 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.Iterator;
+import org.jmesa.core.filter.SimpleRowFilter;
+import org.jmesa.core.sort.MultiColumnSort;
+import org.jmesa.limit.Limit;
+import org.jmesa.limit.LimitFactory;
+import org.jmesa.test.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class LazyItemsTest extends AbstractTestCase {
+
+    @Test
+    public void itemsAreNotCopied() {
+
+        Collection<President> presidents = PresidentDao.getPresidents();
+        ClosingIterator iterator = new ClosingIterator(presidents.iterator());
+        LazyItems lazyItems = new LazyItems(iterator, presidents.size());
+
+        Limit limit = new LimitFactory(ID, createWebContext()).createLimit();
+        Items items = new Items(lazyItems, limit, new SimpleRowFilter(), new MultiColumnSort());
+
+        assertSame(lazyItems, items.getAllItems());
+        assertSame(lazyItems, items.getPageItems());
+
+        int count = 0;
+        for (Object item : items.getPageItems()) {
+            count++;
+        }
+
+        assertEquals(presidents.size(), count);
+        assertTrue(iterator.closed, "The iterator was not closed.");
+        assertThrows(IllegalStateException.class, lazyItems::iterator);
+    }
+
+    private static class ClosingIterator implements Iterator<Object>, AutoCloseable {
+
+        private final Iterator<?> iterator;
+        private boolean closed;
+
+        ClosingIterator(Iterator<?> iterator) {
+
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+
+            closed = true;
+        }
+    }
+}
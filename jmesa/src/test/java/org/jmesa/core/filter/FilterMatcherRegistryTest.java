@@ -46,6 +46,19 @@ public class FilterMatcherRegistryTest extends AbstractTestCase {
         assertTrue(result instanceof DateFilterMatcher);
     }
 
+    @Test
+    public void getMatchWithDateObjectAfterRegister() {
+
+        FilterMatcherRegistry registry = new FilterMatcherRegistry();
+        registry.addFilterMatcher(new MatcherKey(Object.class), new StringFilterMatcher());
+
+        MatcherKey key = new MatcherKey(Timestamp.class);
+        assertTrue(registry.getFilterMatcher(key) instanceof StringFilterMatcher);
+
+        registry.addFilterMatcher(new MatcherKey(Date.class), new DateFilterMatcher());
+        assertTrue(registry.getFilterMatcher(key) instanceof DateFilterMatcher);
+    }
+
     @Test
     public void getMatchWithObject() {
 
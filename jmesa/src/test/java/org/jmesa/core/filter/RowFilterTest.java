@@ -15,19 +15,24 @@
  */
 package org.jmesa.core.filter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.jmesa.core.Name;
 import org.jmesa.core.President;
 import org.jmesa.core.PresidentDao;
 import org.jmesa.limit.Comparison;
+import org.jmesa.limit.FilterSet;
 import org.jmesa.limit.Limit;
 import org.jmesa.limit.LimitFactory;
+import org.jmesa.limit.SingleValueFilter;
 import org.jmesa.test.AbstractTestCase;
 import org.jmesa.test.ParametersAdapter;
 import org.jmesa.test.ParametersBuilder;
@@ -117,4 +122,90 @@ public class RowFilterTest extends AbstractTestCase {
 
         assertTrue(items.size() == 2);
     }
+
+    @Test
+    public void parallelFilterItems() {
+
+        FilterMatcherRegistry registry = new FilterMatcherRegistry();
+        MatcherKey key = new MatcherKey(String.class);
+        FilterMatcher match = new StringFilterMatcher();
+        registry.addFilterMatcher(key, match);
+
+        WebContext webContext = createWebContext();
+
+        Map<String, Object> results = new HashMap<>();
+        ParametersAdapter parametersAdapter = new ParametersAdapter(results);
+        ParametersBuilder builder = new ParametersBuilder(ID, parametersAdapter);
+        builder.addFilter("name.fullName",  "george");
+        webContext.setParameterMap(results);
+
+        LimitFactory limitFactory = new LimitFactory(ID, webContext);
+        Limit limit = limitFactory.createLimit();
+
+        List<President> presidents = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            presidents.addAll(PresidentDao.getPresidents());
+        }
+
+        SimpleRowFilter simpleFilter = new SimpleRowFilter();
+        simpleFilter.setFilterMatcherRegistry(registry);
+        Collection<?> expected = simpleFilter.filterItems(presidents, limit);
+
+        ParallelRowFilter itemsFilter = new ParallelRowFilter();
+        itemsFilter.setFilterMatcherRegistry(registry);
+        itemsFilter.setParallelThreshold(0);
+        Collection<?> items = itemsFilter.filterItems(presidents, limit);
+
+        assertTrue(items.size() == 300);
+        assertIterableEquals(expected, items);
+    }
+
+    @Test
+    public void filterNestedFilterSets() {
+
+        FilterMatcherRegistry registry = new FilterMatcherRegistry();
+        MatcherKey key = new MatcherKey(String.class);
+        FilterMatcher match = new StringFilterMatcher();
+        registry.addFilterMatcher(key, match);
+
+        SimpleRowFilter itemsFilter = new SimpleRowFilter();
+        itemsFilter.setFilterMatcherRegistry(registry);
+
+        // (bush and george w) or adams
+        FilterSet bush = new FilterSet();
+        bush.addFilter(new SingleValueFilter("name.lastName", Comparison.IS, new Object[]{"bush"}));
+        bush.addFilter(new SingleValueFilter("name.firstName", Comparison.IS, new Object[]{"george w"}));
+
+        FilterSet adams = new FilterSet();
+        adams.addFilter(new SingleValueFilter("name.lastName", Comparison.IS, new Object[]{"adams"}));
+
+        FilterSet filterSet = new FilterSet();
+        filterSet.setOperator(FilterSet.Operator.OR);
+        filterSet.getFilterSets().add(bush);
+        filterSet.getFilterSets().add(adams);
+
+        Limit limit = new Limit(ID);
+        limit.setFilterSet(filterSet);
+
+        assertTrue(filterSet.isFiltered());
+        Collection<?> items = itemsFilter.filterItems(PresidentDao.getPresidents(), limit);
+        assertEquals(3, items.size());
+
+        // john and (adams or kennedy)
+        FilterSet kennedy = new FilterSet();
+        kennedy.addFilter(new SingleValueFilter("name.lastName", Comparison.IS, new Object[]{"kennedy"}));
+
+        FilterSet lastNames = new FilterSet();
+        lastNames.setOperator(FilterSet.Operator.OR);
+        lastNames.getFilterSets().add(adams);
+        lastNames.getFilterSets().add(kennedy);
+
+        filterSet = new FilterSet();
+        filterSet.addFilter(new SingleValueFilter("name.firstName", Comparison.IS, new Object[]{"john"}));
+        filterSet.getFilterSets().add(lastNames);
+        limit.setFilterSet(filterSet);
+
+        items = itemsFilter.filterItems(PresidentDao.getPresidents(), limit);
+        assertEquals(3, items.size());
+    }
 }
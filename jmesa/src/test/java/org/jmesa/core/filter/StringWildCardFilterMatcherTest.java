@@ -58,6 +58,21 @@ public class StringWildCardFilterMatcherTest {
         assertTrue(evaluate);
     }
 
+    @Test
+    public void prepareTest() {
+
+        StringWildCardFilterMatcher match = new StringWildCardFilterMatcher();
+
+        assertFalse(match.prepare(Comparison.IS_NULL, (Object[]) null).evaluate("george"));
+
+        PreparedFilterMatcher prepared = match.prepare(Comparison.CONTAIN, "g*");
+        assertTrue(prepared.evaluate("george"));
+        assertTrue(prepared.evaluate("George"));
+        assertFalse(prepared.evaluate("washington"));
+
+        assertFalse(match.prepare(Comparison.CONTAIN, "g(").evaluate("george"));
+    }
+
     @Test
     public void testCaseInsensitivity() {
 
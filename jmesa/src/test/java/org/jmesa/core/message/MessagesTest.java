@@ -16,6 +16,8 @@
 package org.jmesa.core.message;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Locale;
@@ -48,4 +50,21 @@ public class MessagesTest {
 		assertNotNull(message);
 		assertTrue(message.equals("foo 1"));
 	}
+
+	@Test
+	public void getMessagesFromRegistry() {
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		WebContext webContext = new HttpServletRequestWebContext(request);
+		webContext.setLocale(Locale.US);
+
+		MessagesRegistry registry = MessagesRegistry.getInstance(webContext);
+		Messages messages = registry.getMessages("testResourceBundle", webContext);
+		assertTrue(messages.getMessage("test.normal").equals("foo"));
+		assertSame(messages, registry.getMessages("testResourceBundle", webContext));
+
+		WebContext frenchWebContext = new HttpServletRequestWebContext(request);
+		frenchWebContext.setLocale(Locale.FRENCH);
+		assertNotSame(messages, registry.getMessages("testResourceBundle", frenchWebContext));
+	}
 }
@@ -41,4 +41,17 @@ public class PreferencesTest extends AbstractTestCase {
         assertNotNull("preference test.data is null " , preference);
         assertTrue(preference.equals("foo"));
     }
+
+    @Test
+    public void getPreferencesFromRegistry() {
+
+        WebContext webContext = createWebContext();
+        PreferencesRegistry registry = PreferencesRegistry.getInstance(webContext);
+        assertSame(registry, PreferencesRegistry.getInstance(webContext));
+
+        Preferences preferences = registry.getPreferences("/test.properties", webContext);
+        assertEquals("foo", preferences.getPreference("test.data"));
+        assertSame(preferences, registry.getPreferences("/test.properties", webContext));
+        assertNotSame(preferences, registry.getPreferences(null, webContext));
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.jmesa.core.sort;
 
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import org.jmesa.core.Name;
 import org.jmesa.core.President;
@@ -261,4 +263,37 @@ public class ColumnSortTest extends AbstractTestCase {
         President second = (President)iterator.next();
         assertTrue(()->second.getTerm().equals("1797-1801"), "the second sort order is wrong");
     }
+
+    @Test
+    public void parallelSortItems() {
+
+        WebContext webContext = createWebContext();
+
+        HashMap<String, Object> results = new HashMap<>();
+        ParametersAdapter parametersAdapter = new ParametersAdapter(results);
+        ParametersBuilder builder = new ParametersBuilder(ID, parametersAdapter);
+        builder.addSort("politicalParty", Order.ASC);
+        builder.addSort("died", Order.DESC);
+        webContext.setParameterMap(results);
+
+        LimitFactory limitFactory = new LimitFactory(ID, webContext);
+        Limit limit = limitFactory.createLimit();
+
+        // lots of ties and null values to check the order is stable
+        List<President> presidents = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            presidents.addAll(PresidentDao.getPresidents());
+        }
+        for (int i = 0; i < presidents.size(); i += 7) {
+            presidents.get(i).setPoliticalParty(null);
+        }
+
+        Collection<?> expected = new MultiColumnSort().sortItems(new ArrayList<>(presidents), limit);
+
+        ParallelColumnSort itemsSort = new ParallelColumnSort();
+        itemsSort.setParallelThreshold(0);
+        Collection<?> items = itemsSort.sortItems(new ArrayList<>(presidents), limit);
+
+        assertIterableEquals(expected, items);
+    }
 }
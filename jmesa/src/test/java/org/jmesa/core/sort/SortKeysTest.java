@@ -0,0 +1,100 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.core.sort;
+
+import org.apache.commons.beanutils.BeanComparator;
+import org.apache.commons.collections.comparators.ComparatorChain;
+import org.apache.commons.collections.comparators.NullComparator;
+import org.jmesa.core.President;
+import org.jmesa.core.PresidentDao;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class SortKeysTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void sameOrderAsComparatorChain() {
+
+        List<Object> presidents = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            presidents.addAll(PresidentDao.getPresidents());
+        }
+        for (int i = 0; i < presidents.size(); i += 5) {
+            President president = (President) presidents.get(i);
+            president.setPoliticalParty(null);
+            president.setSalary(null);
+            president.setDied(null);
+        }
+
+        ComparatorChain chain = new ComparatorChain();
+        chain.addComparator(new BeanComparator("politicalParty", new NullComparator()));
+        chain.addComparator(new BeanComparator("salary", new NullComparator()), true);
+        chain.addComparator(new BeanComparator("died", new NullComparator()));
+
+        SortKeyComparator comparator = new SortKeyComparator();
+        comparator.addSortKey("politicalParty", false);
+        comparator.addSortKey("salary", true);
+        comparator.addSortKey("died", false);
+
+        List<Object> expected = new ArrayList<>(presidents);
+        Collections.sort(expected, chain);
+
+        List<Object> items = new ArrayList<>(presidents);
+        comparator.sort(items, false);
+        assertIterableEquals(expected, items);
+
+        items = new ArrayList<>(presidents);
+        comparator.sort(items, true);
+        assertIterableEquals(expected, items);
+
+        items = new ArrayList<>(presidents);
+        Collections.sort(items, comparator);
+        assertIterableEquals(expected, items);
+    }
+
+    @Test
+    public void compareRows() {
+
+        List<Object> items = new ArrayList<>();
+        items.add(Collections.singletonMap("id", 3L));
+        items.add(Collections.singletonMap("id", null));
+        items.add(Collections.singletonMap("id", 1L));
+
+        SortKeyComparator comparator = new SortKeyComparator();
+        comparator.addSortKey("id", false);
+        SortKeys keys = comparator.createSortKeys(items);
+
+        assertEquals(1, keys.compare(1, 0)); // null values are high
+        assertEquals(-1, keys.compare(2, 0));
+        assertEquals(0, keys.compare(1, 1));
+
+        int[] rows = keys.sort();
+        assertEquals(2, rows[0]);
+        assertEquals(0, rows[1]);
+        assertEquals(1, rows[2]);
+    }
+}
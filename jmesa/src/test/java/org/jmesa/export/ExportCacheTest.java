@@ -0,0 +1,358 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PreferencesFactory;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.limit.Comparison;
+import org.jmesa.limit.Filter;
+import org.jmesa.limit.FilterSet;
+import org.jmesa.limit.Limit;
+import org.jmesa.limit.Order;
+import org.jmesa.limit.SortSet;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.SpringParametersAdapter;
+import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.component.Column;
+import org.jmesa.view.component.Row;
+import org.jmesa.view.component.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.ServletOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.jmesa.view.ExportConstants.CACHE_ENABLED;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportCacheTest {
+
+    private static final String ID = "pres";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void canonicalKey() {
+
+        List<Column> columns = Arrays.asList(new Column("id"), new Column("name"));
+
+        Limit limit = createLimit();
+        limit.getFilterSet().addFilter(Filter.build("name", Comparison.CONTAIN, "a"));
+        limit.getFilterSet().addFilter(Filter.build("id", Comparison.GT, "5"));
+
+        Limit reordered = createLimit();
+        reordered.getFilterSet().addFilter(Filter.build("id", Comparison.GT, "5"));
+        reordered.getFilterSet().addFilter(Filter.build("name", Comparison.CONTAIN, "a"));
+
+        String key = ExportCacheKey.create(ID, limit, columns, 1, "user", Locale.US, "layout");
+        assertEquals(64, key.length());
+        assertEquals(key, ExportCacheKey.create(ID, reordered, columns, 1, "user", Locale.US, "layout"));
+
+        assertNotEquals(key, ExportCacheKey.create(ID, limit, columns, 2, "user", Locale.US, "layout"));
+        assertNotEquals(key, ExportCacheKey.create(ID, limit, columns.subList(0, 1), 1, "user", Locale.US, "layout"));
+        assertNotEquals(key, ExportCacheKey.create(ID, limit, columns, 1, "user", Locale.GERMANY, "layout"));
+        assertNotEquals(key, ExportCacheKey.create(ID, limit, columns, 1, "user", Locale.US, "html"));
+        assertNotEquals(key, ExportCacheKey.create(ID, limit, columns, 1, "other", Locale.US, "layout"));
+
+        Limit sorted = createLimit();
+        sorted.getFilterSet().addFilter(Filter.build("id", Comparison.GT, "5"));
+        sorted.getFilterSet().addFilter(Filter.build("name", Comparison.CONTAIN, "a"));
+        sorted.getSortSet().addSort("name", Order.ASC);
+        assertNotEquals(key, ExportCacheKey.create(ID, sorted, columns, 1, "user", Locale.US, "layout"));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+
+        ExportCache cache = new ExportCache(dir, 25);
+
+        ExportCache.Entry first = cache.put("first", new BytesExporter("0123456789"));
+        ExportCache.Entry second = cache.put("second", new BytesExporter("0123456789"));
+        assertEquals(20, cache.getSize());
+
+        // the first one was used last, so the second one goes
+        assertSame(first, cache.get("first"));
+        cache.put("third", new BytesExporter("0123456789"));
+
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+        assertFalse(Files.exists(second.getFile()));
+        assertEquals(20, cache.getSize());
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertFalse(Files.exists(first.getFile()));
+    }
+
+    @Test
+    public void send() throws Exception {
+
+        ExportCache cache = new ExportCache(dir, 1024);
+        ExportCache.Entry entry = cache.put("key", new BytesExporter("0123456789"));
+
+        MockHttpServletResponse response = send(cache, entry, new MockHttpServletRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(entry.getETag(), response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("Last-Modified"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", entry.getETag());
+        response = send(cache, entry, request);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=4-");
+        response = send(cache, entry, request);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-9/10", response.getHeader("Content-Range"));
+        assertEquals(6, response.getContentLengthLong());
+        assertEquals("456789", response.getContentAsString());
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=-3");
+        response = send(cache, entry, request);
+        assertEquals("789", response.getContentAsString());
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=2-4");
+        request.addHeader("If-Range", "\"other\"");
+        response = send(cache, entry, request);
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=10-");
+        response = send(cache, entry, request);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void evictedWhileSending() throws Exception {
+
+        ExportCache cache = new ExportCache(dir, 1024);
+        ExportCache.Entry entry = cache.put("key", new BytesExporter("0123456789"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+
+                // another request evicts the export while it is being sent
+                cache.remove("key");
+                assertTrue(Files.exists(entry.getFile()));
+                return super.getOutputStream();
+            }
+        };
+
+        assertTrue(cache.send(entry, new MockHttpServletRequest(), response));
+        assertEquals("0123456789", response.getContentAsString());
+        assertFalse(Files.exists(entry.getFile()));
+
+        // once it is gone it has to be made again
+        response = new MockHttpServletResponse();
+        assertFalse(cache.send(entry, new MockHttpServletRequest(), response));
+        assertNull(response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void facadeServesCachedExport() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.setAttribute(ExportCache.EXPORT_CACHE, new ExportCache(dir, 1024 * 1024));
+        MockHttpSession session = new MockHttpSession(servletContext);
+        AtomicInteger filtered = new AtomicInteger();
+
+        MockHttpServletResponse response = export(servletContext, session, null, 10, Locale.US, filtered);
+        assertEquals(200, response.getStatus());
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag);
+        assertTrue(response.getContentAsString().contains("name9"));
+        assertEquals(1, filtered.get());
+
+        // more items with the same version are not seen, the cached file is sent without filtering
+        response = export(servletContext, session, null, 20, Locale.US, filtered);
+        assertEquals(etag, response.getHeader("ETag"));
+        assertFalse(response.getContentAsString().contains("name19"));
+        assertEquals(1, filtered.get());
+
+        // another locale is another export
+        response = export(servletContext, session, null, 20, Locale.GERMANY, filtered);
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertTrue(response.getContentAsString().contains("name19"));
+        assertEquals(2, filtered.get());
+    }
+
+    @Test
+    public void facadeScopesCachedExport() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.setAttribute(ExportCache.EXPORT_CACHE, new ExportCache(dir, 1024 * 1024));
+        AtomicInteger filtered = new AtomicInteger();
+
+        String etag = export(servletContext, new MockHttpSession(servletContext), null, 10, Locale.US, filtered).getHeader("ETag");
+
+        // another user does not get the export of the first one
+        MockHttpServletResponse response = export(servletContext, new MockHttpSession(servletContext), null, 20, Locale.US, filtered);
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertTrue(response.getContentAsString().contains("name19"));
+
+        // unless the items are the same for everyone
+        etag = export(servletContext, new MockHttpSession(servletContext), "all", 10, Locale.US, filtered).getHeader("ETag");
+        response = export(servletContext, new MockHttpSession(servletContext), "all", 20, Locale.US, filtered);
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals(3, filtered.get());
+    }
+
+    private MockHttpServletResponse export(MockServletContext servletContext, MockHttpSession session, Object scope,
+            int rows, Locale locale, AtomicInteger filtered) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setSession(session);
+        request.addPreferredLocale(locale);
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.CSV);
+        builder.setMaxRows(1000);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, response);
+        Preferences preferences = PreferencesFactory.getPreferences(facade.getWebContext());
+        facade.setPreferences(code -> CACHE_ENABLED.equals(code) ? "true" : preferences.getPreference(code));
+        facade.setDataVersion("1");
+        facade.setExportCacheScope(scope);
+        facade.setRowFilter((items, limit) -> {
+            filtered.incrementAndGet();
+            return items;
+        });
+
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("id", i);
+            item.put("name", "name" + i);
+            items.add(item);
+        }
+        facade.setItems(items);
+
+        Table table = new Table();
+        Row row = new Row();
+        row.addColumn(new Column("id"));
+        row.addColumn(new Column("name"));
+        table.setRow(row);
+        facade.setTable(table);
+
+        assertNull(facade.render());
+        return response;
+    }
+
+    private static MockHttpServletResponse send(ExportCache cache, ExportCache.Entry entry, MockHttpServletRequest request) throws Exception {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.send(entry, request, response);
+        return response;
+    }
+
+    private static Limit createLimit() {
+
+        Limit limit = new Limit(ID);
+        limit.setFilterSet(new FilterSet());
+        limit.setSortSet(new SortSet());
+        limit.setExportType("csv");
+        return limit;
+    }
+
+    private static class BytesExporter extends AbstractViewExporter {
+
+        private final String contents;
+
+        BytesExporter(String contents) {
+
+            this.contents = contents;
+            setFileName("bytes.");
+        }
+
+        @Override
+        public void export() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object exportDirect() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void export(OutputStream out) throws Exception {
+
+            out.write(contents.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String getExportFileName() {
+
+            return getFileName() + getExtensionName();
+        }
+
+        @Override
+        protected String getContextType() {
+
+            return "text/plain";
+        }
+
+        @Override
+        protected String getExtensionName() {
+
+            return "txt";
+        }
+    }
+}
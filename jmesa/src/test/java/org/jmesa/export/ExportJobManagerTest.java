@@ -0,0 +1,323 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export;
+
+import org.jmesa.core.CoreContext;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.SpringParametersAdapter;
+import org.jmesa.view.AbstractViewExporter;
+import org.jmesa.view.component.Column;
+import org.jmesa.view.component.Row;
+import org.jmesa.view.component.Table;
+import org.jmesa.view.editor.AbstractCellEditor;
+import org.jmesa.web.DetachedWebContext;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportJobManagerTest {
+
+    private static final String ID = "pres";
+
+    @Test
+    public void submitExport() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        TableFacade facade = createTableFacade(servletContext, 250);
+
+        ExportJob job = facade.submitExport();
+        assertEquals(250, job.getTotalRows());
+        assertEquals("text/csv", job.getContentType().substring(0, 8));
+
+        assertTrue(job.await(30, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.DONE, job.getState());
+        assertEquals(250, job.getRowsWritten());
+
+        Path file = job.getFile();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(251, lines.size());
+        assertTrue(lines.get(250).contains("name249"));
+
+        ExportJobManager manager = ExportJobManager.getInstance(facade.getWebContext());
+        assertSame(job, manager.getJob(job.getId()));
+
+        manager.remove(job.getId());
+        assertNull(manager.getJob(job.getId()));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void exportUsesADetachedWebContext() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setContextPath("/presidents");
+        request.addPreferredLocale(Locale.GERMANY);
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.CSV);
+        builder.setMaxRows(10);
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, new MockHttpServletResponse());
+        facade.setItems(createItems(10));
+
+        List<WebContext> webContexts = new CopyOnWriteArrayList<WebContext>();
+        Column name = new Column("name");
+        name.setCellEditor(new AbstractCellEditor() {
+
+            @Override
+            public Object getValue(Object item, String property, int rowcount) {
+
+                WebContext webContext = getWebContext();
+                webContexts.add(webContext);
+                return webContext.getLocale() + webContext.getContextPath();
+            }
+        });
+
+        Table table = new Table();
+        Row row = new Row();
+        row.addColumn(name);
+        table.setRow(row);
+        facade.setTable(table);
+
+        ExportJob job = facade.submitExport();
+
+        // the container recycles the request once it is over
+        request.setContextPath("");
+        request.setPreferredLocales(Collections.singletonList(Locale.US));
+
+        assertTrue(job.await(30, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.DONE, job.getState());
+
+        assertEquals(10, webContexts.size());
+        for (WebContext webContext : webContexts) {
+            assertTrue(webContext instanceof DetachedWebContext);
+            assertNull(webContext.getBackingObject());
+        }
+
+        List<String> lines = Files.readAllLines(job.getFile(), StandardCharsets.UTF_8);
+        assertTrue(lines.get(1).contains("de_DE/presidents"));
+
+        ExportJobManager.getInstance(facade.getWebContext()).remove(job.getId());
+    }
+
+    @Test
+    public void rejectWhenFull() throws Exception {
+
+        ExportJobManager manager = new ExportJobManager(1, 1, TimeUnit.MINUTES.toMillis(1), null);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            ExportJob running = manager.submit(ID, null, new BlockingExporter(release), createCoreContext());
+            ExportJob queued = manager.submit(ID, null, new BlockingExporter(release), createCoreContext());
+            assertThrows(RejectedExecutionException.class,
+                    () -> manager.submit(ID, null, new BlockingExporter(release), createCoreContext()));
+
+            release.countDown();
+            assertTrue(running.await(30, TimeUnit.SECONDS));
+            assertTrue(queued.await(30, TimeUnit.SECONDS));
+            assertEquals(ExportJob.State.DONE, queued.getState());
+        } finally {
+            release.countDown();
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void removeExpired() throws Exception {
+
+        ExportJobManager manager = new ExportJobManager(1, 1, 0, null);
+
+        try {
+            ExportJob job = manager.submit(ID, null, new BlockingExporter(new CountDownLatch(0)), createCoreContext());
+            assertTrue(job.await(30, TimeUnit.SECONDS));
+            Path file = job.getFile();
+            assertTrue(Files.exists(file));
+
+            Thread.sleep(5);
+            manager.removeExpired();
+            assertNull(manager.getJob(job.getId()));
+            assertFalse(Files.exists(file));
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void expiredJobsAreSweptAway() throws Exception {
+
+        ExportJobManager manager = new ExportJobManager(1, 1, 0, null);
+
+        try {
+            ExportJob job = manager.submit(ID, null, new BlockingExporter(new CountDownLatch(0)), createCoreContext());
+            assertTrue(job.await(30, TimeUnit.SECONDS));
+            Path file = job.getFile();
+
+            // nobody asks for a job, the sweep still deletes the file
+            long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (Files.exists(file) && System.currentTimeMillis() < end) {
+                Thread.sleep(50);
+            }
+            assertFalse(Files.exists(file));
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void ownerSurvivesANewSessionId() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        String owner = ExportJobManager.getOwner(new HttpServletRequestWebContext(request));
+
+        request.changeSessionId();
+        assertEquals(owner, ExportJobManager.getOwner(new HttpServletRequestWebContext(request)));
+
+        MockHttpServletRequest other = new MockHttpServletRequest(servletContext);
+        assertNotEquals(owner, ExportJobManager.getOwner(new HttpServletRequestWebContext(other)));
+
+        other.setUserPrincipal(() -> "jeff");
+        assertEquals("principal:jeff", ExportJobManager.getOwner(new HttpServletRequestWebContext(other)));
+    }
+
+    public static TableFacade createTableFacade(MockServletContext servletContext, int rows) {
+
+        return createTableFacade(servletContext, new MockHttpSession(servletContext), rows);
+    }
+
+    public static TableFacade createTableFacade(MockServletContext servletContext, MockHttpSession session, int rows) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setSession(session);
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.CSV);
+        builder.setMaxRows(rows);
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, new MockHttpServletResponse());
+        facade.setItems(createItems(rows));
+
+        Table table = new Table();
+        Row row = new Row();
+        row.addColumn(new Column("id"));
+        row.addColumn(new Column("name"));
+        table.setRow(row);
+        facade.setTable(table);
+
+        return facade;
+    }
+
+    private static List<Map<String, Object>> createItems(int rows) {
+
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("id", i);
+            item.put("name", "name" + i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private CoreContext createCoreContext() {
+
+        return createTableFacade(new MockServletContext(), 10).getCoreContext();
+    }
+
+    /**
+     * Writes a byte once it is let go.
+     */
+    private static class BlockingExporter extends AbstractViewExporter {
+
+        private final CountDownLatch release;
+
+        BlockingExporter(CountDownLatch release) {
+
+            this.release = release;
+            setFileName("blocking.");
+        }
+
+        @Override
+        public void export() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object exportDirect() {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void export(OutputStream out) throws Exception {
+
+            release.await();
+            out.write('x');
+        }
+
+        @Override
+        public String getExportFileName() {
+
+            return getFileName() + getExtensionName();
+        }
+
+        @Override
+        protected String getContextType() {
+
+            return "text/plain";
+        }
+
+        @Override
+        protected String getExtensionName() {
+
+            return "txt";
+        }
+    }
+}
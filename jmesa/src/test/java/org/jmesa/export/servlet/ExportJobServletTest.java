@@ -0,0 +1,152 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.export.servlet;
+
+import org.jmesa.export.ExportJob;
+import org.jmesa.export.ExportJobManager;
+import org.jmesa.export.ExportJobManagerTest;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.ServletContextEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ExportJobServletTest {
+
+    @Test
+    public void statusAndDownload() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpSession session = new MockHttpSession(servletContext);
+        TableFacade facade = ExportJobManagerTest.createTableFacade(servletContext, session, 20);
+        ExportJob job = facade.submitExport();
+        assertTrue(job.await(30, TimeUnit.SECONDS));
+
+        ExportJobServlet servlet = new ExportJobServlet();
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setSession(session);
+        request.addParameter("job", job.getId());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+
+        assertEquals("application/json", response.getContentType().substring(0, 16));
+        String status = response.getContentAsString();
+        assertTrue(status.contains("\"state\":\"DONE\""));
+        assertTrue(status.contains("\"rowsWritten\":20"));
+        assertTrue(status.contains("\"totalRows\":20"));
+
+        request = new MockHttpServletRequest(servletContext);
+        request.setSession(session);
+        request.addParameter("job", job.getId());
+        request.addParameter("download", "true");
+        response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getHeader("Content-Disposition").startsWith("attachment;filename"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLengthLong());
+        assertTrue(response.getContentAsString().contains("name19"));
+    }
+
+    @Test
+    public void unknownJob() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(new MockServletContext());
+        request.addParameter("job", "nope");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ExportJobServlet().doGet(request, response);
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    public void missingJob() throws Exception {
+
+        ExportJobServlet servlet = new ExportJobServlet();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(new MockHttpServletRequest(new MockServletContext()), response);
+        assertEquals(400, response.getStatus());
+
+        response = new MockHttpServletResponse();
+        servlet.doDelete(new MockHttpServletRequest(new MockServletContext()), response);
+        assertEquals(400, response.getStatus());
+    }
+
+    @Test
+    public void onlyTheOwnerSeesTheJob() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpSession session = new MockHttpSession(servletContext);
+        ExportJob job = ExportJobManagerTest.createTableFacade(servletContext, session, 20).submitExport();
+        assertTrue(job.await(30, TimeUnit.SECONDS));
+
+        ExportJobServlet servlet = new ExportJobServlet();
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.addParameter("job", job.getId());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+        assertEquals(404, response.getStatus());
+
+        request = new MockHttpServletRequest(servletContext);
+        request.addParameter("job", job.getId());
+        response = new MockHttpServletResponse();
+        servlet.doDelete(request, response);
+        assertEquals(404, response.getStatus());
+        assertEquals(ExportJob.State.DONE, job.getState());
+
+        request = new MockHttpServletRequest(servletContext);
+        request.setSession(session);
+        request.addParameter("job", job.getId());
+        response = new MockHttpServletResponse();
+        servlet.doDelete(request, response);
+        assertEquals(204, response.getStatus());
+        assertNull(ExportJobManager.getInstance(new HttpServletRequestWebContext(request)).getJob(job.getId()));
+    }
+
+    @Test
+    public void listenerShutsTheManagerDown() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        ExportJob job = ExportJobManagerTest.createTableFacade(servletContext, 20).submitExport();
+        assertTrue(job.await(30, TimeUnit.SECONDS));
+        Path file = job.getFile();
+        assertTrue(Files.exists(file));
+
+        new ExportJobManagerListener().contextDestroyed(new ServletContextEvent(servletContext));
+
+        assertNull(servletContext.getAttribute(ExportJobManager.EXPORT_JOB_MANAGER));
+        assertFalse(Files.exists(file));
+    }
+}
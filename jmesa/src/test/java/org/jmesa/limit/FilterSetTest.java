@@ -50,6 +50,13 @@ public class FilterSetTest {
         filterSet = getFilterSet();
         filterable = filterSet.isFiltered();
         assertTrue(filterable, "filtered");
+
+        FilterSet parentSet = new FilterSet();
+        parentSet.getFilterSets().add(new FilterSet());
+        assertFalse(parentSet.isFiltered(), "empty child set");
+
+        parentSet.getFilterSets().add(filterSet);
+        assertTrue(parentSet.isFiltered(), "filtered child set");
     }
 
     @Test
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class FormatterRegistryTest {
+
+    @Test
+    public void formatNumber() {
+
+        DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getInstance(Locale.GERMANY);
+        decimalFormat.applyPattern("#,##0.00");
+
+        assertEquals(decimalFormat.format(1234567.891), FormatterRegistry.formatNumber(1234567.891, "#,##0.00", Locale.GERMANY));
+        assertEquals("1,234,567.89", FormatterRegistry.formatNumber(1234567.891, "#,##0.00", Locale.US));
+    }
+
+    @Test
+    public void formatDate() {
+
+        Date date = new Date(0);
+
+        assertEquals(DateFormatUtils.format(date, "MMMM dd, yyyy", Locale.FRANCE),
+                FormatterRegistry.getDateFormat("MMMM dd, yyyy", Locale.FRANCE).format(date));
+        assertEquals(DateFormatUtils.format(date, "MM/dd/yyyy"), FormatterRegistry.getDateFormat("MM/dd/yyyy", null).format(date));
+    }
+
+    @Test
+    public void formatDateTime() {
+
+        DateTime dateTime = new DateTime(2020, 3, 4, 5, 6, 7);
+
+        assertEquals(dateTime.toString("MMMM dd, yyyy HH:mm:ss", Locale.FRANCE),
+                FormatterRegistry.getDateTimeFormatter("MMMM dd, yyyy HH:mm:ss", Locale.FRANCE).print(dateTime));
+        assertEquals(dateTime.toString("MM/dd/yyyy"), FormatterRegistry.getDateTimeFormatter("MM/dd/yyyy", null).print(dateTime));
+    }
+
+    @Test
+    public void sharedByPatternAndLocale() {
+
+        assertSame(FormatterRegistry.getDateFormat("MM/dd/yyyy", Locale.US), FormatterRegistry.getDateFormat("MM/dd/yyyy", Locale.US));
+        assertNotSame(FormatterRegistry.getDateFormat("MM/dd/yyyy", Locale.US), FormatterRegistry.getDateFormat("MM/dd/yyyy", Locale.FRANCE));
+        assertSame(FormatterRegistry.getDateTimeFormatter("MM/dd/yyyy", Locale.US), FormatterRegistry.getDateTimeFormatter("MM/dd/yyyy", Locale.US));
+        assertNotSame(FormatterRegistry.getDateTimeFormatter("MM/dd/yyyy", Locale.US), FormatterRegistry.getDateTimeFormatter("yyyy", Locale.US));
+    }
+
+    @Test
+    public void formatNumberFromManyThreads() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int offset = i;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        long value = offset * 100000L + j;
+                        String expected = String.format(Locale.US, "%,d.00", value);
+                        if (!expected.equals(FormatterRegistry.formatNumber(value, "#,##0.00", Locale.US))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertEquals(Boolean.TRUE, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
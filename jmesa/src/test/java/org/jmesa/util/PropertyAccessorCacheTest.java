@@ -0,0 +1,104 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.jmesa.core.Name;
+import org.jmesa.core.President;
+import org.jmesa.core.PresidentDao;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class PropertyAccessorCacheTest {
+
+    @Test
+    public void getValue() {
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        assertEquals(1, PropertyAccessorCache.getValue(president, "id"));
+        assertEquals("1789-1797", PropertyAccessorCache.getValue(president, "term"));
+        assertEquals(1000.01, PropertyAccessorCache.getValue(president, "salary"));
+    }
+
+    @Test
+    public void getNestedValue() {
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        assertEquals("George", PropertyAccessorCache.getValue(president, "name.firstName"));
+        assertEquals("George Washington", PropertyAccessorCache.getValue(president, "name.fullName"));
+
+        president.setName(null);
+        assertNull(PropertyAccessorCache.getValue(president, "name.firstName"));
+    }
+
+    @Test
+    public void getNestedMapValue() {
+
+        Map<String, Object> item = new HashMap<String, Object>();
+        item.put("name", new Name("John", "Adams"));
+
+        assertEquals("Adams", PropertyAccessorCache.getValue(item, "name.lastName"));
+    }
+
+    @Test
+    public void getPrimitiveValue() {
+
+        Flags flags = new Flags();
+
+        assertEquals(Boolean.TRUE, PropertyAccessorCache.getValue(flags, "active"));
+        assertEquals(42, PropertyAccessorCache.getValue(flags, "count"));
+    }
+
+    @Test
+    public void missingProperty() {
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        assertNull(PropertyAccessorCache.getValue(president, "nothing"));
+        assertNull(ItemUtils.getItemValue(president, "name.nothing"));
+    }
+
+    @Test
+    public void accessorIsCached() {
+
+        PropertyAccessor accessor = PropertyAccessorCache.getPropertyAccessor(President.class, "name.lastName");
+
+        assertSame(accessor, PropertyAccessorCache.getPropertyAccessor(President.class, "name.lastName"));
+    }
+
+    public static class Flags {
+
+        public boolean isActive() {
+
+            return true;
+        }
+
+        public int getCount() {
+
+            return 42;
+        }
+    }
+}
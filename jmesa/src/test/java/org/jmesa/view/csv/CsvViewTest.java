@@ -27,10 +27,13 @@ import org.jmesa.view.component.Table;
 import org.jmesa.web.WebContext;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -84,6 +87,37 @@ public class CsvViewTest extends AbstractTestCase {
         assertNotNull(csv);
     }
 
+    @Test
+    public void export() throws Exception {
+
+        WebContext webContext = createWebContext();
+        webContext.setParameterMap(getParameters());
+        webContext.setLocale(Locale.US);
+
+        CoreContext coreContext = createCoreContext(webContext);
+
+        Table table = new Table();
+        Row row = new Row();
+        table.setRow(row);
+        row.addColumn(new Column("name.firstName"));
+        row.addColumn(new Column("career"));
+
+        CsvView view = new CsvView(",");
+        view.setCoreContext(coreContext);
+        view.setTable(table);
+
+        CsvViewExporter exporter = new CsvViewExporter();
+        exporter.setCoreContext(coreContext);
+        exporter.setView(view);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        String csv = new String(out.toByteArray(), Charset.defaultCharset());
+        assertEquals(view.render(), csv);
+        assertTrue(csv.contains("\"George\",\"Soldier, Planter\"\r\n"));
+    }
+
     private Map<String, Object> getParameters() {
 
         Map<String, Object> results = new HashMap<String, Object>();
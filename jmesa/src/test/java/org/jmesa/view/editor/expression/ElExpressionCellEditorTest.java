@@ -66,6 +66,27 @@ public class ElExpressionCellEditorTest extends AbstractTestCase {
         assertEquals("1 + 2 = 3", result);
     }
 
+    @Test
+    public void sharedParse() {
+
+        Object item = getVariableContext();
+
+        ElExpressionCellEditor editor = new ElExpressionCellEditor("item", "${item.one + item.two}");
+        ElExpressionCellEditor other = new ElExpressionCellEditor("item", "${item.one + item.two}");
+        assertSame(editor.template, other.template);
+
+        assertEquals("3", String.valueOf(editor.getValue(item, "test", 0)));
+        assertEquals("3", String.valueOf(other.getValue(item, "test", 0)));
+    }
+
+    @Test
+    public void getBeanValue() {
+
+        CellEditor editor = new ElExpressionCellEditor("item", "${item.width} x ${item.height}");
+        assertEquals("5.0 x 10.0", editor.getValue(new java.awt.Dimension(5, 10), "test", 0));
+        assertEquals("6.0 x 12.0", editor.getValue(new java.awt.Dimension(6, 12), "test", 1));
+    }
+
     protected Map<?, ?> getVariableContext() {
 
         Integer one = new Integer(1);
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.editor.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Dimension;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.SimpleBindings;
+
+import org.jmesa.util.ItemUtils;
+import org.jmesa.view.editor.CellEditor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ScriptExpressionCacheTest {
+
+    private static final AtomicInteger compiles = new AtomicInteger();
+
+    @BeforeEach
+    public void registerEngine() {
+
+        ScriptExpressionCache.clear();
+        ScriptExpressionCache.getScriptEngineManager().registerEngineName("groovy", new PropertyScriptEngineFactory());
+        compiles.set(0);
+    }
+
+    @AfterEach
+    public void clear() {
+
+        ScriptExpressionCache.clear();
+    }
+
+    @Test
+    public void compiledOnce() {
+
+        ExpressionCellEditorFactory factory = new ExpressionCellEditorFactoryImpl();
+
+        CellEditor editor = factory.createCellEditor(new Expression(Language.GROOVY, "item", "item.height"));
+        assertTrue(editor instanceof ScriptExpressionCellEditor);
+        assertEquals(100.0, editor.getValue(new Dimension(50, 100), "test", 0));
+        assertEquals(200.0, editor.getValue(new Dimension(50, 200), "test", 1));
+
+        CellEditor other = factory.createCellEditor(new Expression(Language.GROOVY, "item", "item.height"));
+        assertEquals(300.0, other.getValue(new Dimension(50, 300), "test", 0));
+
+        assertEquals(1, compiles.get());
+        assertSame(ScriptExpressionCache.getScriptExpression(Language.GROOVY, "item", "item.height"),
+                ScriptExpressionCache.getScriptExpression(Language.GROOVY, "item", "item.height"));
+
+        factory.createCellEditor(new Expression(Language.GROOVY, "item", "item.width"));
+        assertEquals(2, compiles.get());
+    }
+
+    @Test
+    public void bsfWithoutCompilableEngine() {
+
+        CellEditor editor = new ExpressionCellEditorFactoryImpl().createCellEditor(new Expression(Language.JAVASCRIPT, "item", "item.height"));
+        assertTrue(editor instanceof BsfExpressionCellEditor);
+    }
+
+    /**
+     * A script engine whose scripts are a var and a property, like item.height.
+     */
+    private static class PropertyScriptEngine extends AbstractScriptEngine implements Compilable {
+
+        private final ScriptEngineFactory factory;
+
+        PropertyScriptEngine(ScriptEngineFactory factory) {
+
+            this.factory = factory;
+        }
+
+        @Override
+        public CompiledScript compile(String script) {
+
+            compiles.incrementAndGet();
+
+            int dot = script.indexOf('.');
+            String var = script.substring(0, dot);
+            String property = script.substring(dot + 1);
+
+            return new CompiledScript() {
+
+                @Override
+                public Object eval(ScriptContext context) {
+
+                    Object item = context.getAttribute(var);
+                    return ItemUtils.getItemValue(item, property);
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+
+                    return PropertyScriptEngine.this;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile(Reader script) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object eval(String script, ScriptContext context) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object eval(Reader reader, ScriptContext context) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+
+            return factory;
+        }
+    }
+
+    private static class PropertyScriptEngineFactory implements ScriptEngineFactory {
+
+        @Override
+        public String getEngineName() {
+
+            return "property";
+        }
+
+        @Override
+        public String getEngineVersion() {
+
+            return "1.0";
+        }
+
+        @Override
+        public List<String> getExtensions() {
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getMimeTypes() {
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getNames() {
+
+            return Collections.singletonList("groovy");
+        }
+
+        @Override
+        public String getLanguageName() {
+
+            return "property";
+        }
+
+        @Override
+        public String getLanguageVersion() {
+
+            return "1.0";
+        }
+
+        @Override
+        public Object getParameter(String key) {
+
+            return "THREADING".equals(key) ? "MULTITHREADED" : null;
+        }
+
+        @Override
+        public String getMethodCallSyntax(String obj, String m, String... args) {
+
+            return obj + "." + m;
+        }
+
+        @Override
+        public String getOutputStatement(String toDisplay) {
+
+            return toDisplay;
+        }
+
+        @Override
+        public String getProgram(String... statements) {
+
+            return String.join("\n", statements);
+        }
+
+        @Override
+        public ScriptEngine getScriptEngine() {
+
+            return new PropertyScriptEngine(this);
+        }
+    }
+}
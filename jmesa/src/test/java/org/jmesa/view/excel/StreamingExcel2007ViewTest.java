@@ -0,0 +1,140 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jmesa.core.CoreContext;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersAdapter;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.AbstractTestCase;
+import org.jmesa.view.component.Column;
+import org.jmesa.view.component.Row;
+import org.jmesa.view.component.Table;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class StreamingExcel2007ViewTest extends AbstractTestCase {
+
+    @Test
+    public void export() throws Exception {
+
+        WebContext webContext = createWebContext();
+        webContext.setParameterMap(getParameters());
+
+        CoreContext coreContext = createCoreContext(webContext);
+
+        Table table = new Table();
+        table.setCaption("Presidents");
+        Row row = new Row();
+        table.setRow(row);
+        row.addColumn(new Column("name.firstName").title("First Name"));
+        row.addColumn(new Column("salary").title("Salary"));
+        row.addColumn(new Column("born").title("Born"));
+
+        StreamingExcel2007View view = new StreamingExcel2007View();
+        view.setCoreContext(coreContext);
+        view.setTable(table);
+
+        StreamingExcel2007ViewExporter exporter = new StreamingExcel2007ViewExporter();
+        exporter.setCoreContext(coreContext);
+        exporter.setView(view);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = workbook.getSheet("Presidents");
+            assertEquals(coreContext.getPageItems().size(), sheet.getLastRowNum());
+            assertEquals("First Name", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("George", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, sheet.getRow(1).getCell(1).getCellType());
+            assertEquals(1000.01, sheet.getRow(1).getCell(1).getNumericCellValue());
+            assertEquals("yyyy-mm-dd", sheet.getRow(1).getCell(2).getCellStyle().getDataFormatString());
+        }
+    }
+
+    @Test
+    public void disposeWhenRenderFails() throws Exception {
+
+        WebContext webContext = createWebContext();
+        webContext.setParameterMap(getParameters());
+
+        CoreContext coreContext = createCoreContext(webContext);
+
+        Table table = new Table();
+        Row row = new Row();
+        table.setRow(row);
+        row.addColumn(new Column("name.firstName").title("First Name"));
+        row.addColumn(new Column("salary").title("Salary").cellEditor((item, property, rowcount) -> {
+            throw new IllegalStateException("Not able to read the salary.");
+        }));
+
+        AtomicBoolean disposed = new AtomicBoolean();
+
+        StreamingExcel2007View view = new StreamingExcel2007View() {
+
+            @Override
+            public SXSSFWorkbook createWorkbook() {
+
+                return new SXSSFWorkbook(1) {
+
+                    @Override
+                    public boolean dispose() {
+
+                        disposed.set(true);
+                        return super.dispose();
+                    }
+                };
+            }
+        };
+        view.setCoreContext(coreContext);
+        view.setTable(table);
+
+        StreamingExcel2007ViewExporter exporter = new StreamingExcel2007ViewExporter();
+        exporter.setCoreContext(coreContext);
+        exporter.setView(view);
+
+        assertThrows(IllegalStateException.class, () -> exporter.export(new ByteArrayOutputStream()));
+        assertTrue(disposed.get());
+    }
+
+    private Map<String, Object> getParameters() {
+
+        Map<String, Object> results = new HashMap<String, Object>();
+        ParametersAdapter parametersAdapter = new ParametersAdapter(results);
+        ParametersBuilder builder = new ParametersBuilder(ID, parametersAdapter);
+        builder.setExportType(ExportTypes.EXCEL_2007_STREAMING);
+        return results;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.html;
+
+import org.jmesa.core.PresidentDao;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.limit.Action;
+import org.jmesa.view.html.component.HtmlColumn;
+import org.jmesa.view.html.component.HtmlRow;
+import org.jmesa.view.html.component.HtmlTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class HtmlViewTest {
+
+    private static final String ID = "pres";
+
+    @Test
+    public void renderToWriter() throws IOException {
+
+        HtmlView view = createView(new HtmlView());
+        String html = (String) view.render();
+
+        StringWriter writer = new StringWriter();
+        createView(new HtmlView()).render(writer);
+
+        assertTrue(html.contains("<tbody"));
+        assertEquals(html, writer.toString());
+    }
+
+    @Test
+    public void renderToWriterWithOverriddenRender() throws IOException {
+
+        HtmlView view = createView(new HtmlView() {
+            @Override
+            public Object render() {
+
+                return "custom " + super.render();
+            }
+        });
+
+        StringWriter writer = new StringWriter();
+        view.render(writer);
+
+        assertTrue(writer.toString().startsWith("custom "));
+    }
+
+    @Test
+    public void renderToWriterWithOverriddenBody() throws IOException {
+
+        HtmlView view = createView(new HtmlView());
+        view.setHtmlSnippets(new HtmlSnippets(view.getTable(), view.getToolbar(), view.getCoreContext()) {
+            @Override
+            public String body() {
+
+                return "<!-- custom body -->";
+            }
+        });
+
+        StringWriter writer = new StringWriter();
+        view.render(writer);
+
+        assertTrue(writer.toString().contains("<!-- custom body -->"));
+    }
+
+    @Test
+    public void length() {
+
+        HtmlBuilder html = new HtmlBuilder();
+        html.td(2).close().append("value").tdEnd();
+
+        assertEquals(html.toString().length(), html.length());
+    }
+
+    private HtmlView createView(HtmlView view) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addParameter(ID + "_" + Action.MAX_ROWS.toParam(), "15");
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request);
+        facade.setItems(PresidentDao.getPresidents());
+        facade.setMaxRowsIncrements(15, 50, 100);
+
+        HtmlTable table = new HtmlTable();
+        HtmlRow row = new HtmlRow();
+        row.addColumn(new HtmlColumn("name.firstName"));
+        row.addColumn(new HtmlColumn("name.lastName"));
+        row.addColumn(new HtmlColumn("term"));
+        row.addColumn(new HtmlColumn("career"));
+        table.setRow(row);
+        facade.setTable(table);
+
+        facade.setView(view);
+
+        return (HtmlView) facade.getView();
+    }
+}
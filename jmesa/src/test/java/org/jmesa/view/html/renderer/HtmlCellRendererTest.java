@@ -0,0 +1,145 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.html.renderer;
+
+import org.jmesa.core.CoreContext;
+import org.jmesa.core.CoreContextFactory;
+import org.jmesa.core.President;
+import org.jmesa.core.PresidentDao;
+import org.jmesa.core.preference.Preferences;
+import org.jmesa.core.preference.PropertiesPreferences;
+import org.jmesa.limit.Limit;
+import org.jmesa.limit.LimitFactory;
+import org.jmesa.test.AbstractTestCase;
+import org.jmesa.view.html.HtmlBuilder;
+import org.jmesa.view.html.component.HtmlColumn;
+import org.jmesa.view.html.component.HtmlRow;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import static org.jmesa.view.html.HtmlConstants.CELL_RENDERER_INCLUDE_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class HtmlCellRendererTest extends AbstractTestCase {
+
+    @Test
+    public void renderWithId() throws IOException {
+
+        HtmlCellRenderer cellRenderer = createCellRenderer("true", new HtmlCellRenderer());
+        HtmlColumn column = cellRenderer.getColumn();
+        column.setWidth("100px");
+        column.setStyleClass("name");
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        assertEquals(expected(ID + "_column_name_firstName_3", column, president), cellRenderer.render(president, 3));
+
+        StringBuilder out = new StringBuilder();
+        cellRenderer.render(president, 4, out);
+        assertEquals(expected(ID + "_column_name_firstName_4", column, president), out.toString());
+
+        // the template follows changes to the column
+        column.setStyle("color:red");
+        assertEquals(expected(ID + "_column_name_firstName_5", column, president), cellRenderer.render(president, 5));
+    }
+
+    @Test
+    public void renderWithoutId() {
+
+        HtmlCellRenderer cellRenderer = createCellRenderer("false", new HtmlCellRenderer());
+        HtmlColumn column = cellRenderer.getColumn();
+        column.setStyle("text-align:right");
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        assertEquals(expected(null, column, president), cellRenderer.render(president, 1));
+    }
+
+    @Test
+    public void renderWithCustomId() throws IOException {
+
+        HtmlCellRenderer cellRenderer = createCellRenderer("true", new HtmlCellRenderer() {
+            @Override
+            protected String getId(int rowcount) {
+
+                return "custom" + rowcount;
+            }
+        });
+        HtmlColumn column = cellRenderer.getColumn();
+
+        President president = PresidentDao.getPresidents().iterator().next();
+
+        StringBuilder out = new StringBuilder();
+        cellRenderer.render(president, 2, out);
+        assertEquals(expected("custom2", column, president), out.toString());
+    }
+
+    /**
+     * The cell the way it was built before there were templates.
+     */
+    private String expected(String id, HtmlColumn column, Object item) {
+
+        HtmlBuilder html = new HtmlBuilder();
+        html.td(2).id(id);
+        html.width(column.getWidth());
+        html.style(column.getStyle());
+        html.styleClass(column.getStyleClass());
+        html.close();
+        html.append(column.getCellEditor().getValue(item, column.getProperty(), 0));
+        html.tdEnd();
+        return html.toString();
+    }
+
+    private HtmlCellRenderer createCellRenderer(String includeId, HtmlCellRenderer cellRenderer) {
+
+        WebContext webContext = createWebContext();
+
+        Collection<President> items = PresidentDao.getPresidents();
+        LimitFactory limitFactory = new LimitFactory(ID, webContext);
+        Limit limit = limitFactory.createLimit();
+        limit.setRowSelect(limitFactory.createRowSelect(MAX_ROWS, items.size()));
+
+        PropertiesPreferences properties = new PropertiesPreferences("/test.properties", webContext);
+        Preferences preferences = code -> CELL_RENDERER_INCLUDE_ID.equals(code) ? includeId : properties.getPreference(code);
+
+        CoreContextFactory factory = new CoreContextFactory(false, webContext);
+        factory.setPreferences(preferences);
+        CoreContext coreContext = factory.createCoreContext(items, limit, null);
+
+        HtmlRow row = new HtmlRow();
+        row.setCoreContext(coreContext);
+        row.setWebContext(webContext);
+
+        HtmlColumn column = new HtmlColumn("name.firstName");
+        column.setCoreContext(coreContext);
+        column.setWebContext(webContext);
+        row.addColumn(column);
+
+        cellRenderer.setColumn(column);
+        cellRenderer.setCoreContext(coreContext);
+        cellRenderer.setWebContext(webContext);
+        column.setCellRenderer(cellRenderer);
+
+        return cellRenderer;
+    }
+}
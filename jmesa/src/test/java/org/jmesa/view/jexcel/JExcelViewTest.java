@@ -0,0 +1,103 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.jexcel;
+
+import jxl.CellType;
+import jxl.Sheet;
+import jxl.Workbook;
+import org.jmesa.core.CoreContext;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.AbstractTestCase;
+import org.jmesa.test.ParametersAdapter;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.view.component.Column;
+import org.jmesa.view.component.Row;
+import org.jmesa.view.component.Table;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class JExcelViewTest extends AbstractTestCase {
+
+    @Test
+    public void rollOverSheets() throws Exception {
+
+        WebContext webContext = createWebContext();
+        webContext.setParameterMap(getParameters());
+
+        CoreContext coreContext = createCoreContext(webContext);
+
+        Table table = new Table();
+        table.setCaption("Presidents");
+        Row row = new Row();
+        table.setRow(row);
+        row.addColumn(new Column("name.firstName").title("First Name"));
+        row.addColumn(new Column("salary").title("Salary"));
+
+        JExcelView view = new JExcelView();
+        view.setCoreContext(coreContext);
+        view.setTable(table);
+        view.setMaxRowsPerSheet(5);
+
+        JExcelViewExporter exporter = new JExcelViewExporter();
+        exporter.setCoreContext(coreContext);
+        exporter.setView(view);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+
+        int items = coreContext.getPageItems().size();
+        int sheets = (items + 3) / 4;
+
+        Workbook workbook = Workbook.getWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        try {
+            assertEquals(sheets, workbook.getNumberOfSheets());
+            assertEquals("Presidents (2)", workbook.getSheet(1).getName());
+
+            int rows = 0;
+            for (Sheet sheet : workbook.getSheets()) {
+                assertEquals("First Name", sheet.getCell(0, 0).getContents());
+                rows += sheet.getRows() - 1;
+            }
+            assertEquals(items, rows);
+
+            Sheet first = workbook.getSheet(0);
+            assertEquals("George", first.getCell(0, 1).getContents());
+            assertEquals(CellType.NUMBER, first.getCell(1, 1).getType());
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private Map<String, Object> getParameters() {
+
+        Map<String, Object> results = new HashMap<String, Object>();
+        ParametersAdapter parametersAdapter = new ParametersAdapter(results);
+        ParametersBuilder builder = new ParametersBuilder(ID, parametersAdapter);
+        builder.setExportType(ExportTypes.JEXCEL);
+        return results;
+    }
+}
@@ -16,6 +16,7 @@
 package org.jmesa.view.json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jmesa.core.CoreContext;
 import org.jmesa.model.ExportTypes;
@@ -29,6 +30,8 @@ import org.jmesa.view.component.Table;
 import org.jmesa.web.WebContext;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -88,6 +91,62 @@ public class JsonViewAlterTest extends AbstractTestCase {
         assertNotNull(json);
     }
 
+    @Test
+    public void renderShape() throws Exception {
+
+        JsonViewAlter view = createView(false);
+        view.getTable().setCaption("The \"Presidents\"");
+
+        JsonNode json = new ObjectMapper().readTree((String) view.render());
+
+        assertEquals("The \"Presidents\"", json.get("caption").asText());
+        assertEquals(2, json.get("titles").size());
+        assertEquals(7, json.get("items").size());
+        assertTrue(json.get("items").get(0).has("name.firstName"));
+        assertTrue(json.get("items").get(0).has("term"));
+        assertNotNull(json.get("paging"));
+        assertEquals(json.get("paging").get("totalRows").asInt(), json.get("total").asInt());
+    }
+
+    @Test
+    public void renderNewlineDelimited() throws Exception {
+
+        JsonViewAlter view = createView(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        view.render(out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(7, lines.length);
+
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : lines) {
+            JsonNode item = mapper.readTree(line);
+            assertEquals(2, item.size());
+            assertTrue(item.has("name.firstName"));
+        }
+    }
+
+    private JsonViewAlter createView(boolean newlineDelimited) {
+
+        WebContext webContext = createWebContext();
+        webContext.setParameterMap(getParameters());
+        webContext.setLocale(Locale.US);
+
+        CoreContext coreContext = createCoreContext(webContext);
+
+        Table table = new Table();
+        Row row = new Row();
+        table.setRow(row);
+        row.addColumn(new Column("name.firstName"));
+        row.addColumn(new Column("term"));
+
+        JsonViewAlter view = new JsonViewAlter(newlineDelimited);
+        view.setCoreContext(coreContext);
+        view.setTable(table);
+        return view;
+    }
+
     private Map<String, Object> getParameters() {
 
         Map<String, Object> results = new HashMap<>();
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.layout.properties.Property;
+import com.itextpdf.layout.properties.TransparentColor;
+import com.itextpdf.layout.properties.UnitValue;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.SpringParametersAdapter;
+import org.jmesa.view.html.component.HtmlColumn;
+import org.jmesa.view.html.component.HtmlRow;
+import org.jmesa.view.html.component.HtmlTable;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.WebContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfLayoutViewTest {
+
+    private static final String ID = "pres";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void export() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.PDF);
+        builder.setMaxRows(1000);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, response);
+        facade.setItems(createItems(500));
+        facade.setTable(createTable());
+        facade.setView(new PdfLayoutView());
+
+        assertNull(facade.render());
+        assertEquals("application/pdf", response.getContentType());
+
+        byte[] contents = response.getContentAsByteArray();
+        assertTrue(new String(contents, 0, 5, "ISO-8859-1").startsWith("%PDF"));
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(contents)))) {
+            int pages = pdf.getNumberOfPages();
+            assertTrue(pages > 1, "The table should run over more than one page.");
+
+            // the bundled stylesheet is landscape letter
+            assertEquals(792f, pdf.getPage(1).getPageSize().getWidth(), 0.01f);
+
+            String firstPage = PdfTextExtractor.getTextFromPage(pdf.getPage(1));
+            assertTrue(firstPage.contains("Names"));
+
+            String lastPage = PdfTextExtractor.getTextFromPage(pdf.getPage(pages));
+            assertTrue(lastPage.contains("name499"));
+            assertTrue(lastPage.contains("Name"));
+        }
+    }
+
+    @Test
+    public void parseStyles() throws Exception {
+
+        try (InputStream css = getClass().getResourceAsStream("/jmesa-pdf.css")) {
+            PdfStyles styles = PdfStyles.parse(css);
+
+            PageSize pageSize = styles.getPageSize();
+            assertEquals(792f, pageSize.getWidth(), 0.01f);
+            assertEquals(612f, pageSize.getHeight(), 0.01f);
+
+            float[] margins = styles.getMargins();
+            assertEquals(18f, margins[0], 0.01f);
+            assertEquals(18f, margins[3], 0.01f);
+        }
+    }
+
+    @Test
+    public void unsupportedStylesAreIgnored() throws Exception {
+
+        String css = "@page { size: A4 landscape; margin: 0 auto; }\n"
+                + ".jmesa caption { font-size: small; color: #ff0000; }\n"
+                + ".jmesa .header td { padding: 0 auto; padding-top: 2pt; }";
+
+        PdfStyles styles = PdfStyles.parse(new ByteArrayInputStream(css.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(PageSize.A4.getWidth(), styles.getPageSize().getWidth(), 0.01f);
+        assertNull(styles.getMargins());
+
+        TransparentColor color = styles.getCaptionStyle().<TransparentColor>getProperty(Property.FONT_COLOR);
+        assertEquals(new DeviceRgb(255, 0, 0), color.getColor());
+        assertNull(styles.getCaptionStyle().getProperty(Property.FONT_SIZE));
+
+        UnitValue paddingTop = styles.getHeaderStyle().<UnitValue>getProperty(Property.PADDING_TOP);
+        assertEquals(2f, paddingTop.getValue(), 0.01f);
+        assertNull(styles.getHeaderStyle().getProperty(Property.PADDING_LEFT));
+    }
+
+    @Test
+    public void stylesArePerApplicationAndReloaded() throws Exception {
+
+        Path css = Files.write(dir.resolve("app.css"), "@page { size: 100pt 400pt; }".getBytes(StandardCharsets.UTF_8));
+        Path otherDir = Files.createDirectories(dir.resolve("other"));
+        Files.write(otherDir.resolve("app.css"), "@page { size: 200pt 400pt; }".getBytes(StandardCharsets.UTF_8));
+
+        MockServletContext servletContext = new MockServletContext("file:" + dir);
+        servletContext.setAttribute(PdfStylesRegistry.PDF_STYLES_REGISTRY, new PdfStylesRegistry(1));
+        WebContext webContext = new HttpServletRequestWebContext(new MockHttpServletRequest(servletContext));
+        WebContext otherWebContext = new HttpServletRequestWebContext(
+                new MockHttpServletRequest(new MockServletContext("file:" + otherDir)));
+
+        PdfStyles styles = PdfStyles.getInstance("/app.css", webContext);
+        assertEquals(100f, styles.getPageSize().getWidth(), 0.01f);
+        assertSame(styles, PdfStyles.getInstance("/app.css", webContext));
+
+        // the same location in another application is another stylesheet
+        PdfStyles otherStyles = PdfStyles.getInstance("/app.css", otherWebContext);
+        assertEquals(200f, otherStyles.getPageSize().getWidth(), 0.01f);
+
+        Files.write(css, "@page { size: 300pt 400pt; }".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(css, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        Thread.sleep(5);
+
+        styles = PdfStyles.getInstance("/app.css", webContext);
+        assertEquals(300f, styles.getPageSize().getWidth(), 0.01f);
+    }
+
+    @Test
+    public void chunkSizeMustBePositive() {
+
+        assertThrows(IllegalArgumentException.class, () -> new PdfLayoutView().setChunkSize(0));
+    }
+
+    static List<Map<String, Object>> createItems(int count) {
+
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("id", i);
+            item.put("name", "name" + i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static HtmlTable createTable() {
+
+        HtmlTable table = new HtmlTable();
+        table.setCaption("Names");
+        HtmlRow row = new HtmlRow();
+        row.addColumn(new HtmlColumn("id"));
+        row.addColumn(new HtmlColumn("name"));
+        table.setRow(row);
+        return table;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdf;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.SpringParametersAdapter;
+import org.jmesa.view.View;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Compare the html2pdf export (PdfView) with the direct layout export
+ * (PdfLayoutView). This is not run with the tests. Pass the number of rows
+ * and the number of runs as arguments, for example: 5000 5
+ *
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfViewBenchmark {
+
+    private static final String ID = "pres";
+
+    public static void main(String[] args) throws Exception {
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<Map<String, Object>> items = PdfLayoutViewTest.createItems(rows);
+
+        // warm up both paths before timing them
+        export(new PdfView(), items);
+        export(new PdfLayoutView(), items);
+
+        report("html2pdf", PdfView::new, items, runs);
+        report("layout", PdfLayoutView::new, items, runs);
+    }
+
+    private static void report(String name, Supplier<View> views, List<Map<String, Object>> items, int runs) throws Exception {
+
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            bytes = export(views.get(), items);
+        }
+        long millis = (System.nanoTime() - start) / 1000000 / runs;
+
+        System.out.println(name + ": " + items.size() + " rows, " + millis + " ms per export, " + bytes + " bytes");
+    }
+
+    private static long export(View view, List<Map<String, Object>> items) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.PDF);
+        builder.setMaxRows(items.size());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, response);
+        facade.setItems(items);
+        facade.setTable(PdfLayoutViewTest.createTable());
+        facade.setView(view);
+        facade.render();
+
+        return response.getContentAsByteArray().length;
+    }
+}
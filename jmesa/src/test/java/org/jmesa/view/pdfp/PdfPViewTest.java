@@ -0,0 +1,103 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.view.pdfp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.jmesa.facade.TableFacade;
+import org.jmesa.facade.TableFacadeFactory;
+import org.jmesa.model.ExportTypes;
+import org.jmesa.test.ParametersBuilder;
+import org.jmesa.test.SpringParametersAdapter;
+import org.jmesa.view.html.component.HtmlColumn;
+import org.jmesa.view.html.component.HtmlRow;
+import org.jmesa.view.html.component.HtmlTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class PdfPViewTest {
+
+    private static final String ID = "pres";
+
+    @Test
+    public void chunkSizeMustBePositive() {
+
+        assertThrows(IllegalArgumentException.class, () -> new PdfPView().setChunkSize(-1));
+    }
+
+    @Test
+    public void exportInChunks() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ParametersBuilder builder = new ParametersBuilder(ID, new SpringParametersAdapter(request));
+        builder.setExportType(ExportTypes.PDFP);
+        builder.setMaxRows(1000);
+
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("id", i);
+            item.put("name", "name" + i);
+            items.add(item);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        TableFacade facade = TableFacadeFactory.createTableFacade(ID, request, response);
+        facade.setItems(items);
+
+        HtmlTable table = new HtmlTable();
+        table.setCaption("Names");
+        HtmlRow row = new HtmlRow();
+        row.addColumn(new HtmlColumn("id"));
+        row.addColumn(new HtmlColumn("name"));
+        table.setRow(row);
+        facade.setTable(table);
+
+        assertNull(facade.render());
+        assertEquals("application/pdf", response.getContentType());
+
+        byte[] contents = response.getContentAsByteArray();
+        assertTrue(new String(contents, 0, 5, "ISO-8859-1").startsWith("%PDF"));
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(contents)))) {
+            int pages = pdf.getNumberOfPages();
+            assertTrue(pages > 1, "The table should run over more than one page.");
+
+            String lastPage = PdfTextExtractor.getTextFromPage(pdf.getPage(pages));
+            assertTrue(lastPage.contains("name999"));
+            // the header row repeats on every page
+            assertTrue(lastPage.contains("Name"));
+        }
+    }
+}
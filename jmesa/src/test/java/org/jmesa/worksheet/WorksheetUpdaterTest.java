@@ -0,0 +1,198 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet;
+
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.WebContext;
+import org.jmesa.worksheet.state.SessionWorksheetState;
+import org.jmesa.worksheet.state.WorksheetStateFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.ServletContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class WorksheetUpdaterTest {
+
+    private static final String ID = "pres";
+    private static final int USERS = 8;
+    private static final int THREADS_PER_USER = 4;
+    private static final int EDITS_PER_THREAD = 50;
+
+    @Test
+    public void noLostUpdates() throws Exception {
+
+        List<MockHttpSession> sessions = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            sessions.add(new ConcurrentSession(new MockServletContext()));
+        }
+
+        updateConcurrently(sessions);
+
+        for (MockHttpSession session : sessions) {
+            assertAllEdits(getWorksheet(session));
+        }
+    }
+
+    /**
+     * Every request gets its own Worksheet from the change log, so the updater has to lock on
+     * what the WorksheetState gives it and not on the Worksheet.
+     */
+    @Test
+    public void noLostUpdatesInTheChangeLog() throws Exception {
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.addInitParameter("jmesaPreferencesLocation", "/worksheet-store.properties");
+
+        List<MockHttpSession> sessions = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            sessions.add(new ConcurrentSession(servletContext));
+        }
+
+        updateConcurrently(sessions);
+
+        for (MockHttpSession session : sessions) {
+            MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+            request.setSession(session);
+            WebContext webContext = new HttpServletRequestWebContext(request);
+            assertAllEdits(WorksheetStateFactory.createWorksheetState(ID, webContext).retrieveWorksheet());
+        }
+    }
+
+    private void updateConcurrently(List<MockHttpSession> sessions) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(USERS * THREADS_PER_USER);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (MockHttpSession session : sessions) {
+                for (int t = 0; t < THREADS_PER_USER; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int e = 0; e < EDITS_PER_THREAD; e++) {
+                            String status = update(session, "row" + thread, "column" + e, "changed");
+                            assertEquals("_uu_", status);
+                        }
+                        return null;
+                    }));
+                }
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertAllEdits(Worksheet worksheet) {
+
+        assertNotNull(worksheet);
+        assertEquals(THREADS_PER_USER, worksheet.getRows().size());
+        for (WorksheetRow worksheetRow : worksheet.getRows()) {
+            assertEquals(EDITS_PER_THREAD, worksheetRow.getColumns().size());
+        }
+    }
+
+    @Test
+    public void usersDoNotWaitOnEachOther() throws Exception {
+
+        MockHttpSession busySession = new ConcurrentSession(new MockServletContext());
+        MockHttpSession otherSession = new ConcurrentSession(new MockServletContext());
+
+        update(busySession, "row", "column", "changed");
+        Worksheet busyWorksheet = getWorksheet(busySession);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            synchronized (busyWorksheet) {
+                // the other user has to get through while this worksheet is locked
+                Future<String> other = executor.submit(() -> update(otherSession, "row", "column", "changed"));
+                assertEquals("_uu_", other.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertSame(busyWorksheet, getWorksheet(busySession));
+        assertEquals(1, getWorksheet(otherSession).getRows().size());
+    }
+
+    private String update(MockHttpSession session, String row, String column, String changedValue) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(session.getServletContext());
+        request.setSession(session);
+        request.addParameter("id", ID);
+        request.addParameter(WorksheetUpdater.UNIQUE_PROPERTIES + "id", row);
+        request.addParameter(WorksheetUpdater.COLUMN_PROPERTY, column);
+        request.addParameter(WorksheetUpdater.ORIGINAL_VALUE, "original");
+        request.addParameter(WorksheetUpdater.CHANGED_VALUE, changedValue);
+
+        WebContext webContext = new HttpServletRequestWebContext(request);
+        return new WorksheetUpdater().update(null, webContext);
+    }
+
+    private Worksheet getWorksheet(MockHttpSession session) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest(session.getServletContext());
+        request.setSession(session);
+        return new SessionWorksheetState(ID, new HttpServletRequestWebContext(request)).retrieveWorksheet();
+    }
+
+    /**
+     * The servlet containers have thread safe sessions, the mock does not.
+     */
+    private static class ConcurrentSession extends MockHttpSession {
+
+        ConcurrentSession(ServletContext servletContext) {
+
+            super(servletContext);
+        }
+
+        @Override
+        public synchronized Object getAttribute(String name) {
+
+            return super.getAttribute(name);
+        }
+
+        @Override
+        public synchronized void setAttribute(String name, Object value) {
+
+            super.setAttribute(name, value);
+        }
+    }
+}
@@ -16,7 +16,9 @@
 package org.jmesa.worksheet.servlet;
 
 import org.jmesa.core.message.Messages;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -26,8 +28,12 @@ import org.jmesa.worksheet.UniqueProperty;
 import org.jmesa.worksheet.Worksheet;
 import org.jmesa.worksheet.WorksheetRow;
 import org.jmesa.worksheet.WorksheetUpdater;
+import org.jmesa.worksheet.state.SessionWorksheetState;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * @since 2.3
@@ -59,6 +65,47 @@ public class WorksheetServletTest {
         assertTrue(() -> worksheet == worksheet2, "Did not return the same worksheet.");
     }
 
+    @Test
+    public void batchUpdate() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/jmesa.wrk");
+        request.addParameter("id", ID);
+        request.setContentType("application/json; charset=UTF-8");
+        request.setContent(("["
+                + "{\"up_id\":\"1\",\"cp_\":\"name\",\"ov_\":\"George\",\"cv_\":\"John & Jane\"},"
+                + "{\"up_id\":\"1\",\"cp_\":\"term\",\"ov_\":\"1\",\"cv_\":\"2\"},"
+                + "{\"up_id\":\"2\",\"cp_\":\"term\",\"ov_\":\"1\",\"cv_\":\"2\"},"
+                + "{\"up_id\":\"2\",\"cp_\":\"term\",\"ov_\":\"1\",\"cv_\":\"1\"},"
+                + "{\"cp_\":\"term\",\"ov_\":\"1\",\"cv_\":\"2\"}"
+                + "]").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new WorksheetServlet().doPost(request, response);
+
+        assertEquals("[\"_uu_\",\"_uu_\",\"_uu_\",\"_rm_\",\"_ue_\"]", response.getContentAsString());
+
+        Worksheet worksheet = new SessionWorksheetState(ID, new HttpServletRequestWebContext(request)).retrieveWorksheet();
+        assertEquals(1, worksheet.getRows().size());
+        WorksheetRow row = worksheet.getRow(new UniqueProperty("id", "1"));
+        assertEquals("John & Jane", row.getColumn("name").getChangedValue());
+        assertEquals("2", row.getColumn("term").getChangedValue());
+        assertNull(worksheet.getRow(new UniqueProperty("id", "2")));
+    }
+
+    @Test
+    public void batchUpdateWithBadJson() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/jmesa.wrk");
+        request.addParameter("id", ID);
+        request.setContentType("application/json");
+        request.setContent("{not json".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new WorksheetServlet().doPost(request, response);
+
+        assertEquals(400, response.getStatus());
+    }
+
     private class WorksheetUpdaterTemp extends WorksheetUpdater {
 
         public Worksheet getAccessToWorksheet(Messages messages, WebContext webContext) {
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2004 original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jmesa.worksheet.state;
+
+import org.jmesa.facade.TableFacade;
+import org.jmesa.model.TableModelUtils;
+import org.jmesa.util.ItemUtils;
+import org.jmesa.web.HttpServletRequestWebContext;
+import org.jmesa.web.JspPageWebContext;
+import org.jmesa.web.WebContext;
+import org.jmesa.worksheet.UniqueProperty;
+import org.jmesa.worksheet.Worksheet;
+import org.jmesa.worksheet.WorksheetColumn;
+import org.jmesa.worksheet.WorksheetRow;
+import org.jmesa.worksheet.WorksheetRowStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPageContext;
+import org.springframework.mock.web.MockServletContext;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSessionEvent;
+import java.io.File;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 4.5
+ * @author xwx
+ */
+public class ChangeLogWorksheetStateTest {
+
+    private static final String ID = "pres";
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void memoryStore() {
+
+        roundTrip(new MemoryWorksheetStore());
+    }
+
+    @Test
+    public void sessionStore() {
+
+        roundTrip(new SessionWorksheetStore());
+    }
+
+    @Test
+    public void fileStore() {
+
+        FileWorksheetStore worksheetStore = new FileWorksheetStore();
+        worksheetStore.setPreferences(code -> FileWorksheetStore.DIRECTORY.equals(code) ? directory.getPath() : null);
+
+        roundTrip(worksheetStore);
+
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void onlyTheChangesAreSaved() {
+
+        WebContext webContext = createWebContext();
+        MemoryWorksheetStore worksheetStore = new MemoryWorksheetStore();
+
+        Worksheet worksheet = new Worksheet(ID);
+        addColumn(worksheet, "1", "name", "George", "John");
+        addColumn(worksheet, "2", "name", "Thomas", "James");
+        new ChangeLogWorksheetState(ID, webContext, worksheetStore).persistWorksheet(worksheet);
+
+        List<WorksheetChange> changeLog = worksheetStore.load(webContext, getKey(webContext));
+        assertEquals(4, changeLog.size());
+
+        ChangeLogWorksheetState state = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+        worksheet = state.retrieveWorksheet();
+        worksheet.getRow(new UniqueProperty("id", "1")).getColumn("name").setChangedValue("Abraham");
+        state.persistWorksheet(worksheet);
+
+        changeLog = worksheetStore.load(webContext, getKey(webContext));
+        assertEquals(5, changeLog.size());
+        assertEquals("Abraham", changeLog.get(4).getChangedValue());
+
+        // nothing changed, nothing saved
+        state.persistWorksheet(worksheet);
+        assertEquals(5, worksheetStore.load(webContext, getKey(webContext)).size());
+    }
+
+    @Test
+    public void theSessionOnlyGetsTheChanges() {
+
+        WebContext webContext = createWebContext();
+        SessionWorksheetStore worksheetStore = new SessionWorksheetStore();
+        ChangeLogWorksheetState state = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+
+        Worksheet worksheet = new Worksheet(ID);
+        addColumn(worksheet, "1", "name", "George", "John");
+        state.persistWorksheet(worksheet);
+
+        addColumn(worksheet, "2", "name", "Thomas", "James");
+        state.persistWorksheet(worksheet);
+
+        String key = getKey(webContext);
+        assertEquals(2, webContext.getSessionAttribute(key + "_CHUNKS"));
+        assertEquals(2, ((WorksheetChange[]) webContext.getSessionAttribute(key + "_1")).length);
+    }
+
+    @Test
+    public void theChangeLogIsCompacted() {
+
+        WebContext webContext = createWebContext();
+        MemoryWorksheetStore worksheetStore = new MemoryWorksheetStore();
+        ChangeLogWorksheetState state = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+
+        Worksheet worksheet = new Worksheet(ID);
+        addColumn(worksheet, "1", "name", "George", "John");
+        WorksheetColumn column = worksheet.getRow(new UniqueProperty("id", "1")).getColumn("name");
+        for (int i = 0; i < 100; i++) {
+            column.setChangedValue("John " + i);
+            state.persistWorksheet(worksheet);
+        }
+
+        Worksheet retrieved = new ChangeLogWorksheetState(ID, webContext, worksheetStore).retrieveWorksheet();
+        assertEquals("John 99", retrieved.getRow(new UniqueProperty("id", "1")).getColumn("name").getChangedValue());
+        assertEquals(2, worksheetStore.load(webContext, getKey(webContext)).size());
+
+        // a cleared worksheet leaves nothing behind
+        state.persistWorksheet(new Worksheet(ID));
+        new ChangeLogWorksheetState(ID, webContext, worksheetStore).retrieveWorksheet();
+        assertNull(worksheetStore.load(webContext, getKey(webContext)));
+    }
+
+    @Test
+    public void clearedWorksheetIsPersisted() {
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.addInitParameter("jmesaPreferencesLocation", "/worksheet-store.properties");
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+
+        TableFacade tableFacade = new TableFacade(ID, request);
+        tableFacade.setEditable(true);
+        Worksheet worksheet = tableFacade.getWorksheet();
+        addColumn(worksheet, "1", "name", "George", "John");
+        tableFacade.persistWorksheet(worksheet);
+
+        TableModelUtils.clearWorksheet(ID, request);
+
+        tableFacade = new TableFacade(ID, request);
+        tableFacade.setEditable(true);
+        assertTrue(tableFacade.getWorksheet().getRows().isEmpty());
+    }
+
+    @Test
+    public void storeIsPerApplication() {
+
+        WebContext webContext = createWebContext("/worksheet-store.properties");
+        WebContext sameApplication = new HttpServletRequestWebContext(
+                new MockHttpServletRequest(((HttpServletRequest) webContext.getBackingObject()).getServletContext()));
+        WebContext otherApplication = createWebContext("/worksheet-store.properties");
+
+        WorksheetStateFactory.createWorksheetState(ID, webContext);
+        WorksheetStateFactory.createWorksheetState(ID, sameApplication);
+        WorksheetStateFactory.createWorksheetState(ID, otherApplication);
+
+        String className = MemoryWorksheetStore.class.getName();
+        WorksheetStore worksheetStore = WorksheetStateFactory.getWorksheetStores(webContext).get(className);
+        assertNotNull(worksheetStore);
+        assertSame(worksheetStore, WorksheetStateFactory.getWorksheetStores(sameApplication).get(className));
+        assertNotSame(worksheetStore, WorksheetStateFactory.getWorksheetStores(otherApplication).get(className));
+    }
+
+    @Test
+    public void requestsShareTheLock() {
+
+        WebContext webContext = createWebContext();
+        MemoryWorksheetStore worksheetStore = new MemoryWorksheetStore();
+
+        ChangeLogWorksheetState state = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+        Worksheet worksheet = state.retrieveOrCreateWorksheet(() -> new Worksheet(ID));
+        ChangeLogWorksheetState otherState = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+        Worksheet otherWorksheet = otherState.retrieveOrCreateWorksheet(() -> new Worksheet(ID));
+
+        assertNotSame(worksheet, otherWorksheet);
+        assertSame(state.getLock(worksheet), otherState.getLock(otherWorksheet));
+    }
+
+    @Test
+    public void jspPageKeyHasTheSession() {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        WebContext jspPageWebContext = new JspPageWebContext(new MockPageContext(servletContext, request));
+        WebContext requestWebContext = new HttpServletRequestWebContext(request);
+
+        String key = getKey(jspPageWebContext);
+        assertTrue(key.endsWith("|" + ID + "_WORKSHEET_CHANGES"));
+        assertEquals(getKey(requestWebContext), key);
+
+        MockHttpServletRequest otherRequest = new MockHttpServletRequest(servletContext);
+        assertNotEquals(key, getKey(new JspPageWebContext(new MockPageContext(servletContext, otherRequest))));
+    }
+
+    @Test
+    public void keySurvivesANewSessionId() {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        WebContext webContext = new HttpServletRequestWebContext(request);
+        String key = getKey(webContext);
+
+        request.changeSessionId();
+        assertEquals(key, getKey(webContext));
+    }
+
+    @Test
+    public void endedSessionIsRemoved() {
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        WebContext webContext = new HttpServletRequestWebContext(request);
+        WebContext otherWebContext = new HttpServletRequestWebContext(new MockHttpServletRequest(servletContext));
+
+        MemoryWorksheetStore memoryStore = new MemoryWorksheetStore();
+        FileWorksheetStore fileStore = new FileWorksheetStore();
+        fileStore.setPreferences(code -> FileWorksheetStore.DIRECTORY.equals(code) ? directory.getPath() : null);
+        WorksheetStateFactory.getWorksheetStores(webContext).put("memory", memoryStore);
+        WorksheetStateFactory.getWorksheetStores(webContext).put("file", fileStore);
+
+        for (WorksheetStore worksheetStore : new WorksheetStore[]{memoryStore, fileStore}) {
+            for (WebContext wc : new WebContext[]{webContext, otherWebContext}) {
+                Worksheet worksheet = new Worksheet(ID);
+                addColumn(worksheet, "1", "name", "George", "John");
+                new ChangeLogWorksheetState(ID, wc, worksheetStore).persistWorksheet(worksheet);
+            }
+        }
+        assertEquals(2, directory.listFiles().length);
+
+        new WorksheetStoreListener().sessionDestroyed(new HttpSessionEvent(request.getSession()));
+
+        assertNull(memoryStore.load(webContext, getKey(webContext)));
+        assertNull(fileStore.load(webContext, getKey(webContext)));
+        assertNotNull(memoryStore.load(otherWebContext, getKey(otherWebContext)));
+        assertNotNull(fileStore.load(otherWebContext, getKey(otherWebContext)));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void noSessionIsAnError() {
+
+        WebContext webContext = new HttpServletRequestWebContext(new HashMap<String, Object>());
+
+        assertThrows(IllegalStateException.class, () -> new ChangeLogWorksheetState(ID, webContext, new MemoryWorksheetStore()));
+    }
+
+    @Test
+    public void addedRowKeepsItsTypes() {
+
+        FileWorksheetStore fileStore = new FileWorksheetStore();
+        fileStore.setPreferences(code -> FileWorksheetStore.DIRECTORY.equals(code) ? directory.getPath() : null);
+
+        Object bean = new Object();
+        Date born = new Date(-7506086400000L);
+
+        Map<?, ?> item = roundTripAddedRow(fileStore, bean, born);
+        assertEquals(born, item.get("born"));
+        assertEquals(16, item.get("term"));
+        assertNull(item.get(ItemUtils.JMESA_ITEM));
+
+        item = roundTripAddedRow(new MemoryWorksheetStore(), bean, born);
+        assertEquals(born, item.get("born"));
+        assertEquals(16, item.get("term"));
+        assertSame(bean, item.get(ItemUtils.JMESA_ITEM));
+    }
+
+    private Map<?, ?> roundTripAddedRow(WorksheetStore worksheetStore, Object bean, Date born) {
+
+        WebContext webContext = createWebContext();
+
+        Worksheet worksheet = new Worksheet(ID);
+        WorksheetRow addedRow = new WorksheetRow(new UniqueProperty("id", "-1"));
+        addedRow.setRowStatus(WorksheetRowStatus.ADD);
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", "-1");
+        item.put("born", born);
+        item.put("term", 16);
+        item.put(ItemUtils.JMESA_ITEM, bean);
+        addedRow.setItem(item);
+        worksheet.addRow(addedRow);
+
+        new ChangeLogWorksheetState(ID, webContext, worksheetStore).persistWorksheet(worksheet);
+
+        Worksheet retrieved = new ChangeLogWorksheetState(ID, webContext, worksheetStore).retrieveWorksheet();
+        return (Map<?, ?>) retrieved.getRow(new UniqueProperty("id", "-1")).getItem();
+    }
+
+    private void roundTrip(WorksheetStore worksheetStore) {
+
+        WebContext webContext = createWebContext();
+
+        ChangeLogWorksheetState state = new ChangeLogWorksheetState(ID, webContext, worksheetStore);
+        assertNull(state.retrieveWorksheet());
+
+        Worksheet worksheet = new Worksheet(ID);
+        addColumn(worksheet, "1", "name", "George", "John");
+        addColumn(worksheet, "1", "term", "1", "2");
+        addColumn(worksheet, "2", "name", "Thomas", "");
+        worksheet.getRow(new UniqueProperty("id", "2")).getColumn("name").setError("Required");
+
+        WorksheetRow addedRow = new WorksheetRow(new UniqueProperty("id", "-1"));
+        addedRow.setRowStatus(WorksheetRowStatus.ADD);
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", "-1");
+        item.put("name", "Abraham");
+        addedRow.setItem(item);
+        worksheet.addRow(addedRow);
+
+        state.persistWorksheet(worksheet);
+
+        worksheet.getRow(new UniqueProperty("id", "1")).removeColumn(worksheet.getRow(new UniqueProperty("id", "1")).getColumn("term"));
+        state.persistWorksheet(worksheet);
+
+        Worksheet retrieved = new ChangeLogWorksheetState(ID, webContext, worksheetStore).retrieveWorksheet();
+        assertEquals(3, retrieved.getRows().size());
+
+        WorksheetRow row = retrieved.getRow(new UniqueProperty("id", "1"));
+        assertEquals(WorksheetRowStatus.MODIFY, row.getRowStatus());
+        assertEquals(1, row.getColumns().size());
+        assertEquals("George", row.getColumn("name").getOriginalValue());
+        assertEquals("John", row.getColumn("name").getChangedValue());
+
+        assertEquals("Required", retrieved.getRow(new UniqueProperty("id", "2")).getColumn("name").getError());
+
+        WorksheetRow retrievedAddedRow = retrieved.getRow(new UniqueProperty("id", "-1"));
+        assertEquals(WorksheetRowStatus.ADD, retrievedAddedRow.getRowStatus());
+        assertTrue(retrievedAddedRow.getItem() instanceof Map);
+        assertEquals("Abraham", ((Map<?, ?>) retrievedAddedRow.getItem()).get("name"));
+    }
+
+    private void addColumn(Worksheet worksheet, String id, String property, String originalValue, String changedValue) {
+
+        UniqueProperty uniqueProperty = new UniqueProperty("id", id);
+        WorksheetRow row = worksheet.getRow(uniqueProperty);
+        if (row == null) {
+            row = new WorksheetRow(uniqueProperty);
+            row.setRowStatus(WorksheetRowStatus.MODIFY);
+            worksheet.addRow(row);
+        }
+
+        WorksheetColumn column = new WorksheetColumn(property, originalValue);
+        column.setChangedValue(changedValue);
+        row.addColumn(column);
+    }
+
+    private WebContext createWebContext() {
+
+        return new HttpServletRequestWebContext(new MockHttpServletRequest());
+    }
+
+    private WebContext createWebContext(String preferencesLocation) {
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.addInitParameter("jmesaPreferencesLocation", preferencesLocation);
+        return new HttpServletRequestWebContext(new MockHttpServletRequest(servletContext));
+    }
+
+    private String getKey(WebContext webContext) {
+
+        return WorksheetLocks.getSessionKey(webContext, ID + "_WORKSHEET_CHANGES");
+    }
+}